@@ -44,6 +44,37 @@ public class Constants {
     public static final String AUTHENTICATOR_TYPE_PK_JWT = "pkJWT";
     public static final String OAUTH2_PAR_URL_REF = "OAuth2ParEPUrl";
     public static final String OAUTH2_PAR_URL_CONFIG = "OAuth.OAuth2ParEPUrl";
+    public static final String ENABLE_JTI_REPLAY_FILTER = "EnableJTIReplayFilter";
+    public static final String JTI_REPLAY_FILTER_MAX_ENTRIES = "JTIReplayFilterMaxEntries";
+    public static final boolean DEFAULT_ENABLE_JTI_REPLAY_FILTER = true;
+    public static final String ENABLE_JTI_WRITE_BEHIND = "EnableJTIWriteBehind";
+    public static final String JTI_WRITE_BEHIND_BATCH_SIZE = "JTIWriteBehindBatchSize";
+    public static final String JTI_WRITE_BEHIND_FLUSH_INTERVAL = "JTIWriteBehindFlushIntervalInMillis";
+    public static final String JTI_WRITE_BEHIND_MAX_PENDING_ENTRIES = "JTIWriteBehindMaxPendingEntries";
+    public static final String ENABLE_JTI_PURGE = "EnableJTIPurge";
+    public static final String JTI_PURGE_INTERVAL = "JTIPurgeIntervalInMinutes";
+    public static final String JTI_PURGE_CHUNK_SIZE = "JTIPurgeChunkSize";
+    public static final String JTI_PURGE_CHUNK_INTERVAL = "JTIPurgeChunkIntervalInMillis";
+    public static final String JTI_PURGE_MAX_CHUNKS_PER_RUN = "JTIPurgeMaxChunksPerRun";
+    public static final boolean DEFAULT_ENABLE_JTI_PURGE = false;
+    public static final String JWKS_TTL = "JWKSCacheTTLInSeconds";
+    public static final String JWKS_REFRESH_AHEAD = "JWKSRefreshAheadInSeconds";
+    public static final String JWKS_MIN_REFRESH_INTERVAL = "JWKSMinRefreshIntervalInSeconds";
+    public static final String JWKS_MAX_ENTRIES = "JWKSCacheMaxEntries";
+    public static final String JWKS_MAX_STALENESS = "JWKSMaxStalenessInSeconds";
+    public static final String JWKS_FAILURE_BACKOFF = "JWKSFailureBackoffInSeconds";
+    public static final String JWKS_HTTP_CONNECTION_TIMEOUT_XPATH =
+            "JWTValidatorConfigs.JWKSEndpoint.HTTPConnectionTimeout";
+    public static final String JWKS_HTTP_READ_TIMEOUT_XPATH = "JWTValidatorConfigs.JWKSEndpoint.HTTPReadTimeout";
+    public static final String JWKS_HTTP_SIZE_LIMIT_XPATH = "JWTValidatorConfigs.JWKSEndpoint.HTTPSizeLimit";
+    public static final String ENABLE_STACKLESS_REJECTIONS = "EnableStacklessRejections";
+    public static final String JTI_REPLAY_STORE = "JTIReplayStore";
+    public static final String JTI_REPLAY_STORE_OFF_HEAP_CAPACITY = "JTIReplayStoreOffHeapCapacity";
+    public static final String JTI_REPLAY_STORE_JOURNAL_DIRECTORY = "JTIReplayStoreJournalDirectory";
+    public static final String JTI_REPLAY_STORE_JOURNAL_SEGMENT_SIZE = "JTIReplayStoreJournalSegmentSizeInKB";
+    public static final String JTI_REPLAY_STORE_JOURNAL_BUCKET = "JTIReplayStoreJournalBucketInMinutes";
+    public static final String ENABLE_VERIFIED_ASSERTION_CACHE = "EnableVerifiedAssertionCache";
+    public static final String UNKNOWN_CLIENT_CACHE_TIMEOUT = "UnknownClientCacheTimeoutInSeconds";
 
     //query keys
     public static final String GET_JWT_ID = "GET_JWT_ID";
@@ -55,6 +86,15 @@ public class Constants {
     public static final String UPSERT_ORACLE = "UPSERT_ORACLE";
     public static final String UPSERT_MSSQL_DB2 = "UPSERT_MSSQL_DB2";
     public static final String INSERT_JWD_ID = "INSERT_JWD_ID";
+    public static final String CLAIM_H2 = "CLAIM_H2";
+    public static final String CLAIM_MYSQL = "CLAIM_MYSQL";
+    public static final String CLAIM_POSTGRESQL = "CLAIM_POSTGRESQL";
+    public static final String CLAIM_MSSQL_DB2 = "CLAIM_MSSQL_DB2";
+    public static final String CLAIM_ORACLE = "CLAIM_ORACLE";
+    public static final String GET_EXPIRED_JWT_IDS = "GET_EXPIRED_JWT_IDS";
+    public static final String DELETE_EXPIRED_JWT_ID = "DELETE_EXPIRED_JWT_ID";
+    public static final String GET_OLDEST_EXPIRED_JWT = "GET_OLDEST_EXPIRED_JWT";
+    public static final String INTEGRITY_CONSTRAINT_VIOLATION_SQL_STATE_CLASS = "23";
     public static final int DEFAULT_TENANT_ID = -1;
 
     public static class SQLQueries {
@@ -123,5 +163,37 @@ public class Constants {
                 "EXP_TIME = ? , " +
                 "TIME_CREATED = ? WHEN NOT MATCHED THEN INSERT (JWT_ID, TENANT_ID ,EXP_TIME, TIME_CREATED) " +
                 "VALUES (?,?,?,?);";
+
+        // Claim-if-absent queries. H2, MySQL and MariaDB rely on the primary key to reject a duplicate insert,
+        // while the others insert zero rows when the JTI is already recorded.
+        public static final String CLAIM_JWT_ID_POSTGRESQL = "INSERT INTO IDN_OIDC_JTI (JWT_ID, EXP_TIME, " +
+                "TIME_CREATED) VALUES (?,?,?) ON CONFLICT (JWT_ID) DO NOTHING";
+        public static final String CLAIM_TENANTED_JWT_ID_POSTGRESQL = "INSERT INTO IDN_OIDC_JTI (JWT_ID, TENANT_ID, " +
+                "EXP_TIME, TIME_CREATED) VALUES (?,?,?,?) ON CONFLICT (JWT_ID, TENANT_ID) DO NOTHING";
+
+        public static final String CLAIM_JWT_ID_MSSQL_OR_DB2 = "MERGE INTO IDN_OIDC_JTI T USING " +
+                "(VALUES (?,?,?)) S (JWT_ID, EXP_TIME, TIME_CREATED) ON T.JWT_ID = S.JWT_ID WHEN NOT MATCHED THEN " +
+                "INSERT (JWT_ID, EXP_TIME, TIME_CREATED) VALUES (S.JWT_ID, S.EXP_TIME, S.TIME_CREATED);";
+        public static final String CLAIM_TENANTED_JWT_ID_MSSQL_OR_DB2 = "MERGE INTO IDN_OIDC_JTI T USING " +
+                "(VALUES (?,?,?,?)) S (JWT_ID, TENANT_ID, EXP_TIME, TIME_CREATED) ON T.JWT_ID = S.JWT_ID AND " +
+                "T.TENANT_ID = S.TENANT_ID WHEN NOT MATCHED THEN INSERT (JWT_ID, TENANT_ID, EXP_TIME, " +
+                "TIME_CREATED) VALUES (S.JWT_ID, S.TENANT_ID, S.EXP_TIME, S.TIME_CREATED);";
+
+        public static final String CLAIM_JWT_ID_ORACLE = "MERGE INTO IDN_OIDC_JTI USING dual ON (JWT_ID = ?) " +
+                "WHEN NOT MATCHED THEN INSERT (JWT_ID, EXP_TIME, TIME_CREATED) VALUES (?, ?, ?)";
+        public static final String CLAIM_TENANTED_JWT_ID_ORACLE = "MERGE INTO IDN_OIDC_JTI USING dual " +
+                "ON (JWT_ID = ? AND TENANT_ID = ?) WHEN NOT MATCHED THEN INSERT (JWT_ID, TENANT_ID, EXP_TIME, " +
+                "TIME_CREATED) VALUES (?, ?, ?, ?)";
+
+        // Expired JTIs are deleted in bounded chunks by their primary key to keep the transactions and the lock
+        // footprint small. The size of a chunk is limited through the JDBC statement.
+        public static final String GET_EXPIRED_JWT_IDS = "SELECT JWT_ID FROM IDN_OIDC_JTI WHERE EXP_TIME < ?";
+        public static final String GET_EXPIRED_TENANTED_JWT_IDS = "SELECT JWT_ID, TENANT_ID FROM IDN_OIDC_JTI WHERE " +
+                "EXP_TIME < ?";
+        public static final String DELETE_EXPIRED_JWT_ID = "DELETE FROM IDN_OIDC_JTI WHERE JWT_ID = ? AND " +
+                "EXP_TIME < ?";
+        public static final String DELETE_EXPIRED_TENANTED_JWT_ID = "DELETE FROM IDN_OIDC_JTI WHERE JWT_ID = ? AND " +
+                "TENANT_ID = ? AND EXP_TIME < ?";
+        public static final String GET_OLDEST_EXPIRED_JWT = "SELECT MIN(EXP_TIME) FROM IDN_OIDC_JTI WHERE EXP_TIME < ?";
     }
 }
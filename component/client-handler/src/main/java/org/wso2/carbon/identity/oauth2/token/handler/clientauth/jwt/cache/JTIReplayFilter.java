@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Node local, lock striped filter of the JTIs accepted by this node.
+ * The filter is placed in front of the JWTStorageManager so that the replay decision can be taken without a database
+ * round trip whenever the local state is sufficient. Entries are kept until the expiry time of the assertion and are
+ * evicted in expiry order.
+ */
+public class JTIReplayFilter {
+
+    public static final int DEFAULT_SHARD_COUNT = 16;
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    /**
+     * Outcome of a filter lookup.
+     */
+    public enum Verdict {
+
+        /**
+         * The JTI has been accepted by this node and the assertion has not expired yet.
+         */
+        SEEN,
+
+        /**
+         * The filter cannot decide. The caller should consult the persistent storage.
+         */
+        UNKNOWN
+    }
+
+    private final Shard[] shards;
+    private final int shardMask;
+
+    public JTIReplayFilter() {
+
+        this(DEFAULT_SHARD_COUNT, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Create a JTI replay filter.
+     *
+     * @param shardCount Number of lock stripes. Rounded up to the next power of two.
+     * @param maxEntries Maximum number of live entries held by the filter.
+     */
+    public JTIReplayFilter(int shardCount, int maxEntries) {
+
+        int size = 1;
+        while (size < shardCount) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        int maxEntriesPerShard = Math.max(1, maxEntries / size);
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard(maxEntriesPerShard);
+        }
+        this.shardMask = size - 1;
+    }
+
+    /**
+     * Check the given JTI against the filter.
+     *
+     * @param jti                 JTI of the assertion.
+     * @param tenantId            Tenant id.
+     * @param currentTimeInMillis Current time.
+     * @return Verdict of the filter.
+     */
+    public Verdict check(String jti, int tenantId, long currentTimeInMillis) {
+
+        JTIKey key = new JTIKey(jti, tenantId);
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            shard.evictExpired(currentTimeInMillis);
+            Long expiryTime = shard.entries.get(key);
+            if (expiryTime != null) {
+                return Verdict.SEEN;
+            }
+            return Verdict.UNKNOWN;
+        }
+    }
+
+    /**
+     * Check whether the given JTI is recorded with the given expiry time.
+     *
+     * @param jti                 JTI of the assertion.
+     * @param tenantId            Tenant id.
+     * @param expiryTime          Expiry time the JTI was recorded with.
+     * @param currentTimeInMillis Current time.
+     * @return True if a live entry of the JTI has the same expiry time.
+     */
+    public boolean isRecorded(String jti, int tenantId, long expiryTime, long currentTimeInMillis) {
+
+        JTIKey key = new JTIKey(jti, tenantId);
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            Long recordedExpiryTime = shard.entries.get(key);
+            return recordedExpiryTime != null && recordedExpiryTime == expiryTime &&
+                    expiryTime > currentTimeInMillis;
+        }
+    }
+
+    /**
+     * Record an accepted JTI until the given expiry time.
+     *
+     * @param jti                 JTI of the assertion.
+     * @param tenantId            Tenant id.
+     * @param expiryTime          Time until which the entry should be retained.
+     * @param currentTimeInMillis Current time.
+     */
+    public void record(String jti, int tenantId, long expiryTime, long currentTimeInMillis) {
+
+        if (expiryTime <= currentTimeInMillis) {
+            return;
+        }
+        JTIKey key = new JTIKey(jti, tenantId);
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            shard.evictExpired(currentTimeInMillis);
+            shard.put(key, expiryTime);
+        }
+    }
+
+    /**
+     * Remove the given JTI from the filter.
+     *
+     * @param jti      JTI of the assertion.
+     * @param tenantId Tenant id.
+     */
+    public void remove(String jti, int tenantId) {
+
+        JTIKey key = new JTIKey(jti, tenantId);
+        Shard shard = shardFor(key);
+        synchronized (shard) {
+            shard.entries.remove(key);
+        }
+    }
+
+    /**
+     * Remove all the entries from the filter.
+     */
+    public void clear() {
+
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.entries.clear();
+                shard.expiryQueue.clear();
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries held by the filter, including expired entries which are not evicted yet.
+     *
+     * @return Number of entries.
+     */
+    public int size() {
+
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Shard shardFor(JTIKey key) {
+
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    /**
+     * A single lock stripe of the filter.
+     */
+    private static class Shard {
+
+        private final Map<JTIKey, Long> entries = new HashMap<>();
+        private final PriorityQueue<ExpiryNode> expiryQueue = new PriorityQueue<>();
+        private final int maxEntries;
+
+        Shard(int maxEntries) {
+
+            this.maxEntries = maxEntries;
+        }
+
+        void put(JTIKey key, long expiryTime) {
+
+            Long previous = entries.put(key, expiryTime);
+            if (previous == null || previous != expiryTime) {
+                expiryQueue.add(new ExpiryNode(key, expiryTime));
+            }
+            while (entries.size() > maxEntries) {
+                ExpiryNode node = expiryQueue.poll();
+                if (node == null) {
+                    break;
+                }
+                removeIfCurrent(node);
+            }
+        }
+
+        void evictExpired(long currentTimeInMillis) {
+
+            ExpiryNode node = expiryQueue.peek();
+            while (node != null && node.expiryTime <= currentTimeInMillis) {
+                expiryQueue.poll();
+                removeIfCurrent(node);
+                node = expiryQueue.peek();
+            }
+        }
+
+        /**
+         * Remove the entry of the node only if the node still reflects the current expiry of the entry. Nodes
+         * become stale when the expiry time of an entry is updated.
+         */
+        private void removeIfCurrent(ExpiryNode node) {
+
+            Long expiryTime = entries.get(node.key);
+            if (expiryTime != null && expiryTime == node.expiryTime) {
+                entries.remove(node.key);
+            }
+        }
+    }
+
+    /**
+     * Expiry ordered node of the eviction queue.
+     */
+    private static class ExpiryNode implements Comparable<ExpiryNode> {
+
+        private final JTIKey key;
+        private final long expiryTime;
+
+        ExpiryNode(JTIKey key, long expiryTime) {
+
+            this.key = key;
+            this.expiryTime = expiryTime;
+        }
+
+        @Override
+        public int compareTo(ExpiryNode other) {
+
+            return Long.compare(expiryTime, other.expiryTime);
+        }
+    }
+
+    /**
+     * Key of the filter entries.
+     */
+    private static class JTIKey {
+
+        private final String jti;
+        private final int tenantId;
+
+        JTIKey(String jti, int tenantId) {
+
+            this.jti = jti;
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof JTIKey)) {
+                return false;
+            }
+            JTIKey that = (JTIKey) o;
+            return tenantId == that.tenantId && jti.equals(that.jti);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * jti.hashCode() + tenantId;
+        }
+    }
+}
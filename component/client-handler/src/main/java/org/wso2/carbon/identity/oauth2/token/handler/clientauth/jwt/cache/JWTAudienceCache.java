@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.application.authentication.framework.cache.AuthenticationBaseCache;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Implements a cache to store the accepted audiences of the private key JWT assertions of a tenant.
+ */
+public class JWTAudienceCache extends AuthenticationBaseCache<JWTAudienceCacheKey, JWTAudienceCacheEntry> {
+
+    public static final String PRIVATE_KEY_JWT_AUDIENCE_CACHE = "PrivateKeyJWTAudience";
+    private static volatile JWTAudienceCache instance;
+
+    private JWTAudienceCache() {
+
+        super(PRIVATE_KEY_JWT_AUDIENCE_CACHE);
+    }
+
+    public static JWTAudienceCache getInstance() {
+
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (JWTAudienceCache.class) {
+                if (instance == null) {
+                    instance = new JWTAudienceCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Clear both the default and the mTLS audiences of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clearCacheEntries(String tenantDomain) {
+
+        clearCacheEntry(new JWTAudienceCacheKey(tenantDomain, false), tenantDomain);
+        clearCacheEntry(new JWTAudienceCacheKey(tenantDomain, true), tenantDomain);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cache Entry for JWT Audience Cache.
+ */
+public class JWTAudienceCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = -7120593348125830451L;
+
+    private final Set<String> audiences;
+
+    public JWTAudienceCacheEntry(Set<String> audiences) {
+
+        this.audiences = Collections.unmodifiableSet(new HashSet<>(audiences));
+    }
+
+    public Set<String> getAudiences() {
+
+        return audiences;
+    }
+}
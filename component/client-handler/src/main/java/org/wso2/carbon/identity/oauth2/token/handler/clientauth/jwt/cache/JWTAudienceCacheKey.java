@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheKey;
+
+/**
+ * Cache key used to access the accepted audiences of a tenant. Requests received through the mTLS alias hostname
+ * accept a different set of endpoints, hence they are kept under a separate key.
+ */
+public class JWTAudienceCacheKey extends CacheKey {
+
+    private static final long serialVersionUID = 2093581472305960118L;
+
+    private final String tenantDomain;
+    private final boolean mtlsAlias;
+
+    public JWTAudienceCacheKey(String tenantDomain, boolean mtlsAlias) {
+
+        this.tenantDomain = tenantDomain;
+        this.mtlsAlias = mtlsAlias;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public boolean isMtlsAlias() {
+
+        return mtlsAlias;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        JWTAudienceCacheKey that = (JWTAudienceCacheKey) o;
+        return mtlsAlias == that.isMtlsAlias() && tenantDomain.equals(that.getTenantDomain());
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = super.hashCode();
+        result = 31 * result + tenantDomain.hashCode();
+        result = 31 * result + (mtlsAlias ? 1 : 0);
+        return result;
+    }
+}
@@ -18,26 +18,46 @@
 
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
 
-import com.nimbusds.jwt.SignedJWT;
 import org.wso2.carbon.identity.core.cache.CacheEntry;
 
-import java.text.ParseException;
-
 /**
- * Cache Entry for JWT Cache
+ * Cache Entry for JWT Cache. Only the times needed for the replay decision are kept, so that an entry does not hold
+ * the serialized assertion.
  */
 public class JWTCacheEntry extends CacheEntry {
-    private String encodedJWT;
 
-    public JWTCacheEntry(SignedJWT jwt) {
-        this.encodedJWT = jwt.serialize();
+    private static final long serialVersionUID = -2093486312850728311L;
+
+    private final long expiryTime;
+    private final long issuedTime;
+    private final int tenantId;
+
+    /**
+     * Create a cache entry.
+     *
+     * @param expiryTime Expiry time of the assertion in milliseconds.
+     * @param issuedTime Issued time of the assertion in milliseconds, or 0 if the assertion has no iat claim.
+     * @param tenantId   Tenant id of the client.
+     */
+    public JWTCacheEntry(long expiryTime, long issuedTime, int tenantId) {
+
+        this.expiryTime = expiryTime;
+        this.issuedTime = issuedTime;
+        this.tenantId = tenantId;
     }
 
-    public SignedJWT getJwt() throws ParseException {
-        return SignedJWT.parse(this.encodedJWT);
+    public long getExpiryTime() {
+
+        return expiryTime;
     }
 
-    public String getEncodedJWt() {
-        return this.encodedJWT;
+    public long getIssuedTime() {
+
+        return issuedTime;
+    }
+
+    public int getTenantId() {
+
+        return tenantId;
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.identity.application.authentication.framework.cache.AuthenticationBaseCache;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Implements a cache to store the compiled client authentication profiles of the private key JWT clients.
+ */
+public class JWTClientAuthProfileCache
+        extends AuthenticationBaseCache<JWTClientAuthProfileCacheKey, JWTClientAuthProfileCacheEntry> {
+
+    public static final String PRIVATE_KEY_JWT_CLIENT_AUTH_PROFILE_CACHE = "PrivateKeyJWTClientAuthProfile";
+    private static volatile JWTClientAuthProfileCache instance;
+
+    private JWTClientAuthProfileCache() {
+
+        super(PRIVATE_KEY_JWT_CLIENT_AUTH_PROFILE_CACHE);
+    }
+
+    public static JWTClientAuthProfileCache getInstance() {
+
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (JWTClientAuthProfileCache.class) {
+                if (instance == null) {
+                    instance = new JWTClientAuthProfileCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Clear the profile of the client. The profile is cached against the tenant the request was resolved in, which
+     * is the super tenant when tenant qualified URLs are not used, hence both the entries are cleared.
+     *
+     * @param clientId     Client id.
+     * @param tenantDomain Tenant domain of the client.
+     */
+    public void clearCacheEntries(String clientId, String tenantDomain) {
+
+        clearCacheEntry(new JWTClientAuthProfileCacheKey(clientId, tenantDomain), tenantDomain);
+        if (!MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
+            clearCacheEntry(new JWTClientAuthProfileCacheKey(clientId, MultitenantConstants.SUPER_TENANT_DOMAIN_NAME),
+                    MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cache Entry for JWT Client Auth Profile Cache. Holds everything the validator needs to know about a client, compiled
+ * once from the OAuth application, the service provider and the tenant, so that an assertion is validated with a
+ * single cache lookup. The key material of the client is not part of the profile, as the key store certificates are
+ * checked against the key store on each use.
+ */
+public class JWTClientAuthProfileCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 6314287190542766013L;
+
+    private final String consumerKey;
+    private final String tenantDomain;
+    private final int tenantId;
+    private final boolean fapiConformant;
+    private final Set<String> allowedSigningAlgorithms;
+    private final Boolean tokenReuseAllowed;
+
+    /**
+     * Create a client authentication profile.
+     *
+     * @param consumerKey              Consumer key of the client.
+     * @param tenantDomain             Tenant domain of the client.
+     * @param tenantId                 Tenant id of the client.
+     * @param fapiConformant           Whether the client is a FAPI conformant application.
+     * @param allowedSigningAlgorithms Signing algorithms registered for the client. Empty if any algorithm is allowed.
+     * @param tokenReuseAllowed        Token reuse policy of the client, or null if the client follows the tenant
+     *                                 configuration.
+     */
+    public JWTClientAuthProfileCacheEntry(String consumerKey, String tenantDomain, int tenantId,
+                                          boolean fapiConformant, Set<String> allowedSigningAlgorithms,
+                                          Boolean tokenReuseAllowed) {
+
+        this.consumerKey = consumerKey;
+        this.tenantDomain = tenantDomain;
+        this.tenantId = tenantId;
+        this.fapiConformant = fapiConformant;
+        this.allowedSigningAlgorithms = Collections.unmodifiableSet(new HashSet<>(allowedSigningAlgorithms));
+        this.tokenReuseAllowed = tokenReuseAllowed;
+    }
+
+    public String getConsumerKey() {
+
+        return consumerKey;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public int getTenantId() {
+
+        return tenantId;
+    }
+
+    public boolean isFapiConformant() {
+
+        return fapiConformant;
+    }
+
+    public Set<String> getAllowedSigningAlgorithms() {
+
+        return allowedSigningAlgorithms;
+    }
+
+    /**
+     * Check whether the given algorithm can be used to sign the assertions of the client.
+     *
+     * @param signingAlgorithm Signing algorithm of the assertion.
+     * @return True if no algorithm is registered for the client or the algorithm is the registered one.
+     */
+    public boolean isSigningAlgorithmAllowed(String signingAlgorithm) {
+
+        return allowedSigningAlgorithms.isEmpty() || allowedSigningAlgorithms.contains(signingAlgorithm);
+    }
+
+    /**
+     * Get the token reuse policy of the client.
+     *
+     * @return Whether the client allows the reuse of its assertions, or null if the policy is not set for the client.
+     */
+    public Boolean getTokenReuseAllowed() {
+
+        return tokenReuseAllowed;
+    }
+}
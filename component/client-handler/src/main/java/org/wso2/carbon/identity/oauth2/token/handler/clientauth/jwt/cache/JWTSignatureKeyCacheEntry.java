@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * Cache Entry for JWT Signature Key Cache. Holds where the key material of a client comes from, and for certificate
+ * based clients the verifier built from the public key of the certificate.
+ */
+public class JWTSignatureKeyCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 5172360384297436217L;
+
+    /**
+     * Source of the key material used to verify the assertions of a client.
+     */
+    public enum KeySource {
+
+        /**
+         * Certificate configured in the service provider.
+         */
+        CERTIFICATE,
+
+        /**
+         * JWKS endpoint configured in the service provider.
+         */
+        JWKS_URI,
+
+        /**
+         * Certificate of the tenant key store, for the clients without any configured key material.
+         */
+        KEYSTORE_ALIAS
+    }
+
+    private final KeySource keySource;
+    private final X509Certificate certificate;
+    private final String jwksUri;
+    // Verifiers are not serializable, hence rebuilt on demand if the entry is replicated.
+    private transient volatile JWSVerifier verifier;
+
+    private JWTSignatureKeyCacheEntry(KeySource keySource, X509Certificate certificate, String jwksUri) {
+
+        this.keySource = keySource;
+        this.certificate = certificate;
+        this.jwksUri = jwksUri;
+    }
+
+    public static JWTSignatureKeyCacheEntry forCertificate(KeySource keySource, X509Certificate certificate) {
+
+        return new JWTSignatureKeyCacheEntry(keySource, certificate, null);
+    }
+
+    public static JWTSignatureKeyCacheEntry forJwksUri(String jwksUri) {
+
+        return new JWTSignatureKeyCacheEntry(KeySource.JWKS_URI, null, jwksUri);
+    }
+
+    public KeySource getKeySource() {
+
+        return keySource;
+    }
+
+    public X509Certificate getCertificate() {
+
+        return certificate;
+    }
+
+    public String getJwksUri() {
+
+        return jwksUri;
+    }
+
+    /**
+     * Get the RSA verifier built from the public key of the certificate.
+     *
+     * @return Verifier, or null if there is no certificate or the public key is not an RSA public key.
+     */
+    public JWSVerifier getVerifier() {
+
+        JWSVerifier current = verifier;
+        if (current == null && certificate != null) {
+            PublicKey publicKey = certificate.getPublicKey();
+            if (publicKey instanceof RSAPublicKey) {
+                current = new RSASSAVerifier((RSAPublicKey) publicKey);
+                verifier = current;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.identity.application.authentication.framework.cache.AuthenticationBaseCache;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Implements a short lived negative cache of the assertion subjects which did not resolve to an OAuth application.
+ * The subject of an assertion is chosen by the caller, hence a stream of assertions with random subjects would miss
+ * the OAuth application cache and reach the database on every request. Subjects which are known not to resolve are
+ * rejected from this cache until the entry expires or an application with the same client id is registered, in which
+ * case the entry is cleared on every node of the cluster.
+ */
+public class JWTUnknownClientCache
+        extends AuthenticationBaseCache<JWTUnknownClientCacheKey, JWTUnknownClientCacheEntry> {
+
+    public static final String PRIVATE_KEY_JWT_UNKNOWN_CLIENT_CACHE = "PrivateKeyJWTUnknownClient";
+    public static final long DEFAULT_TIMEOUT_IN_SECONDS = 30;
+    private static volatile JWTUnknownClientCache instance;
+
+    private JWTUnknownClientCache() {
+
+        super(PRIVATE_KEY_JWT_UNKNOWN_CLIENT_CACHE);
+    }
+
+    public static JWTUnknownClientCache getInstance() {
+
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (JWTUnknownClientCache.class) {
+                if (instance == null) {
+                    instance = new JWTUnknownClientCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether the given subject is known not to resolve to an application.
+     *
+     * @param clientId            Subject of the assertion.
+     * @param tenantDomain        Tenant domain in which the subject was resolved.
+     * @param currentTimeInMillis Current time.
+     * @return True if the subject is known to be unknown.
+     */
+    public boolean isUnknown(String clientId, String tenantDomain, long currentTimeInMillis) {
+
+        JWTUnknownClientCacheKey cacheKey = new JWTUnknownClientCacheKey(clientId, tenantDomain);
+        JWTUnknownClientCacheEntry entry = getValueFromCache(cacheKey, tenantDomain);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.getExpiryTime() > currentTimeInMillis) {
+            return true;
+        }
+        clearCacheEntry(cacheKey, tenantDomain);
+        return false;
+    }
+
+    /**
+     * Remember that the given subject did not resolve to an application.
+     *
+     * @param clientId     Subject of the assertion.
+     * @param tenantDomain Tenant domain in which the subject was resolved.
+     * @param expiryTime   Time until which the subject is remembered as unknown.
+     */
+    public void addUnknown(String clientId, String tenantDomain, long expiryTime) {
+
+        addToCache(new JWTUnknownClientCacheKey(clientId, tenantDomain), new JWTUnknownClientCacheEntry(expiryTime),
+                tenantDomain);
+    }
+
+    /**
+     * Clear the given client id. The subject is remembered against the tenant the request was resolved in, which is
+     * the super tenant when tenant qualified URLs are not used, hence both the entries are cleared.
+     *
+     * @param clientId     Client id.
+     * @param tenantDomain Tenant domain of the registered application.
+     */
+    public void clearCacheEntries(String clientId, String tenantDomain) {
+
+        clearCacheEntry(new JWTUnknownClientCacheKey(clientId, tenantDomain), tenantDomain);
+        if (!MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
+            clearCacheEntry(new JWTUnknownClientCacheKey(clientId, MultitenantConstants.SUPER_TENANT_DOMAIN_NAME),
+                    MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        }
+    }
+}
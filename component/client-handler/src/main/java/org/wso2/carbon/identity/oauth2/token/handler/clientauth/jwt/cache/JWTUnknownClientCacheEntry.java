@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+/**
+ * Cache Entry for JWT Unknown Client Cache.
+ */
+public class JWTUnknownClientCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 4718203659127734560L;
+
+    private final long expiryTime;
+
+    public JWTUnknownClientCacheEntry(long expiryTime) {
+
+        this.expiryTime = expiryTime;
+    }
+
+    public long getExpiryTime() {
+
+        return expiryTime;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheKey;
+
+/**
+ * Cache key used to access an assertion subject which did not resolve to an application.
+ */
+public class JWTUnknownClientCacheKey extends CacheKey {
+
+    private static final long serialVersionUID = -2291860542108427153L;
+
+    private final String clientId;
+    private final String tenantDomain;
+
+    public JWTUnknownClientCacheKey(String clientId, String tenantDomain) {
+
+        this.clientId = clientId;
+        this.tenantDomain = tenantDomain;
+    }
+
+    public String getClientId() {
+
+        return clientId;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        JWTUnknownClientCacheKey that = (JWTUnknownClientCacheKey) o;
+        return clientId.equals(that.getClientId()) && tenantDomain.equals(that.getTenantDomain());
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = super.hashCode();
+        result = 31 * result + clientId.hashCode();
+        result = 31 * result + tenantDomain.hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.application.authentication.framework.cache.AuthenticationBaseCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.Util;
+import org.wso2.carbon.utils.CarbonUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Implements a cache to store the reusable assertions whose signature has been verified.
+ * Clients which are allowed to reuse their assertions present the same compact JWS over and over, hence a successful
+ * signature verification is remembered by the SHA-256 digest of the compact assertion until the assertion expires, and
+ * the repeated presentations skip the public key operation. An entry is bound to the key material which verified the
+ * assertion, and is ignored once the key material of the client is replaced, e.g. when the application is updated.
+ */
+public class JWTVerifiedAssertionCache
+        extends AuthenticationBaseCache<JWTVerifiedAssertionCacheKey, JWTVerifiedAssertionCacheEntry> {
+
+    public static final String PRIVATE_KEY_JWT_VERIFIED_ASSERTION_CACHE = "PrivateKeyJWTVerifiedAssertion";
+    private static volatile JWTVerifiedAssertionCache instance;
+
+    private JWTVerifiedAssertionCache() {
+
+        super(PRIVATE_KEY_JWT_VERIFIED_ASSERTION_CACHE);
+    }
+
+    public static JWTVerifiedAssertionCache getInstance() {
+
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (JWTVerifiedAssertionCache.class) {
+                if (instance == null) {
+                    instance = new JWTVerifiedAssertionCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the digest which identifies a compact assertion in the cache.
+     *
+     * @param compactAssertion Compact serialization of the assertion.
+     * @return SHA-256 digest of the assertion.
+     */
+    public static byte[] digest(String compactAssertion) {
+
+        return Util.getSHA256Digest().digest(compactAssertion.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Check whether the assertion has been verified with the given key material and is still valid.
+     *
+     * @param digest              Digest of the assertion.
+     * @param clientId            Client id of the assertion.
+     * @param tenantDomain        Tenant domain of the client.
+     * @param keyMaterial         Current key material of the client.
+     * @param currentTimeInMillis Current time.
+     * @return True if the signature of the assertion does not need to be verified again.
+     */
+    public boolean isVerified(byte[] digest, String clientId, String tenantDomain, Object keyMaterial,
+                              long currentTimeInMillis) {
+
+        JWTVerifiedAssertionCacheKey cacheKey = new JWTVerifiedAssertionCacheKey(digest);
+        JWTVerifiedAssertionCacheEntry entry = getValueFromCache(cacheKey, tenantDomain);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.getValidUntil() > currentTimeInMillis && entry.getKeyMaterial() == keyMaterial &&
+                entry.getClientId().equals(clientId) && entry.getTenantDomain().equals(tenantDomain)) {
+            return true;
+        }
+        clearCacheEntry(cacheKey, tenantDomain);
+        return false;
+    }
+
+    /**
+     * Remember a successful verification of the assertion.
+     *
+     * @param digest       Digest of the assertion.
+     * @param clientId     Client id of the assertion.
+     * @param tenantDomain Tenant domain of the client.
+     * @param keyMaterial  Key material which verified the assertion.
+     * @param validUntil   Time until which the verification can be reused.
+     */
+    public void put(byte[] digest, String clientId, String tenantDomain, Object keyMaterial, long validUntil) {
+
+        addToCache(new JWTVerifiedAssertionCacheKey(digest),
+                new JWTVerifiedAssertionCacheEntry(clientId, tenantDomain, keyMaterial, validUntil), tenantDomain);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+/**
+ * Cache Entry for JWT Verified Assertion Cache. The key material is compared by identity and is not serializable,
+ * hence an entry read from another node never matches and the assertion is verified again.
+ */
+public class JWTVerifiedAssertionCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = -1948503277180962354L;
+
+    private final String clientId;
+    private final String tenantDomain;
+    private final transient Object keyMaterial;
+    private final long validUntil;
+
+    public JWTVerifiedAssertionCacheEntry(String clientId, String tenantDomain, Object keyMaterial, long validUntil) {
+
+        this.clientId = clientId;
+        this.tenantDomain = tenantDomain;
+        this.keyMaterial = keyMaterial;
+        this.validUntil = validUntil;
+    }
+
+    public String getClientId() {
+
+        return clientId;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public Object getKeyMaterial() {
+
+        return keyMaterial;
+    }
+
+    public long getValidUntil() {
+
+        return validUntil;
+    }
+}
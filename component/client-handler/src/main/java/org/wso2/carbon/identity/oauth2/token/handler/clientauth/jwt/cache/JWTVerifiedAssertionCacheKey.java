@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheKey;
+
+import java.util.Arrays;
+
+/**
+ * Cache key used to access a verified assertion by the digest of its compact serialization.
+ */
+public class JWTVerifiedAssertionCacheKey extends CacheKey {
+
+    private static final long serialVersionUID = 6620843157193402786L;
+
+    private final byte[] digest;
+
+    public JWTVerifiedAssertionCacheKey(byte[] digest) {
+
+        this.digest = digest;
+    }
+
+    public byte[] getDigest() {
+
+        return digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        JWTVerifiedAssertionCacheKey that = (JWTVerifiedAssertionCacheKey) o;
+        return Arrays.equals(digest, that.getDigest());
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = super.hashCode();
+        result = 31 * result + Arrays.hashCode(digest);
+        return result;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao;
+
+import org.apache.axis2.clustering.ClusteringAgent;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.core.clustering.hazelcast.HazelcastClusteringAgent;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+import org.wso2.carbon.utils.ConfigurationContextService;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduled purge of the expired JTIs in the IDN_OIDC_JTI table.
+ * Expired rows are deleted in small chunks, each in its own transaction, with a pause between the chunks so that the
+ * purge does not hold locks long enough to cause lock escalation or block the token requests. In a cluster only the
+ * coordinator node runs the purge cycles, hence the nodes do not compete for the same rows.
+ */
+public class JTIPurgeService {
+
+    private static final Log log = LogFactory.getLog(JTIPurgeService.class);
+
+    public static final long DEFAULT_PURGE_INTERVAL_IN_MINUTES = 60;
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final long DEFAULT_CHUNK_INTERVAL_IN_MILLIS = 100;
+    public static final int DEFAULT_MAX_CHUNKS_PER_RUN = 1000;
+
+    private final JWTStorageManager jwtStorageManager;
+    private final long purgeIntervalInMillis;
+    private final int chunkSize;
+    private final long chunkIntervalInMillis;
+    private final int maxChunksPerRun;
+    private final long timeStampSkewInMillis;
+
+    private final AtomicLong totalRowsPurged = new AtomicLong();
+    private final AtomicLong lastRunRowsPurged = new AtomicLong();
+    private final AtomicLong lastRunTime = new AtomicLong();
+    private final AtomicLong expiryLagInMillis = new AtomicLong();
+    private volatile ScheduledExecutorService executor;
+
+    public JTIPurgeService(JWTStorageManager jwtStorageManager, long timeStampSkewInMillis) {
+
+        this(jwtStorageManager, TimeUnit.MINUTES.toMillis(DEFAULT_PURGE_INTERVAL_IN_MINUTES), DEFAULT_CHUNK_SIZE,
+                DEFAULT_CHUNK_INTERVAL_IN_MILLIS, DEFAULT_MAX_CHUNKS_PER_RUN, timeStampSkewInMillis);
+    }
+
+    /**
+     * Create a purge service.
+     *
+     * @param jwtStorageManager     Storage manager used to delete the expired JTIs.
+     * @param purgeIntervalInMillis Interval between two purge cycles.
+     * @param chunkSize             Maximum number of rows deleted in a single transaction.
+     * @param chunkIntervalInMillis Pause between two chunks.
+     * @param maxChunksPerRun       Maximum number of chunks deleted in a purge cycle.
+     * @param timeStampSkewInMillis Allowed clock skew, for which the JTIs are kept after their expiry.
+     */
+    public JTIPurgeService(JWTStorageManager jwtStorageManager, long purgeIntervalInMillis, int chunkSize,
+                           long chunkIntervalInMillis, int maxChunksPerRun, long timeStampSkewInMillis) {
+
+        this.jwtStorageManager = jwtStorageManager;
+        this.purgeIntervalInMillis = Math.max(1, purgeIntervalInMillis);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkIntervalInMillis = Math.max(0, chunkIntervalInMillis);
+        this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+        this.timeStampSkewInMillis = Math.max(0, timeStampSkewInMillis);
+    }
+
+    /**
+     * Schedule the purge cycles.
+     */
+    public synchronized void start() {
+
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JTIPurgeService");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::purgeQuietly, purgeIntervalInMillis, purgeIntervalInMillis,
+                TimeUnit.MILLISECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug("Expired JTI purge scheduled with interval: " + purgeIntervalInMillis + "ms and chunk size: " +
+                    chunkSize);
+        }
+    }
+
+    /**
+     * Stop the purge cycles. A running cycle is interrupted between two chunks.
+     */
+    public synchronized void shutdown() {
+
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Run a purge cycle if this node is the coordinator of the cluster.
+     *
+     * @return Number of rows deleted in the cycle.
+     * @throws OAuthClientAuthnException If the expired JTIs could not be deleted.
+     */
+    public int purge() throws OAuthClientAuthnException {
+
+        if (!isCoordinator()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Expired JTIs are purged by the coordinator node. Skipping the purge cycle.");
+            }
+            return 0;
+        }
+        long currentTimeInMillis = System.currentTimeMillis();
+        // Keep the JTIs for the allowed clock skew after their expiry, as the validator accepts them until then.
+        long expiredBefore = currentTimeInMillis - timeStampSkewInMillis;
+        int purged = 0;
+        boolean completed = false;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int deleted = jwtStorageManager.deleteExpiredJWTIds(expiredBefore, chunkSize);
+            purged += deleted;
+            if (deleted < chunkSize) {
+                completed = true;
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        // The oldest expired JTI is only looked up when the cycle stopped before deleting all the expired JTIs.
+        long oldestExpiryTime = completed ? -1 : jwtStorageManager.getOldestExpiryTime(expiredBefore);
+        expiryLagInMillis.set(oldestExpiryTime < 0 ? 0 : expiredBefore - oldestExpiryTime);
+        totalRowsPurged.addAndGet(purged);
+        lastRunRowsPurged.set(purged);
+        lastRunTime.set(currentTimeInMillis);
+        if (log.isDebugEnabled()) {
+            log.debug("Purged " + purged + " expired JTIs. Expiry lag: " + expiryLagInMillis.get() + "ms.");
+        }
+        return purged;
+    }
+
+    /**
+     * Check whether this node runs the purge cycles. Only the coordinator of a Hazelcast cluster runs them, while a
+     * node which is not clustered always runs them.
+     *
+     * @return True if this node runs the purge cycles.
+     */
+    protected boolean isCoordinator() {
+
+        ConfigurationContextService configurationContextService =
+                JWTServiceDataHolder.getInstance().getConfigurationContextService();
+        if (configurationContextService == null || configurationContextService.getServerConfigContext() == null) {
+            return true;
+        }
+        ClusteringAgent clusteringAgent = configurationContextService.getServerConfigContext()
+                .getAxisConfiguration().getClusteringAgent();
+        if (clusteringAgent instanceof HazelcastClusteringAgent) {
+            return ((HazelcastClusteringAgent) clusteringAgent).isCoordinator();
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of rows deleted since the service was created.
+     *
+     * @return Total number of purged rows.
+     */
+    public long getTotalRowsPurged() {
+
+        return totalRowsPurged.get();
+    }
+
+    /**
+     * Get the number of rows deleted in the last purge cycle run by this node.
+     *
+     * @return Number of rows purged in the last cycle.
+     */
+    public long getLastRunRowsPurged() {
+
+        return lastRunRowsPurged.get();
+    }
+
+    /**
+     * Get the start time of the last purge cycle run by this node.
+     *
+     * @return Start time of the last cycle, or 0 if no cycle has run.
+     */
+    public long getLastRunTime() {
+
+        return lastRunTime.get();
+    }
+
+    /**
+     * Get how far the purge is behind the expiry horizon, i.e. the age of the oldest expired JTI left in the table
+     * after the last purge cycle.
+     *
+     * @return Lag behind the expiry horizon in milliseconds.
+     */
+    public long getExpiryLagInMillis() {
+
+        return expiryLagInMillis.get();
+    }
+
+    private boolean pause() {
+
+        if (chunkIntervalInMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkIntervalInMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void purgeQuietly() {
+
+        try {
+            purge();
+        } catch (OAuthClientAuthnException e) {
+            log.error("Error while purging the expired JTIs.", e);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error while purging the expired JTIs.", e);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JTIReplayFilter;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.Util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.DEFAULT_TENANT_ID;
+
+/**
+ * Write behind persister of the JTIs of reusable assertions.
+ * When token reuse is allowed the JTI is only recorded for bookkeeping, hence the request thread does not need to wait
+ * for the database write. Request threads enqueue the JTIs and a single background thread writes them to the
+ * IDN_OIDC_JTI table with JDBC batch upserts, either periodically or when a full batch is pending. Entries of the same
+ * JTI are coalesced so that only the latest expiry is written. The number of pending entries is bounded, once the bound
+ * is reached the caller is expected to persist the JTI synchronously. The entries of a batch which could not be written
+ * are queued again for a bounded number of attempts. Once they are given up, their cache and replay filter entries are
+ * evicted, so that the next presentation of the assertion writes the JTI again.
+ */
+public class JTIWriteBehindPersister {
+
+    private static final Log log = LogFactory.getLog(JTIWriteBehindPersister.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final long DEFAULT_FLUSH_INTERVAL_IN_MILLIS = 1000;
+    public static final int DEFAULT_MAX_PENDING_ENTRIES = 10000;
+    public static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final JWTStorageManager jwtStorageManager;
+    private final int batchSize;
+    private final long flushIntervalInMillis;
+    private final int maxPendingEntries;
+
+    private final Map<String, JWTEntry> pendingEntries = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private volatile ScheduledExecutorService executor;
+
+    public JTIWriteBehindPersister(JWTStorageManager jwtStorageManager) {
+
+        this(jwtStorageManager, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_IN_MILLIS, DEFAULT_MAX_PENDING_ENTRIES);
+    }
+
+    /**
+     * Create a write behind persister.
+     *
+     * @param jwtStorageManager     Storage manager used to write the batches.
+     * @param batchSize             Number of pending entries which triggers a flush, and the size of a JDBC batch.
+     * @param flushIntervalInMillis Maximum time an entry stays in the queue when the batch size is not reached.
+     * @param maxPendingEntries     Maximum number of entries held in memory.
+     */
+    public JTIWriteBehindPersister(JWTStorageManager jwtStorageManager, int batchSize, long flushIntervalInMillis,
+                                   int maxPendingEntries) {
+
+        this.jwtStorageManager = jwtStorageManager;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalInMillis = Math.max(1, flushIntervalInMillis);
+        this.maxPendingEntries = Math.max(1, maxPendingEntries);
+    }
+
+    /**
+     * Start the background flusher.
+     */
+    public synchronized void start() {
+
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JTIWriteBehindPersister");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalInMillis, flushIntervalInMillis,
+                TimeUnit.MILLISECONDS);
+        if (log.isDebugEnabled()) {
+            log.debug("JTI write behind persister started with batch size: " + batchSize + " and flush interval: " +
+                    flushIntervalInMillis + "ms.");
+        }
+    }
+
+    /**
+     * Stop the background flusher and write all the pending entries. The entries which still could not be written are
+     * given up.
+     */
+    public synchronized void shutdown() {
+
+        ScheduledExecutorService current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(flushIntervalInMillis, TimeUnit.MILLISECONDS)) {
+                    current.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                current.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+        for (String key : pendingEntries.keySet()) {
+            JWTEntry entry = pendingEntries.remove(key);
+            if (entry != null) {
+                pendingCount.decrementAndGet();
+                failedAttempts.remove(key);
+                evict(entry);
+            }
+        }
+    }
+
+    /**
+     * Enqueue a JTI to be persisted.
+     *
+     * @param jti         JTI of the assertion.
+     * @param tenantId    Tenant id.
+     * @param expTime     Expiry time of the assertion.
+     * @param timeCreated Time the JTI was received.
+     * @return False if the persister is not running or the queue is full, in which case the caller should persist
+     * the JTI synchronously.
+     */
+    public boolean enqueue(String jti, int tenantId, long expTime, long timeCreated) {
+
+        if (executor == null) {
+            return false;
+        }
+        String key = getKey(jti, tenantId);
+        JWTEntry entry = new JWTEntry(jti, expTime, timeCreated, tenantId);
+        JWTEntry previous = pendingEntries.get(key);
+        if (previous != null) {
+            // Coalesce with the pending entry of the same JTI. A concurrent flush may have taken it already.
+            if (pendingEntries.replace(key, previous, entry)) {
+                return true;
+            }
+        }
+        if (pendingCount.incrementAndGet() > maxPendingEntries) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        if (pendingEntries.put(key, entry) != null) {
+            pendingCount.decrementAndGet();
+        }
+        if (pendingCount.get() >= batchSize) {
+            triggerFlush();
+        }
+        return true;
+    }
+
+    /**
+     * Write all the pending entries to the database. The flush stops at the first batch which could not be written,
+     * and the entries of that batch are queued again.
+     *
+     * @throws OAuthClientAuthnException If a batch could not be written.
+     */
+    public void flush() throws OAuthClientAuthnException {
+
+        synchronized (flushLock) {
+            flushScheduled.set(false);
+            List<JWTEntry> batch = new ArrayList<>(batchSize);
+            Iterator<Map.Entry<String, JWTEntry>> iterator = pendingEntries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JWTEntry> pending = iterator.next();
+                if (pendingEntries.remove(pending.getKey(), pending.getValue())) {
+                    pendingCount.decrementAndGet();
+                    batch.add(pending.getValue());
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Get the number of entries waiting to be written.
+     *
+     * @return Number of pending entries.
+     */
+    public int getPendingCount() {
+
+        return pendingCount.get();
+    }
+
+    /**
+     * Evict the entries which mark the JTI as recorded, as the JTI of the given entry could not be written.
+     *
+     * @param entry Entry which is given up.
+     */
+    protected void evict(JWTEntry entry) {
+
+        boolean isTenanted = Util.isTenantIdColumnAvailableInIdnOidcAuth();
+        JWTCache.getInstance().clearCacheEntry(isTenanted ? new JWTCacheKey(entry.getJti(), entry.getTenantId()) :
+                new JWTCacheKey(entry.getJti()));
+        JTIReplayFilter jtiReplayFilter = JWTServiceDataHolder.getInstance().getJtiReplayFilter();
+        if (jtiReplayFilter != null) {
+            jtiReplayFilter.remove(entry.getJti(), isTenanted ? entry.getTenantId() : DEFAULT_TENANT_ID);
+        }
+    }
+
+    private void writeBatch(List<JWTEntry> batch) throws OAuthClientAuthnException {
+
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jwtStorageManager.persistJWTIdsInDB(batch);
+        } catch (OAuthClientAuthnException | RuntimeException e) {
+            requeue(batch);
+            throw e;
+        }
+        if (!failedAttempts.isEmpty()) {
+            for (JWTEntry entry : batch) {
+                failedAttempts.remove(getKey(entry.getJti(), entry.getTenantId()));
+            }
+        }
+    }
+
+    private void requeue(List<JWTEntry> batch) {
+
+        int givenUp = 0;
+        for (JWTEntry entry : batch) {
+            String key = getKey(entry.getJti(), entry.getTenantId());
+            if (failedAttempts.merge(key, 1, Integer::sum) >= MAX_WRITE_ATTEMPTS) {
+                failedAttempts.remove(key);
+                evict(entry);
+                givenUp++;
+            } else if (pendingEntries.putIfAbsent(key, entry) == null) {
+                // The entry was counted when it was enqueued, hence it is queued again even if the queue is full.
+                pendingCount.incrementAndGet();
+            }
+        }
+        if (givenUp > 0) {
+            log.warn("Gave up writing " + givenUp + " JTIs after " + MAX_WRITE_ATTEMPTS + " attempts.");
+        }
+    }
+
+    private String getKey(String jti, int tenantId) {
+
+        return tenantId + ":" + jti;
+    }
+
+    private void triggerFlush() {
+
+        ScheduledExecutorService current = executor;
+        if (current != null && flushScheduled.compareAndSet(false, true)) {
+            try {
+                current.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+
+        try {
+            flush();
+        } catch (OAuthClientAuthnException e) {
+            log.error("Error while writing the pending JTIs to the database.", e);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error while writing the pending JTIs to the database.", e);
+        }
+    }
+}
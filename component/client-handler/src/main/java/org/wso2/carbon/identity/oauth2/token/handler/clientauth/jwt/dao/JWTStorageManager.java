@@ -33,16 +33,27 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.TimeZone;
 
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_H2;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_MSSQL_DB2;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_MYSQL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_ORACLE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_POSTGRESQL;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.DEFAULT_TENANT_ID;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_JWT;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_JWT_DETAILS;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.DELETE_EXPIRED_JWT_ID;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_EXPIRED_JWT_IDS;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_OLDEST_EXPIRED_JWT;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.INSERT_JWD_ID;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.INTEGRITY_CONSTRAINT_VIOLATION_SQL_STATE_CLASS;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.SQLQueries.EXP_TIME;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.SQLQueries.TENANT_ID;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.SQLQueries.TIME_CREATED;
@@ -214,49 +225,10 @@ public class JWTStorageManager {
                             Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
                 }
             } else {
-                if (isH2DB()) {
-                    preparedStatement = connection.prepareStatement(Util.getDBQuery(UPSERT_H2));
-                } else if (isMySQLDB() || isMariaDB()) {
-                    preparedStatement = connection.prepareStatement(Util.getDBQuery(UPSERT_MYSQL));
-                } else if (isPostgreSQLDB()) {
-                    preparedStatement = connection.prepareStatement(Util.getDBQuery(UPSERT_POSTGRESQL));
-                } else if (isMSSqlDB() || isDB2DB()) {
-                    preparedStatement = connection.prepareStatement(Util.getDBQuery(UPSERT_MSSQL_DB2));
-                } else if (isOracleDB()) {
-                    preparedStatement = connection.prepareStatement(Util.getDBQuery(UPSERT_ORACLE));
-                }
-
-                if (preparedStatement != null) {
-                    preparedStatement.setString(1, jti);
-                    if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
-                        preparedStatement.setInt(2, tenantId);
-                        Timestamp timestamp = new Timestamp(timeCreated);
-                        Timestamp expTimestamp = new Timestamp(expTime);
-                        preparedStatement.setTimestamp(3, expTimestamp, Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                        preparedStatement.setTimestamp(4, timestamp,
-                                Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                        if (isOracleDB()) {
-                            preparedStatement.setString(5, jti);
-                            preparedStatement.setInt(6, tenantId);
-                            preparedStatement.setTimestamp(7, expTimestamp,
-                                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                            preparedStatement.setTimestamp(8, timestamp,
-                                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                        }
-                    } else {
-                        Timestamp timestamp = new Timestamp(timeCreated);
-                        Timestamp expTimestamp = new Timestamp(expTime);
-                        preparedStatement.setTimestamp(2, expTimestamp, Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                        preparedStatement.setTimestamp(3, timestamp,
-                                Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                        if (isOracleDB()) {
-                            preparedStatement.setString(4, jti);
-                            preparedStatement.setTimestamp(5, expTimestamp,
-                                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                            preparedStatement.setTimestamp(6, timestamp,
-                                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
-                        }
-                    }
+                String upsertQueryKey = getUpsertQueryKey();
+                if (upsertQueryKey != null) {
+                    preparedStatement = connection.prepareStatement(Util.getDBQuery(upsertQueryKey));
+                    setUpsertParameters(preparedStatement, jti, tenantId, expTime, timeCreated, isOracleDB());
                 }
             }
             if (preparedStatement != null) {
@@ -275,4 +247,267 @@ public class JWTStorageManager {
             IdentityDatabaseUtil.closeAllConnections(connection, null, preparedStatement);
         }
     }
-}
+
+    /**
+     * Claim the given JTI in a single statement and a single transaction. The JTI is recorded only if it is not
+     * already present for the tenant, hence a failed claim means that the assertion has been replayed.
+     *
+     * @param jti         JTI a unique id.
+     * @param tenantId    Tenant id.
+     * @param expTime     Expiration time.
+     * @param timeCreated JTI inserted time.
+     * @return true if the JTI was recorded by this call, false if it was already recorded.
+     * @throws OAuthClientAuthnException OAuthClientAuthnException thrown with Invalid Request error code.
+     */
+    public boolean claimJWTIdInDB(String jti, int tenantId, long expTime, long timeCreated)
+            throws OAuthClientAuthnException {
+
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            connection = IdentityDatabaseUtil.getDBConnection();
+            boolean isOracle = isOracleDB();
+            preparedStatement = connection.prepareStatement(Util.getDBQuery(getClaimQueryKey(isOracle)));
+            Timestamp timestamp = new Timestamp(timeCreated);
+            Timestamp expTimestamp = new Timestamp(expTime);
+            int index = 1;
+            if (isOracle) {
+                // The merge condition of the Oracle query is parameterized separately.
+                preparedStatement.setString(index++, jti);
+                if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
+                    preparedStatement.setInt(index++, tenantId);
+                }
+            }
+            preparedStatement.setString(index++, jti);
+            if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
+                preparedStatement.setInt(index++, tenantId);
+            }
+            preparedStatement.setTimestamp(index++, expTimestamp,
+                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
+            preparedStatement.setTimestamp(index, timestamp, Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
+            int claimedRows = preparedStatement.executeUpdate();
+            connection.commit();
+            if (claimedRows == 0 && log.isDebugEnabled()) {
+                log.debug("JWT ID: " + jti + " of tenant id: " + tenantId + " is already recorded.");
+            }
+            return claimedRows > 0;
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            if (isDuplicateKeyError(e)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("JWT ID: " + jti + " of tenant id: " + tenantId + " is already recorded.", e);
+                }
+                return false;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Error when claiming the JWT ID: " + jti + " with exp: " + expTime, e);
+            }
+            throw new OAuthClientAuthnException("Error occurred while validating the JTI: " + jti + " of the " +
+                    "assertion.", OAuth2ErrorCodes.INVALID_REQUEST, e);
+        } catch (DataAccessException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            if (log.isDebugEnabled()) {
+                log.debug("Error when claiming the JWT ID: " + jti + " with exp: " + expTime, e);
+            }
+            throw new OAuthClientAuthnException("Error occurred while validating the JTI: " + jti + " of the " +
+                    "assertion.", OAuth2ErrorCodes.INVALID_REQUEST, e);
+        } finally {
+            IdentityDatabaseUtil.closeAllConnections(connection, null, preparedStatement);
+        }
+    }
+
+    private String getClaimQueryKey(boolean isOracle) throws DataAccessException {
+
+        if (isOracle) {
+            return CLAIM_ORACLE;
+        } else if (isPostgreSQLDB()) {
+            return CLAIM_POSTGRESQL;
+        } else if (isMSSqlDB() || isDB2DB()) {
+            return CLAIM_MSSQL_DB2;
+        } else if (isMySQLDB() || isMariaDB()) {
+            return CLAIM_MYSQL;
+        }
+        return CLAIM_H2;
+    }
+
+    private boolean isDuplicateKeyError(SQLException e) {
+
+        if (e instanceof SQLIntegrityConstraintViolationException) {
+            return true;
+        }
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith(INTEGRITY_CONSTRAINT_VIOLATION_SQL_STATE_CLASS);
+    }
+
+    /**
+     * To persist a batch of JTIs in the table with a single JDBC batch. Existing entries are updated, hence this is
+     * only applicable when token reuse is allowed.
+     *
+     * @param jwtEntries JWT entries to be persisted.
+     * @throws OAuthClientAuthnException OAuthClientAuthnException thrown with Invalid Request error code.
+     */
+    public void persistJWTIdsInDB(List<JWTEntry> jwtEntries) throws OAuthClientAuthnException {
+
+        if (jwtEntries.isEmpty()) {
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            connection = IdentityDatabaseUtil.getDBConnection();
+            String upsertQueryKey = getUpsertQueryKey();
+            if (upsertQueryKey == null) {
+                return;
+            }
+            boolean isOracle = isOracleDB();
+            preparedStatement = connection.prepareStatement(Util.getDBQuery(upsertQueryKey));
+            for (JWTEntry jwtEntry : jwtEntries) {
+                setUpsertParameters(preparedStatement, jwtEntry.getJti(), jwtEntry.getTenantId(), jwtEntry.getExp(),
+                        jwtEntry.getCreatedTime(), isOracle);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        } catch (SQLException | DataAccessException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            if (log.isDebugEnabled()) {
+                log.debug("Error when storing a batch of " + jwtEntries.size() + " JWT IDs.", e);
+            }
+            throw new OAuthClientAuthnException("Error occurred while storing the JTIs of the assertions.",
+                    OAuth2ErrorCodes.INVALID_REQUEST, e);
+        } finally {
+            IdentityDatabaseUtil.closeAllConnections(connection, null, preparedStatement);
+        }
+    }
+
+    /**
+     * Delete a chunk of JTIs which expired before the given time. The primary keys of the chunk are read first and
+     * the rows are deleted by their primary key, so that the delete only locks the rows of the chunk. A JTI whose
+     * expiry is extended after it is read is not deleted.
+     *
+     * @param expiredBefore Expiry time before which the JTIs are deleted.
+     * @param chunkSize     Maximum number of rows deleted.
+     * @return Number of rows deleted.
+     * @throws OAuthClientAuthnException OAuthClientAuthnException thrown with Invalid Request error code.
+     */
+    public int deleteExpiredJWTIds(long expiredBefore, int chunkSize) throws OAuthClientAuthnException {
+
+        Connection connection = null;
+        PreparedStatement selectStatement = null;
+        PreparedStatement deleteStatement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = IdentityDatabaseUtil.getDBConnection();
+            boolean isTenanted = Util.isTenantIdColumnAvailableInIdnOidcAuth();
+            Timestamp expTimestamp = new Timestamp(expiredBefore);
+            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC));
+            selectStatement = connection.prepareStatement(Util.getDBQuery(GET_EXPIRED_JWT_IDS));
+            // The driver limits the rows of the chunk, hence no database specific query is needed.
+            selectStatement.setMaxRows(chunkSize);
+            selectStatement.setTimestamp(1, expTimestamp, calendar);
+            resultSet = selectStatement.executeQuery();
+            List<JWTEntry> expiredEntries = new ArrayList<>();
+            while (resultSet.next()) {
+                expiredEntries.add(new JWTEntry(resultSet.getString(1), expiredBefore, expiredBefore,
+                        isTenanted ? resultSet.getInt(2) : DEFAULT_TENANT_ID));
+            }
+            if (expiredEntries.isEmpty()) {
+                connection.commit();
+                return 0;
+            }
+            deleteStatement = connection.prepareStatement(Util.getDBQuery(DELETE_EXPIRED_JWT_ID));
+            for (JWTEntry expiredEntry : expiredEntries) {
+                int index = 1;
+                deleteStatement.setString(index++, expiredEntry.getJti());
+                if (isTenanted) {
+                    deleteStatement.setInt(index++, expiredEntry.getTenantId());
+                }
+                deleteStatement.setTimestamp(index, expTimestamp, calendar);
+                deleteStatement.addBatch();
+            }
+            int rows = 0;
+            for (int result : deleteStatement.executeBatch()) {
+                // Some drivers do not report the number of rows deleted by a statement of the batch.
+                rows += result == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, result);
+            }
+            connection.commit();
+            return rows;
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            throw new OAuthClientAuthnException("Error occurred while deleting the expired JTIs.",
+                    OAuth2ErrorCodes.INVALID_REQUEST, e);
+        } finally {
+            IdentityDatabaseUtil.closeStatement(deleteStatement);
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, selectStatement);
+        }
+    }
+
+    /**
+     * Get the expiry time of the oldest JTI which expired before the given time.
+     *
+     * @param expiredBefore Expiry time considered as the purge horizon.
+     * @return Expiry time of the oldest expired JTI, or -1 if there are no expired JTIs.
+     * @throws OAuthClientAuthnException OAuthClientAuthnException thrown with Invalid Request error code.
+     */
+    public long getOldestExpiryTime(long expiredBefore) throws OAuthClientAuthnException {
+
+        Connection connection = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = IdentityDatabaseUtil.getDBConnection();
+            preparedStatement = connection.prepareStatement(Util.getDBQuery(GET_OLDEST_EXPIRED_JWT));
+            preparedStatement.setTimestamp(1, new Timestamp(expiredBefore),
+                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
+            resultSet = preparedStatement.executeQuery();
+            if (resultSet.next()) {
+                Timestamp oldest = resultSet.getTimestamp(1, Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
+                if (oldest != null) {
+                    return oldest.getTime();
+                }
+            }
+            return -1;
+        } catch (SQLException e) {
+            throw new OAuthClientAuthnException("Error occurred while reading the oldest expired JTI.",
+                    OAuth2ErrorCodes.INVALID_REQUEST, e);
+        } finally {
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, preparedStatement);
+        }
+    }
+
+    private String getUpsertQueryKey() throws DataAccessException {
+
+        if (isH2DB()) {
+            return UPSERT_H2;
+        } else if (isMySQLDB() || isMariaDB()) {
+            return UPSERT_MYSQL;
+        } else if (isPostgreSQLDB()) {
+            return UPSERT_POSTGRESQL;
+        } else if (isMSSqlDB() || isDB2DB()) {
+            return UPSERT_MSSQL_DB2;
+        } else if (isOracleDB()) {
+            return UPSERT_ORACLE;
+        }
+        return null;
+    }
+
+    private void setUpsertParameters(PreparedStatement preparedStatement, String jti, int tenantId, long expTime,
+                                     long timeCreated, boolean isOracle) throws SQLException {
+
+        Timestamp timestamp = new Timestamp(timeCreated);
+        Timestamp expTimestamp = new Timestamp(expTime);
+        int index = 1;
+        // The Oracle merge binds the values once for the update and once for the insert.
+        int repetitions = isOracle ? 2 : 1;
+        for (int i = 0; i < repetitions; i++) {
+            preparedStatement.setString(index++, jti);
+            if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
+                preparedStatement.setInt(index++, tenantId);
+            }
+            preparedStatement.setTimestamp(index++, expTimestamp,
+                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
+            preparedStatement.setTimestamp(index++, timestamp,
+                    Calendar.getInstance(TimeZone.getTimeZone(Constants.UTC)));
+        }
+    }
+}
\ No newline at end of file
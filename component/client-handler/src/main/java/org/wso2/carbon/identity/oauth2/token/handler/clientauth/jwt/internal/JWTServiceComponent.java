@@ -18,23 +18,93 @@
 
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal;
 
+import com.nimbusds.jose.util.DefaultResourceRetriever;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
+import org.wso2.carbon.identity.application.mgt.listener.ApplicationMgtListener;
 import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManager;
+import org.wso2.carbon.identity.core.handler.AbstractIdentityHandler;
+import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
 import org.wso2.carbon.identity.core.util.IdentityCoreInitializedEvent;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthenticator;
+import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth.listener.OAuthApplicationMgtListener;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.PrivateKeyJWTClientAuthenticator;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JTIReplayFilter;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTUnknownClientCache;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.JWTClientAuthenticatorMgtService;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.JWTClientAuthenticatorMgtServiceImpl;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIPurgeService;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIWriteBehindPersister;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JWTStorageManager;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks.JWKSKeyStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener.PrivateKeyJWTApplicationMgtListener;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener.PrivateKeyJWTIdentityProviderMgtListener;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener.PrivateKeyJWTOAuthApplicationMgtListener;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.metrics.JWTClientAuthMetrics;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.BoundedWindowJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JDBCJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JournalJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.OffHeapJTIReplayStore;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.Util;
+import org.wso2.carbon.idp.mgt.listener.IdentityProviderMgtListener;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.utils.CarbonUtils;
+import org.wso2.carbon.utils.ConfigurationContextService;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.apache.commons.lang.StringUtils.isBlank;
+import static org.apache.commons.lang.StringUtils.isNotEmpty;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.DEFAULT_ENABLE_JTI_PURGE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.DEFAULT_ENABLE_JTI_REPLAY_FILTER;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.ENABLE_JTI_PURGE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.ENABLE_JTI_REPLAY_FILTER;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.ENABLE_JTI_WRITE_BEHIND;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.ENABLE_STACKLESS_REJECTIONS;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.ENABLE_VERIFIED_ASSERTION_CACHE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_PURGE_CHUNK_INTERVAL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_PURGE_CHUNK_SIZE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_PURGE_INTERVAL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_PURGE_MAX_CHUNKS_PER_RUN;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_REPLAY_FILTER_MAX_ENTRIES;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_REPLAY_STORE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_REPLAY_STORE_JOURNAL_BUCKET;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_REPLAY_STORE_JOURNAL_DIRECTORY;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_REPLAY_STORE_JOURNAL_SEGMENT_SIZE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_REPLAY_STORE_OFF_HEAP_CAPACITY;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_WRITE_BEHIND_BATCH_SIZE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_WRITE_BEHIND_FLUSH_INTERVAL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JTI_WRITE_BEHIND_MAX_PENDING_ENTRIES;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_FAILURE_BACKOFF;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_HTTP_CONNECTION_TIMEOUT_XPATH;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_HTTP_READ_TIMEOUT_XPATH;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_HTTP_SIZE_LIMIT_XPATH;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_MAX_ENTRIES;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_MAX_STALENESS;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_MIN_REFRESH_INTERVAL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_REFRESH_AHEAD;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.JWKS_TTL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.REJECT_BEFORE_IN_MINUTES;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.UNKNOWN_CLIENT_CACHE_TIMEOUT;
 
 /**
  * JwtService osgi Component.*
@@ -47,6 +117,7 @@ public class JWTServiceComponent {
 
     private static final Log log = LogFactory.getLog(JWTServiceComponent.class);
     private BundleContext bundleContext;
+    private JournalJTIReplayStore journalJTIReplayStore;
 
     public static RealmService getRealmService() {
 
@@ -72,6 +143,9 @@ public class JWTServiceComponent {
     protected void activate(ComponentContext ctxt) {
 
         try {
+            // The validator of the authenticator picks the caches and stores from the data holder, hence the
+            // configuration is read before the authenticator is created.
+            readServerConfig();
             PrivateKeyJWTClientAuthenticator privateKeyJWTClientAuthenticator = new PrivateKeyJWTClientAuthenticator();
             Util.checkIfTenantIdColumnIsAvailableInIdnOidcAuthTable();
             bundleContext = ctxt.getBundleContext();
@@ -79,6 +153,23 @@ public class JWTServiceComponent {
                     null);
             bundleContext.registerService(JWTClientAuthenticatorMgtService.class.getName(),
                     new JWTClientAuthenticatorMgtServiceImpl(), null);
+            bundleContext.registerService(ApplicationMgtListener.class.getName(),
+                    new PrivateKeyJWTApplicationMgtListener(), null);
+            bundleContext.registerService(IdentityProviderMgtListener.class.getName(),
+                    new PrivateKeyJWTIdentityProviderMgtListener(), null);
+            bundleContext.registerService(OAuthApplicationMgtListener.class.getName(),
+                    new PrivateKeyJWTOAuthApplicationMgtListener(), null);
+            registerJTIReplayStores();
+            JTIWriteBehindPersister jtiWriteBehindPersister =
+                    JWTServiceDataHolder.getInstance().getJtiWriteBehindPersister();
+            if (jtiWriteBehindPersister != null) {
+                jtiWriteBehindPersister.start();
+            }
+            JTIPurgeService jtiPurgeService = JWTServiceDataHolder.getInstance().getJtiPurgeService();
+            if (jtiPurgeService != null) {
+                jtiPurgeService.start();
+            }
+            registerMetricsMBean();
             if (log.isDebugEnabled()) {
                 log.debug("Private Key JWT client handler is activated");
             }
@@ -87,8 +178,339 @@ public class JWTServiceComponent {
         }
     }
 
+    /**
+     * Read the configuration of the caches, JTI replay stores and background tasks shared by the authenticator from
+     * the event listener properties of {@link PrivateKeyJWTClientAuthenticator}, and set them in the data holder.
+     */
+    private void readServerConfig() {
+
+        Properties properties = new Properties();
+        IdentityEventListenerConfig identityEventListenerConfig = IdentityUtil.readEventListenerProperty
+                (AbstractIdentityHandler.class.getName(), PrivateKeyJWTClientAuthenticator.class.getName());
+        if (identityEventListenerConfig != null && identityEventListenerConfig.getProperties() != null) {
+            properties.putAll(identityEventListenerConfig.getProperties());
+        }
+        try {
+            if (isNotEmpty(properties.getProperty(REJECT_BEFORE_IN_MINUTES))) {
+                JWTServiceDataHolder.getInstance().setRejectBeforeInMinutes(
+                        Integer.parseInt(properties.getProperty(REJECT_BEFORE_IN_MINUTES)));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid PrivateKeyJWT Validity period found in the configuration. Using default value: " +
+                    JWTServiceDataHolder.getInstance().getRejectBeforeInMinutes());
+        }
+        // Stack traces of the rejected assertions carry no information, hence they can be skipped under load.
+        JWTServiceDataHolder.getInstance().setStacklessRejectionsEnabled(
+                Boolean.parseBoolean(properties.getProperty(ENABLE_STACKLESS_REJECTIONS)));
+        readJTIReplayFilterConfig(properties);
+        readVerifiedAssertionCacheConfig(properties);
+        readUnknownClientCacheConfig(properties);
+        readJTIReplayStoreConfig(properties);
+        readJTIWriteBehindConfig(properties);
+        readJTIPurgeConfig(properties);
+        readJWKSConfig(properties);
+    }
+
+    private void readJTIReplayFilterConfig(Properties properties) {
+
+        boolean enableJTIReplayFilter = DEFAULT_ENABLE_JTI_REPLAY_FILTER;
+        int jtiReplayFilterMaxEntries = JTIReplayFilter.DEFAULT_MAX_ENTRIES;
+        if (isNotEmpty(properties.getProperty(ENABLE_JTI_REPLAY_FILTER))) {
+            enableJTIReplayFilter = Boolean.parseBoolean(properties.getProperty(ENABLE_JTI_REPLAY_FILTER));
+        }
+        try {
+            if (isNotEmpty(properties.getProperty(JTI_REPLAY_FILTER_MAX_ENTRIES))) {
+                jtiReplayFilterMaxEntries = Integer.parseInt(properties.getProperty(JTI_REPLAY_FILTER_MAX_ENTRIES));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid JTI replay filter size found in the configuration. Using default value: " +
+                    jtiReplayFilterMaxEntries);
+        }
+        JWTServiceDataHolder.getInstance().setJtiReplayFilterEnabled(enableJTIReplayFilter);
+        JWTServiceDataHolder.getInstance().setJtiReplayFilter(new JTIReplayFilter(
+                JTIReplayFilter.DEFAULT_SHARD_COUNT, jtiReplayFilterMaxEntries));
+    }
+
+    private void readVerifiedAssertionCacheConfig(Properties properties) {
+
+        // Only the assertions of the clients allowed to reuse them are cached, and only if explicitly enabled. The
+        // size of the cache is configured with the other caches.
+        JWTServiceDataHolder.getInstance().setVerifiedAssertionCacheEnabled(
+                Boolean.parseBoolean(properties.getProperty(ENABLE_VERIFIED_ASSERTION_CACHE)));
+    }
+
+    private void readUnknownClientCacheConfig(Properties properties) {
+
+        long timeoutInSeconds = JWTUnknownClientCache.DEFAULT_TIMEOUT_IN_SECONDS;
+        try {
+            if (isNotEmpty(properties.getProperty(UNKNOWN_CLIENT_CACHE_TIMEOUT))) {
+                timeoutInSeconds = Long.parseLong(properties.getProperty(UNKNOWN_CLIENT_CACHE_TIMEOUT));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid unknown client cache timeout found. Using the default value: " +
+                    JWTUnknownClientCache.DEFAULT_TIMEOUT_IN_SECONDS);
+        }
+        // A non positive timeout disables the cache. The size of the cache is configured with the other caches.
+        JWTServiceDataHolder.getInstance().setUnknownClientCacheTimeoutInMillis(
+                TimeUnit.SECONDS.toMillis(Math.max(0, timeoutInSeconds)));
+    }
+
+    private void readJTIReplayStoreConfig(Properties properties) {
+
+        if (isNotEmpty(properties.getProperty(JTI_REPLAY_STORE))) {
+            JWTServiceDataHolder.getInstance().setJtiReplayStoreName(properties.getProperty(JTI_REPLAY_STORE).trim());
+        }
+        try {
+            if (isNotEmpty(properties.getProperty(JTI_REPLAY_STORE_OFF_HEAP_CAPACITY))) {
+                JWTServiceDataHolder.getInstance().setOffHeapJtiReplayStoreCapacity(
+                        Long.parseLong(properties.getProperty(JTI_REPLAY_STORE_OFF_HEAP_CAPACITY)));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid off heap JTI replay store capacity found in the configuration. Using default value: " +
+                    JWTServiceDataHolder.getInstance().getOffHeapJtiReplayStoreCapacity());
+        }
+        if (isNotEmpty(properties.getProperty(JTI_REPLAY_STORE_JOURNAL_DIRECTORY))) {
+            JWTServiceDataHolder.getInstance().setJtiJournalDirectory(
+                    properties.getProperty(JTI_REPLAY_STORE_JOURNAL_DIRECTORY).trim());
+        }
+        try {
+            if (isNotEmpty(properties.getProperty(JTI_REPLAY_STORE_JOURNAL_SEGMENT_SIZE))) {
+                JWTServiceDataHolder.getInstance().setJtiJournalSegmentSizeInKB(
+                        Integer.parseInt(properties.getProperty(JTI_REPLAY_STORE_JOURNAL_SEGMENT_SIZE)));
+            }
+            if (isNotEmpty(properties.getProperty(JTI_REPLAY_STORE_JOURNAL_BUCKET))) {
+                JWTServiceDataHolder.getInstance().setJtiJournalBucketIntervalInMinutes(
+                        Long.parseLong(properties.getProperty(JTI_REPLAY_STORE_JOURNAL_BUCKET)));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid JTI journal configuration found. Using default values for the remaining properties.");
+        }
+    }
+
+    private void readJTIWriteBehindConfig(Properties properties) {
+
+        // Write behind only applies to reusable assertions, hence it is disabled unless explicitly enabled.
+        if (!Boolean.parseBoolean(properties.getProperty(ENABLE_JTI_WRITE_BEHIND))) {
+            JWTServiceDataHolder.getInstance().setJtiWriteBehindPersister(null);
+            return;
+        }
+        int batchSize = JTIWriteBehindPersister.DEFAULT_BATCH_SIZE;
+        long flushInterval = JTIWriteBehindPersister.DEFAULT_FLUSH_INTERVAL_IN_MILLIS;
+        int maxPendingEntries = JTIWriteBehindPersister.DEFAULT_MAX_PENDING_ENTRIES;
+        try {
+            if (isNotEmpty(properties.getProperty(JTI_WRITE_BEHIND_BATCH_SIZE))) {
+                batchSize = Integer.parseInt(properties.getProperty(JTI_WRITE_BEHIND_BATCH_SIZE));
+            }
+            if (isNotEmpty(properties.getProperty(JTI_WRITE_BEHIND_FLUSH_INTERVAL))) {
+                flushInterval = Long.parseLong(properties.getProperty(JTI_WRITE_BEHIND_FLUSH_INTERVAL));
+            }
+            if (isNotEmpty(properties.getProperty(JTI_WRITE_BEHIND_MAX_PENDING_ENTRIES))) {
+                maxPendingEntries = Integer.parseInt(properties.getProperty(JTI_WRITE_BEHIND_MAX_PENDING_ENTRIES));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid JTI write behind configuration found. Using default values for the remaining " +
+                    "properties.");
+        }
+        JWTServiceDataHolder.getInstance().setJtiWriteBehindPersister(new JTIWriteBehindPersister(
+                new JWTStorageManager(), batchSize, flushInterval, maxPendingEntries));
+    }
+
+    private void readJTIPurgeConfig(Properties properties) {
+
+        boolean enableJTIPurge = DEFAULT_ENABLE_JTI_PURGE;
+        if (isNotEmpty(properties.getProperty(ENABLE_JTI_PURGE))) {
+            enableJTIPurge = Boolean.parseBoolean(properties.getProperty(ENABLE_JTI_PURGE));
+        }
+        if (!enableJTIPurge) {
+            JWTServiceDataHolder.getInstance().setJtiPurgeService(null);
+            return;
+        }
+        long purgeInterval = JTIPurgeService.DEFAULT_PURGE_INTERVAL_IN_MINUTES;
+        int chunkSize = JTIPurgeService.DEFAULT_CHUNK_SIZE;
+        long chunkInterval = JTIPurgeService.DEFAULT_CHUNK_INTERVAL_IN_MILLIS;
+        int maxChunksPerRun = JTIPurgeService.DEFAULT_MAX_CHUNKS_PER_RUN;
+        try {
+            if (isNotEmpty(properties.getProperty(JTI_PURGE_INTERVAL))) {
+                purgeInterval = Long.parseLong(properties.getProperty(JTI_PURGE_INTERVAL));
+            }
+            if (isNotEmpty(properties.getProperty(JTI_PURGE_CHUNK_SIZE))) {
+                chunkSize = Integer.parseInt(properties.getProperty(JTI_PURGE_CHUNK_SIZE));
+            }
+            if (isNotEmpty(properties.getProperty(JTI_PURGE_CHUNK_INTERVAL))) {
+                chunkInterval = Long.parseLong(properties.getProperty(JTI_PURGE_CHUNK_INTERVAL));
+            }
+            if (isNotEmpty(properties.getProperty(JTI_PURGE_MAX_CHUNKS_PER_RUN))) {
+                maxChunksPerRun = Integer.parseInt(properties.getProperty(JTI_PURGE_MAX_CHUNKS_PER_RUN));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid JTI purge configuration found. Using default values for the remaining properties.");
+        }
+        JWTServiceDataHolder.getInstance().setJtiPurgeService(new JTIPurgeService(new JWTStorageManager(),
+                TimeUnit.MINUTES.toMillis(purgeInterval), chunkSize, chunkInterval, maxChunksPerRun,
+                TimeUnit.SECONDS.toMillis(OAuthServerConfiguration.getInstance().getTimeStampSkewInSeconds())));
+    }
+
+    private void readJWKSConfig(Properties properties) {
+
+        long ttl = JWKSKeyStore.DEFAULT_TTL_IN_MILLIS;
+        long refreshAhead = JWKSKeyStore.DEFAULT_REFRESH_AHEAD_IN_MILLIS;
+        long minRefreshInterval = JWKSKeyStore.DEFAULT_MIN_REFRESH_INTERVAL_IN_MILLIS;
+        long maxStaleness = JWKSKeyStore.DEFAULT_MAX_STALENESS_IN_MILLIS;
+        long failureBackoff = JWKSKeyStore.DEFAULT_FAILURE_BACKOFF_IN_MILLIS;
+        int maxEntries = JWKSKeyStore.DEFAULT_MAX_ENTRIES;
+        try {
+            if (isNotEmpty(properties.getProperty(JWKS_TTL))) {
+                ttl = TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty(JWKS_TTL)));
+            }
+            if (isNotEmpty(properties.getProperty(JWKS_REFRESH_AHEAD))) {
+                refreshAhead = TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty(JWKS_REFRESH_AHEAD)));
+            }
+            if (isNotEmpty(properties.getProperty(JWKS_MIN_REFRESH_INTERVAL))) {
+                minRefreshInterval = TimeUnit.SECONDS.toMillis(
+                        Long.parseLong(properties.getProperty(JWKS_MIN_REFRESH_INTERVAL)));
+            }
+            if (isNotEmpty(properties.getProperty(JWKS_MAX_STALENESS))) {
+                maxStaleness = TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty(JWKS_MAX_STALENESS)));
+            }
+            if (isNotEmpty(properties.getProperty(JWKS_FAILURE_BACKOFF))) {
+                failureBackoff = TimeUnit.SECONDS.toMillis(
+                        Long.parseLong(properties.getProperty(JWKS_FAILURE_BACKOFF)));
+            }
+            if (isNotEmpty(properties.getProperty(JWKS_MAX_ENTRIES))) {
+                maxEntries = Integer.parseInt(properties.getProperty(JWKS_MAX_ENTRIES));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid JWKS cache configuration found. Using default values for the remaining properties.");
+        }
+        JWKSKeyStore previous = JWTServiceDataHolder.getInstance().getJwksKeyStore();
+        // The JWKS endpoint HTTP settings are shared with the other JWKS based validators of the server.
+        DefaultResourceRetriever resourceRetriever = new DefaultResourceRetriever(
+                readHTTPConnectionConfigValue(JWKS_HTTP_CONNECTION_TIMEOUT_XPATH,
+                        JWKSKeyStore.DEFAULT_HTTP_CONNECT_TIMEOUT_IN_MILLIS),
+                readHTTPConnectionConfigValue(JWKS_HTTP_READ_TIMEOUT_XPATH,
+                        JWKSKeyStore.DEFAULT_HTTP_READ_TIMEOUT_IN_MILLIS),
+                readHTTPConnectionConfigValue(JWKS_HTTP_SIZE_LIMIT_XPATH, JWKSKeyStore.DEFAULT_HTTP_SIZE_LIMIT));
+        JWTServiceDataHolder.getInstance().setJwksKeyStore(new JWKSKeyStore(resourceRetriever, ttl, refreshAhead,
+                minRefreshInterval, maxStaleness, failureBackoff, maxEntries));
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Read an integer HTTP connection config of the JWKS endpoint from the identity configuration.
+     *
+     * @param xPath        XPath of the config.
+     * @param defaultValue Value used when the config is not set or is invalid.
+     * @return Configured value, or the default value.
+     */
+    private int readHTTPConnectionConfigValue(String xPath, int defaultValue) {
+
+        String config = IdentityUtil.getProperty(xPath);
+        if (isBlank(config)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(config.trim());
+        } catch (NumberFormatException e) {
+            log.error("Provided HTTP connection config value in " + xPath + " should be an integer type. Value : " +
+                    config + ". Using the default value: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Register the built in JTI replay stores. The stores other than the JDBC store hold their JTIs in the memory of
+     * this node, hence they are only created when they are the configured store.
+     */
+    private void registerJTIReplayStores() {
+
+        registerJTIReplayStore(new JDBCJTIReplayStore());
+        JWTServiceDataHolder dataHolder = JWTServiceDataHolder.getInstance();
+        long timeStampSkewMillis = OAuthServerConfiguration.getInstance().getTimeStampSkewInSeconds() * 1000;
+        if (OffHeapJTIReplayStore.NAME.equals(dataHolder.getJtiReplayStoreName())) {
+            registerJTIReplayStore(new OffHeapJTIReplayStore(dataHolder.getOffHeapJtiReplayStoreCapacity(),
+                    timeStampSkewMillis));
+        } else if (BoundedWindowJTIReplayStore.NAME.equals(dataHolder.getJtiReplayStoreName())) {
+            if (dataHolder.getRejectBeforeInMinutes() <= 0) {
+                log.warn("Age of the assertions is not validated as RejectBeforeInMinutes is not positive. The " +
+                        "window JTI replay store will keep the JTIs until their expiry.");
+            }
+            registerJTIReplayStore(new BoundedWindowJTIReplayStore(
+                    TimeUnit.MINUTES.toMillis(Math.max(0, dataHolder.getRejectBeforeInMinutes())),
+                    timeStampSkewMillis));
+        } else if (JournalJTIReplayStore.NAME.equals(dataHolder.getJtiReplayStoreName())) {
+            Path directory = dataHolder.getJtiJournalDirectory() != null ?
+                    Paths.get(dataHolder.getJtiJournalDirectory()) :
+                    Paths.get(CarbonUtils.getCarbonHome(), "repository", "data", "jti-journal");
+            try {
+                journalJTIReplayStore = new JournalJTIReplayStore(directory,
+                        dataHolder.getOffHeapJtiReplayStoreCapacity(), timeStampSkewMillis,
+                        dataHolder.getJtiJournalSegmentSizeInKB(),
+                        TimeUnit.MINUTES.toMillis(dataHolder.getJtiJournalBucketIntervalInMinutes()));
+                registerJTIReplayStore(journalJTIReplayStore);
+            } catch (IOException e) {
+                log.error("Error while loading the JTI journal from: " + directory + ". The JTIs will be stored in " +
+                        "the database.", e);
+            }
+        }
+    }
+
+    private void registerMetricsMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JWTClientAuthMetrics.OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(new JWTClientAuthMetrics(), objectName);
+        } catch (JMException e) {
+            log.error("Error while registering the Private Key JWT client authentication metrics MBean.", e);
+        }
+    }
+
+    private void unregisterMetricsMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JWTClientAuthMetrics.OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the Private Key JWT client authentication metrics MBean.", e);
+        }
+    }
+
+    private void registerJTIReplayStore(JTIReplayStore jtiReplayStore) {
+
+        // Added directly as well, so that the store is available before the service reference is bound.
+        JWTServiceDataHolder.getInstance().addJtiReplayStore(jtiReplayStore);
+        bundleContext.registerService(JTIReplayStore.class.getName(), jtiReplayStore, null);
+    }
+
+    @Deactivate
     protected void deactivate(ComponentContext ctxt) {
 
+        unregisterMetricsMBean();
+        JTIPurgeService jtiPurgeService = JWTServiceDataHolder.getInstance().getJtiPurgeService();
+        if (jtiPurgeService != null) {
+            jtiPurgeService.shutdown();
+        }
+        JTIWriteBehindPersister jtiWriteBehindPersister =
+                JWTServiceDataHolder.getInstance().getJtiWriteBehindPersister();
+        if (jtiWriteBehindPersister != null) {
+            // Write the JTIs which are still pending before the component goes away.
+            jtiWriteBehindPersister.shutdown();
+        }
+        if (journalJTIReplayStore != null) {
+            JWTServiceDataHolder.getInstance().removeJtiReplayStore(journalJTIReplayStore);
+            journalJTIReplayStore.close();
+            journalJTIReplayStore = null;
+        }
+        // Stop the refreshes of the JWKS key store, which are scheduled in a thread of its own.
+        JWTServiceDataHolder.getInstance().getJwksKeyStore().shutdown();
         if (log.isDebugEnabled()) {
             log.debug("Private Key JWT client handler is deactivated.");
         }
@@ -158,4 +580,50 @@ public class JWTServiceComponent {
         }
         JWTServiceDataHolder.getInstance().setConfigurationManager(null);
     }
+
+    @Reference(
+            name = "config.context.service",
+            service = ConfigurationContextService.class,
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetConfigurationContextService"
+    )
+    protected void setConfigurationContextService(ConfigurationContextService configurationContextService) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Setting the ConfigurationContextService in the Private Key JWT client handler.");
+        }
+        JWTServiceDataHolder.getInstance().setConfigurationContextService(configurationContextService);
+    }
+
+    protected void unsetConfigurationContextService(ConfigurationContextService configurationContextService) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Unsetting the ConfigurationContextService in the Private Key JWT client handler.");
+        }
+        JWTServiceDataHolder.getInstance().setConfigurationContextService(null);
+    }
+
+    @Reference(
+            name = "jti.replay.store",
+            service = JTIReplayStore.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "removeJTIReplayStore"
+    )
+    protected void addJTIReplayStore(JTIReplayStore jtiReplayStore) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Adding the JTI replay store: " + jtiReplayStore.getName());
+        }
+        JWTServiceDataHolder.getInstance().addJtiReplayStore(jtiReplayStore);
+    }
+
+    protected void removeJTIReplayStore(JTIReplayStore jtiReplayStore) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Removing the JTI replay store: " + jtiReplayStore.getName());
+        }
+        JWTServiceDataHolder.getInstance().removeJtiReplayStore(jtiReplayStore);
+    }
 }
@@ -19,10 +19,24 @@
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal;
 
 import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManager;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JTIReplayFilter;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.dao.JWTAuthenticationConfigurationDAO;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.dao.impl.CacheBackedJWTConfigurationDAOImpl;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.dao.impl.JWTAuthenticationConfigurationDAOImpl;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIPurgeService;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIWriteBehindPersister;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks.JWKSKeyStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JDBCJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JournalJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.OffHeapJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator.JWTValidationStageMetrics;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.utils.ConfigurationContextService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWTServiceDataHolder data holder Class.
@@ -33,7 +47,24 @@ public class JWTServiceDataHolder {
     public static JWTServiceDataHolder instance = new JWTServiceDataHolder();
 
     public boolean preventTokenReuse = true;
+    private int rejectBeforeInMinutes = Constants.DEFAULT_VALIDITY_PERIOD_IN_MINUTES;
     private ConfigurationManager configurationManager;
+    private ConfigurationContextService configurationContextService;
+    private boolean jtiReplayFilterEnabled = true;
+    private JTIReplayFilter jtiReplayFilter = new JTIReplayFilter();
+    private boolean verifiedAssertionCacheEnabled;
+    private long unknownClientCacheTimeoutInMillis;
+    private JTIWriteBehindPersister jtiWriteBehindPersister;
+    private JTIPurgeService jtiPurgeService;
+    private JWKSKeyStore jwksKeyStore = new JWKSKeyStore();
+    private final JWTValidationStageMetrics validationStageMetrics = new JWTValidationStageMetrics();
+    private boolean stacklessRejectionsEnabled;
+    private final Map<String, JTIReplayStore> jtiReplayStores = new ConcurrentHashMap<>();
+    private String jtiReplayStoreName = JDBCJTIReplayStore.NAME;
+    private long offHeapJtiReplayStoreCapacity = OffHeapJTIReplayStore.DEFAULT_CAPACITY;
+    private String jtiJournalDirectory;
+    private int jtiJournalSegmentSizeInKB = JournalJTIReplayStore.DEFAULT_SEGMENT_SIZE_IN_KB;
+    private long jtiJournalBucketIntervalInMinutes = JournalJTIReplayStore.DEFAULT_BUCKET_INTERVAL_IN_MINUTES;
 
     private JWTAuthenticationConfigurationDAO JWTAuthenticationConfigurationDAO =
             new CacheBackedJWTConfigurationDAOImpl(new JWTAuthenticationConfigurationDAOImpl());
@@ -48,6 +79,16 @@ public class JWTServiceDataHolder {
         this.configurationManager = configurationManager;
     }
 
+    public ConfigurationContextService getConfigurationContextService() {
+
+        return configurationContextService;
+    }
+
+    public void setConfigurationContextService(ConfigurationContextService configurationContextService) {
+
+        this.configurationContextService = configurationContextService;
+    }
+
     public boolean isPreventTokenReuse() {
 
         return preventTokenReuse;
@@ -58,6 +99,181 @@ public class JWTServiceDataHolder {
         this.preventTokenReuse = preventTokenReuse;
     }
 
+    public int getRejectBeforeInMinutes() {
+
+        return rejectBeforeInMinutes;
+    }
+
+    public void setRejectBeforeInMinutes(int rejectBeforeInMinutes) {
+
+        this.rejectBeforeInMinutes = rejectBeforeInMinutes;
+    }
+
+    public boolean isJtiReplayFilterEnabled() {
+
+        return jtiReplayFilterEnabled;
+    }
+
+    public void setJtiReplayFilterEnabled(boolean jtiReplayFilterEnabled) {
+
+        this.jtiReplayFilterEnabled = jtiReplayFilterEnabled;
+    }
+
+    public JTIReplayFilter getJtiReplayFilter() {
+
+        return jtiReplayFilter;
+    }
+
+    public boolean isVerifiedAssertionCacheEnabled() {
+
+        return verifiedAssertionCacheEnabled;
+    }
+
+    public void setVerifiedAssertionCacheEnabled(boolean verifiedAssertionCacheEnabled) {
+
+        this.verifiedAssertionCacheEnabled = verifiedAssertionCacheEnabled;
+    }
+
+    /**
+     * Get the time for which an assertion subject which did not resolve to an application is remembered.
+     *
+     * @return Timeout of the unknown client cache, or 0 if the cache is disabled.
+     */
+    public long getUnknownClientCacheTimeoutInMillis() {
+
+        return unknownClientCacheTimeoutInMillis;
+    }
+
+    public void setUnknownClientCacheTimeoutInMillis(long unknownClientCacheTimeoutInMillis) {
+
+        this.unknownClientCacheTimeoutInMillis = unknownClientCacheTimeoutInMillis;
+    }
+
+    public JTIWriteBehindPersister getJtiWriteBehindPersister() {
+
+        return jtiWriteBehindPersister;
+    }
+
+    public void setJtiWriteBehindPersister(JTIWriteBehindPersister jtiWriteBehindPersister) {
+
+        this.jtiWriteBehindPersister = jtiWriteBehindPersister;
+    }
+
+    public JTIPurgeService getJtiPurgeService() {
+
+        return jtiPurgeService;
+    }
+
+    public void setJtiPurgeService(JTIPurgeService jtiPurgeService) {
+
+        this.jtiPurgeService = jtiPurgeService;
+    }
+
+    public JWKSKeyStore getJwksKeyStore() {
+
+        return jwksKeyStore;
+    }
+
+    public void setJwksKeyStore(JWKSKeyStore jwksKeyStore) {
+
+        this.jwksKeyStore = jwksKeyStore;
+    }
+
+    public JWTValidationStageMetrics getValidationStageMetrics() {
+
+        return validationStageMetrics;
+    }
+
+    public boolean isStacklessRejectionsEnabled() {
+
+        return stacklessRejectionsEnabled;
+    }
+
+    public void setStacklessRejectionsEnabled(boolean stacklessRejectionsEnabled) {
+
+        this.stacklessRejectionsEnabled = stacklessRejectionsEnabled;
+    }
+
+    /**
+     * Get the configured JTI replay store.
+     *
+     * @return JTI replay store, or null if the configured store is not registered.
+     */
+    public JTIReplayStore getJtiReplayStore() {
+
+        return jtiReplayStores.get(jtiReplayStoreName);
+    }
+
+    public void addJtiReplayStore(JTIReplayStore jtiReplayStore) {
+
+        jtiReplayStores.put(jtiReplayStore.getName(), jtiReplayStore);
+    }
+
+    public void removeJtiReplayStore(JTIReplayStore jtiReplayStore) {
+
+        jtiReplayStores.remove(jtiReplayStore.getName(), jtiReplayStore);
+    }
+
+    public String getJtiReplayStoreName() {
+
+        return jtiReplayStoreName;
+    }
+
+    public void setJtiReplayStoreName(String jtiReplayStoreName) {
+
+        this.jtiReplayStoreName = jtiReplayStoreName;
+    }
+
+    public long getOffHeapJtiReplayStoreCapacity() {
+
+        return offHeapJtiReplayStoreCapacity;
+    }
+
+    public void setOffHeapJtiReplayStoreCapacity(long offHeapJtiReplayStoreCapacity) {
+
+        this.offHeapJtiReplayStoreCapacity = offHeapJtiReplayStoreCapacity;
+    }
+
+    /**
+     * Get the directory of the JTI journal.
+     *
+     * @return Directory of the journal, or null to use the default directory.
+     */
+    public String getJtiJournalDirectory() {
+
+        return jtiJournalDirectory;
+    }
+
+    public void setJtiJournalDirectory(String jtiJournalDirectory) {
+
+        this.jtiJournalDirectory = jtiJournalDirectory;
+    }
+
+    public int getJtiJournalSegmentSizeInKB() {
+
+        return jtiJournalSegmentSizeInKB;
+    }
+
+    public void setJtiJournalSegmentSizeInKB(int jtiJournalSegmentSizeInKB) {
+
+        this.jtiJournalSegmentSizeInKB = jtiJournalSegmentSizeInKB;
+    }
+
+    public long getJtiJournalBucketIntervalInMinutes() {
+
+        return jtiJournalBucketIntervalInMinutes;
+    }
+
+    public void setJtiJournalBucketIntervalInMinutes(long jtiJournalBucketIntervalInMinutes) {
+
+        this.jtiJournalBucketIntervalInMinutes = jtiJournalBucketIntervalInMinutes;
+    }
+
+    public void setJtiReplayFilter(JTIReplayFilter jtiReplayFilter) {
+
+        this.jtiReplayFilter = jtiReplayFilter;
+    }
+
     public static JWTServiceDataHolder getInstance() {
 
         return instance;
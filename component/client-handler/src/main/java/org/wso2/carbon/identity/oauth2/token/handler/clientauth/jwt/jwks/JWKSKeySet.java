@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, parsed snapshot of a JWKS. The signature verification keys are indexed by their kid and the verifiers
+ * are built once when the snapshot is created.
+ */
+public class JWKSKeySet {
+
+    private static final Log log = LogFactory.getLog(JWKSKeySet.class);
+
+    private final Map<String, JWKSKey> keysById;
+    private final List<JWKSKey> keys;
+    private final long fetchedTime;
+
+    public JWKSKeySet(JWKSet jwkSet, long fetchedTime) {
+
+        Map<String, JWKSKey> keysById = new HashMap<>();
+        List<JWKSKey> keys = new ArrayList<>();
+        for (JWK jwk : jwkSet.getKeys()) {
+            if (KeyUse.ENCRYPTION.equals(jwk.getKeyUse())) {
+                continue;
+            }
+            JWSVerifier verifier = createVerifier(jwk);
+            if (verifier == null) {
+                continue;
+            }
+            JWKSKey key = new JWKSKey(jwk, verifier);
+            keys.add(key);
+            if (jwk.getKeyID() != null) {
+                keysById.put(jwk.getKeyID(), key);
+            }
+        }
+        this.keysById = Collections.unmodifiableMap(keysById);
+        this.keys = Collections.unmodifiableList(keys);
+        this.fetchedTime = fetchedTime;
+    }
+
+    /**
+     * Get the key with the given kid.
+     *
+     * @param kid Key id.
+     * @return Key, or null if the key set does not contain a signature verification key with the given kid.
+     */
+    public JWKSKey getKey(String kid) {
+
+        return keysById.get(kid);
+    }
+
+    /**
+     * Get all the signature verification keys of the key set.
+     *
+     * @return Immutable list of keys.
+     */
+    public List<JWKSKey> getKeys() {
+
+        return keys;
+    }
+
+    public long getFetchedTime() {
+
+        return fetchedTime;
+    }
+
+    private static JWSVerifier createVerifier(JWK jwk) {
+
+        try {
+            if (jwk instanceof RSAKey) {
+                return new RSASSAVerifier((RSAKey) jwk);
+            } else if (jwk instanceof ECKey) {
+                return new ECDSAVerifier((ECKey) jwk);
+            }
+        } catch (JOSEException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to create a verifier for the key: " + jwk.getKeyID(), e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A signature verification key of the key set, along with its verifier.
+     */
+    public static class JWKSKey {
+
+        private final JWK jwk;
+        private final JWSVerifier verifier;
+
+        JWKSKey(JWK jwk, JWSVerifier verifier) {
+
+            this.jwk = jwk;
+            this.verifier = verifier;
+        }
+
+        public JWK getJwk() {
+
+            return jwk;
+        }
+
+        public JWSVerifier getVerifier() {
+
+            return verifier;
+        }
+    }
+}
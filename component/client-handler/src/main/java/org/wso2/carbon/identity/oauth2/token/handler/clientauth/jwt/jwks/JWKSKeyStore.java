@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Node local store of the JWKS of the clients which authenticate with a jwksURI.
+ * The store keeps a parsed, kid indexed snapshot per JWKS URI. A snapshot is refreshed in the background once it
+ * enters the refresh ahead window, so that the requests keep using the current snapshot while the new one is fetched.
+ * Concurrent fetches of the same URI are collapsed into a single HTTP call. When an assertion refers to a kid which is
+ * not in the snapshot, the JWKS is fetched again to pick up rotated keys, at most once per minimum refresh interval.
+ * If a fetch fails, the expired snapshot keeps being served until it is older than the maximum staleness, and no
+ * further fetch of the URI is started until the failure backoff elapses. The number of JWKS URIs held is bounded,
+ * the least recently used URI being dropped when the bound is exceeded.
+ */
+public class JWKSKeyStore {
+
+    private static final Log log = LogFactory.getLog(JWKSKeyStore.class);
+
+    public static final long DEFAULT_TTL_IN_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    public static final long DEFAULT_REFRESH_AHEAD_IN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    public static final long DEFAULT_MIN_REFRESH_INTERVAL_IN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    public static final long DEFAULT_MAX_STALENESS_IN_MILLIS = TimeUnit.HOURS.toMillis(1);
+    public static final long DEFAULT_FAILURE_BACKOFF_IN_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    public static final int DEFAULT_HTTP_CONNECT_TIMEOUT_IN_MILLIS = 1000;
+    public static final int DEFAULT_HTTP_READ_TIMEOUT_IN_MILLIS = 1000;
+    public static final int DEFAULT_HTTP_SIZE_LIMIT = 51200;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final ResourceRetriever resourceRetriever;
+    private final long ttlInMillis;
+    private final long refreshAheadInMillis;
+    private final long minRefreshIntervalInMillis;
+    private final long maxStalenessInMillis;
+    private final long failureBackoffInMillis;
+    private final int maxEntries;
+    private final Map<String, JWKSEntry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "JWKSKeyStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JWKSKeyStore() {
+
+        this(new DefaultResourceRetriever(DEFAULT_HTTP_CONNECT_TIMEOUT_IN_MILLIS, DEFAULT_HTTP_READ_TIMEOUT_IN_MILLIS,
+                DEFAULT_HTTP_SIZE_LIMIT), DEFAULT_TTL_IN_MILLIS, DEFAULT_REFRESH_AHEAD_IN_MILLIS,
+                DEFAULT_MIN_REFRESH_INTERVAL_IN_MILLIS);
+    }
+
+    /**
+     * Create a JWKS key store.
+     *
+     * @param resourceRetriever          Retriever used to fetch the JWKS.
+     * @param ttlInMillis                Time a snapshot is used after it was fetched.
+     * @param refreshAheadInMillis       Time before the expiry of a snapshot at which a background refresh starts.
+     * @param minRefreshIntervalInMillis Minimum time between two refreshes forced by an unknown kid.
+     */
+    public JWKSKeyStore(ResourceRetriever resourceRetriever, long ttlInMillis, long refreshAheadInMillis,
+                        long minRefreshIntervalInMillis) {
+
+        this(resourceRetriever, ttlInMillis, refreshAheadInMillis, minRefreshIntervalInMillis, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Create a JWKS key store.
+     *
+     * @param resourceRetriever          Retriever used to fetch the JWKS.
+     * @param ttlInMillis                Time a snapshot is used after it was fetched.
+     * @param refreshAheadInMillis       Time before the expiry of a snapshot at which a background refresh starts.
+     * @param minRefreshIntervalInMillis Minimum time between two refreshes forced by an unknown kid.
+     * @param maxEntries                 Maximum number of JWKS URIs held by the store.
+     */
+    public JWKSKeyStore(ResourceRetriever resourceRetriever, long ttlInMillis, long refreshAheadInMillis,
+                        long minRefreshIntervalInMillis, int maxEntries) {
+
+        this(resourceRetriever, ttlInMillis, refreshAheadInMillis, minRefreshIntervalInMillis,
+                DEFAULT_MAX_STALENESS_IN_MILLIS, DEFAULT_FAILURE_BACKOFF_IN_MILLIS, maxEntries);
+    }
+
+    /**
+     * Create a JWKS key store.
+     *
+     * @param resourceRetriever          Retriever used to fetch the JWKS.
+     * @param ttlInMillis                Time a snapshot is used after it was fetched.
+     * @param refreshAheadInMillis       Time before the expiry of a snapshot at which a background refresh starts.
+     * @param minRefreshIntervalInMillis Minimum time between two refreshes forced by an unknown kid.
+     * @param maxStalenessInMillis       Maximum age of a snapshot served when the JWKS could not be fetched again.
+     * @param failureBackoffInMillis     Time after a failed fetch during which the JWKS is not fetched again.
+     * @param maxEntries                 Maximum number of JWKS URIs held by the store.
+     */
+    public JWKSKeyStore(ResourceRetriever resourceRetriever, long ttlInMillis, long refreshAheadInMillis,
+                        long minRefreshIntervalInMillis, long maxStalenessInMillis, long failureBackoffInMillis,
+                        int maxEntries) {
+
+        this.resourceRetriever = resourceRetriever;
+        this.ttlInMillis = Math.max(1, ttlInMillis);
+        this.refreshAheadInMillis = Math.max(0, Math.min(refreshAheadInMillis, this.ttlInMillis));
+        this.minRefreshIntervalInMillis = Math.max(0, minRefreshIntervalInMillis);
+        this.maxStalenessInMillis = Math.max(this.ttlInMillis, maxStalenessInMillis);
+        this.failureBackoffInMillis = Math.max(0, failureBackoffInMillis);
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Get the current snapshot of the JWKS, fetching it if there is no usable snapshot.
+     *
+     * @param jwksUri JWKS URI.
+     * @return Snapshot of the JWKS.
+     * @throws IOException If the JWKS could not be fetched or parsed and there is no snapshot to fall back to, or a
+     *                     fetch of the JWKS failed within the failure backoff.
+     */
+    public JWKSKeySet getKeySet(String jwksUri) throws IOException {
+
+        JWKSEntry entry = entries.get(jwksUri);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(jwksUri, JWKSEntry::new);
+            evictEntries(jwksUri);
+        }
+        long currentTimeInMillis = System.currentTimeMillis();
+        entry.lastAccessTime = currentTimeInMillis;
+        JWKSKeySet keySet = entry.keySet.get();
+        if (keySet == null || currentTimeInMillis - keySet.getFetchedTime() >= ttlInMillis) {
+            JWKSKeySet fallback = entry.getFallback(keySet, currentTimeInMillis);
+            if (entry.isBackingOff(currentTimeInMillis)) {
+                if (fallback != null) {
+                    return fallback;
+                }
+                throw new IOException("Fetching the JWKS from: " + jwksUri + " failed recently. The JWKS is not " +
+                        "fetched again until the failure backoff elapses.");
+            }
+            return entry.await(entry.refresh(), fallback);
+        }
+        if (currentTimeInMillis - keySet.getFetchedTime() >= ttlInMillis - refreshAheadInMillis) {
+            // Serve the current snapshot while the next one is fetched in the background.
+            entry.refresh();
+        }
+        return keySet;
+    }
+
+    /**
+     * Get the key with the given kid. If the kid is not known, the JWKS is fetched again unless it was fetched for
+     * the same reason within the minimum refresh interval.
+     *
+     * @param jwksUri JWKS URI.
+     * @param kid     Key id.
+     * @return Key, or null if the JWKS does not contain a signature verification key with the given kid.
+     * @throws IOException If the JWKS could not be fetched or parsed and there is no snapshot to fall back to.
+     */
+    public JWKSKeySet.JWKSKey getKey(String jwksUri, String kid) throws IOException {
+
+        JWKSKeySet keySet = getKeySet(jwksUri);
+        JWKSKeySet.JWKSKey key = keySet.getKey(kid);
+        if (key != null) {
+            return key;
+        }
+        JWKSEntry entry = entries.get(jwksUri);
+        if (entry == null || !entry.tryForcedRefresh(System.currentTimeMillis())) {
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Key: " + kid + " not found in the JWKS of " + jwksUri + ". Refreshing the JWKS.");
+        }
+        return entry.await(entry.refresh(), entry.getFallback(keySet, System.currentTimeMillis())).getKey(kid);
+    }
+
+    /**
+     * Remove the snapshot of the given JWKS URI, so that the JWKS is fetched again on the next use.
+     *
+     * @param jwksUri JWKS URI.
+     */
+    public void invalidate(String jwksUri) {
+
+        entries.remove(jwksUri);
+    }
+
+    /**
+     * Stop the background refreshes.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get the number of JWKS URIs held by the store.
+     *
+     * @return Number of JWKS URIs.
+     */
+    public int size() {
+
+        return entries.size();
+    }
+
+    /**
+     * Drop the least recently used JWKS URIs until the store is within its bound. The store is only scanned when a
+     * new URI is added, hence the scan is not on the path of the requests for the known URIs.
+     *
+     * @param addedJwksUri JWKS URI which was just added, and is not dropped.
+     */
+    private void evictEntries(String addedJwksUri) {
+
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, JWKSEntry> eldest = null;
+            for (Map.Entry<String, JWKSEntry> candidate : entries.entrySet()) {
+                if (!candidate.getKey().equals(addedJwksUri) && (eldest == null ||
+                        candidate.getValue().lastAccessTime < eldest.getValue().lastAccessTime)) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (entries.remove(eldest.getKey(), eldest.getValue()) && log.isDebugEnabled()) {
+                log.debug("JWKS key store is full. Dropped the JWKS of " + eldest.getKey());
+            }
+        }
+    }
+
+    private JWKSKeySet fetch(String jwksUri) throws IOException {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching JWKS from remote endpoint. JWKS URI: " + jwksUri);
+        }
+        Resource resource = resourceRetriever.retrieveResource(new URL(jwksUri));
+        try {
+            return new JWKSKeySet(JWKSet.parse(resource.getContent()), System.currentTimeMillis());
+        } catch (ParseException e) {
+            throw new IOException("Invalid JWKS received from: " + jwksUri, e);
+        }
+    }
+
+    /**
+     * State of a single JWKS URI.
+     */
+    private class JWKSEntry {
+
+        private final String jwksUri;
+        private final AtomicReference<CompletableFuture<JWKSKeySet>> inFlight = new AtomicReference<>();
+        private final AtomicLong lastForcedRefreshTime = new AtomicLong();
+        private final AtomicReference<JWKSKeySet> keySet = new AtomicReference<>();
+        private volatile long lastFailureTime;
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        JWKSEntry(String jwksUri) {
+
+            this.jwksUri = jwksUri;
+        }
+
+        /**
+         * Start a fetch of the JWKS, or join the fetch which is already in flight.
+         */
+        CompletableFuture<JWKSKeySet> refresh() {
+
+            while (true) {
+                CompletableFuture<JWKSKeySet> current = inFlight.get();
+                if (current != null) {
+                    return current;
+                }
+                CompletableFuture<JWKSKeySet> future = new CompletableFuture<>();
+                if (!inFlight.compareAndSet(null, future)) {
+                    continue;
+                }
+                try {
+                    executor.execute(() -> load(future));
+                } catch (RejectedExecutionException e) {
+                    load(future);
+                }
+                return future;
+            }
+        }
+
+        private void load(CompletableFuture<JWKSKeySet> future) {
+
+            try {
+                JWKSKeySet fetched = fetch(jwksUri);
+                keySet.set(fetched);
+                lastFailureTime = 0;
+                future.complete(fetched);
+            } catch (IOException | RuntimeException e) {
+                lastFailureTime = System.currentTimeMillis();
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.compareAndSet(future, null);
+            }
+        }
+
+        /**
+         * Wait for a fetch. If the fetch fails, fall back to the given snapshot when there is one.
+         */
+        JWKSKeySet await(CompletableFuture<JWKSKeySet> future, JWKSKeySet fallback) throws IOException {
+
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (fallback != null) {
+                    return fallback;
+                }
+                throw new IOException("Interrupted while fetching the JWKS from: " + jwksUri, e);
+            } catch (ExecutionException e) {
+                if (fallback != null) {
+                    log.warn("Error while fetching the JWKS from: " + jwksUri + ". Using the previously fetched keys.");
+                    return fallback;
+                }
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException("Error while fetching the JWKS from: " + jwksUri, cause);
+            }
+        }
+
+        /**
+         * Get the snapshot to fall back to if the JWKS could not be fetched. A snapshot older than the maximum
+         * staleness is dropped, so that the keys of the client are not trusted indefinitely.
+         */
+        JWKSKeySet getFallback(JWKSKeySet snapshot, long currentTimeInMillis) {
+
+            if (snapshot == null || currentTimeInMillis - snapshot.getFetchedTime() <= maxStalenessInMillis) {
+                return snapshot;
+            }
+            if (keySet.compareAndSet(snapshot, null)) {
+                log.warn("The JWKS of: " + jwksUri + " could not be fetched within the maximum staleness. Dropped " +
+                        "the previously fetched keys.");
+            }
+            return null;
+        }
+
+        boolean isBackingOff(long currentTimeInMillis) {
+
+            long failureTime = lastFailureTime;
+            return failureTime != 0 && currentTimeInMillis - failureTime < failureBackoffInMillis;
+        }
+
+        boolean tryForcedRefresh(long currentTimeInMillis) {
+
+            long last = lastForcedRefreshTime.get();
+            return currentTimeInMillis - last >= minRefreshIntervalInMillis &&
+                    lastForcedRefreshTime.compareAndSet(last, currentTimeInMillis);
+        }
+    }
+}
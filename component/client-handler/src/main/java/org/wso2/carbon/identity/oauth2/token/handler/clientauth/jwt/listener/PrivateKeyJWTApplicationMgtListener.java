@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+import org.wso2.carbon.identity.application.mgt.listener.AbstractApplicationMgtListener;
+import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTUnknownClientCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application management listener which clears the cached client information of the private key JWT authenticator
+ * when an application is created, updated or deleted.
+ */
+public class PrivateKeyJWTApplicationMgtListener extends AbstractApplicationMgtListener {
+
+    private static final Log log = LogFactory.getLog(PrivateKeyJWTApplicationMgtListener.class);
+    private static final String OAUTH2 = "oauth2";
+    private static final int DEFAULT_ORDER_ID = 901;
+
+    @Override
+    public int getDefaultOrderId() {
+
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostCreateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        clearClientCaches(serviceProvider, tenantDomain, getJwksUri(serviceProvider));
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        clearClientCaches(serviceProvider, tenantDomain, getJwksUri(serviceProvider));
+        return true;
+    }
+
+    @Override
+    public boolean doPreDeleteApplication(String applicationName, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        ServiceProvider serviceProvider = OAuth2ServiceComponentHolder.getApplicationMgtService()
+                .getApplicationExcludingFileBasedSPs(applicationName, tenantDomain);
+        // The JWKS of a deleted application is not used again, hence it is dropped regardless of its URI.
+        clearClientCaches(serviceProvider, tenantDomain, null);
+        return true;
+    }
+
+    /**
+     * Clear the cached information of the clients of an application. If the cached key material of a client refers
+     * to a JWKS URI other than the current one of the application, the JWKS fetched from the former URI is dropped.
+     *
+     * @param serviceProvider Application.
+     * @param tenantDomain    Tenant domain of the application.
+     * @param jwksUri         Current JWKS URI of the application, or null if it has none.
+     */
+    private void clearClientCaches(ServiceProvider serviceProvider, String tenantDomain, String jwksUri) {
+
+        for (String clientId : getClientIds(serviceProvider)) {
+            JWTSignatureKeyCacheEntry signatureKey = JWTSignatureKeyCache.getInstance().getValueFromCache(
+                    new JWTSignatureKeyCacheKey(clientId, tenantDomain), tenantDomain);
+            clearClientCacheEntries(clientId, tenantDomain);
+            if (signatureKey != null && signatureKey.getKeySource() == JWTSignatureKeyCacheEntry.KeySource.JWKS_URI &&
+                    !signatureKey.getJwksUri().equals(jwksUri)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("JWKS URI of the client: " + clientId + " of tenant: " + tenantDomain + " has changed. " +
+                            "Dropping the JWKS of " + signatureKey.getJwksUri());
+                }
+                JWTServiceDataHolder.getInstance().getJwksKeyStore().invalidate(signatureKey.getJwksUri());
+            }
+        }
+    }
+
+    /**
+     * Clear the cached profile and key material of a client. The verified assertions of the client are bound to the
+     * cleared key material, hence they are not used again.
+     *
+     * @param clientId     Client id.
+     * @param tenantDomain Tenant domain of the client.
+     */
+    static void clearClientCacheEntries(String clientId, String tenantDomain) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Clearing the cached profile and key material of the client: " + clientId + " of tenant: " +
+                    tenantDomain);
+        }
+        JWTSignatureKeyCache.getInstance().clearCacheEntry(new JWTSignatureKeyCacheKey(clientId, tenantDomain),
+                tenantDomain);
+        JWTClientAuthProfileCache.getInstance().clearCacheEntries(clientId, tenantDomain);
+        // A client id registered now may have been remembered as unknown.
+        JWTUnknownClientCache.getInstance().clearCacheEntries(clientId, tenantDomain);
+    }
+
+    private String getJwksUri(ServiceProvider serviceProvider) {
+
+        if (serviceProvider == null || serviceProvider.getSpProperties() == null) {
+            return null;
+        }
+        for (ServiceProviderProperty spProperty : serviceProvider.getSpProperties()) {
+            if (Constants.JWKS_URI.equals(spProperty.getName())) {
+                return spProperty.getValue();
+            }
+        }
+        return null;
+    }
+
+    private List<String> getClientIds(ServiceProvider serviceProvider) {
+
+        List<String> clientIds = new ArrayList<>();
+        if (serviceProvider == null) {
+            return clientIds;
+        }
+        InboundAuthenticationConfig inboundAuthenticationConfig = serviceProvider.getInboundAuthenticationConfig();
+        if (inboundAuthenticationConfig == null ||
+                inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs() == null) {
+            return clientIds;
+        }
+        for (InboundAuthenticationRequestConfig requestConfig :
+                inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs()) {
+            if (OAUTH2.equals(requestConfig.getInboundAuthType()) && requestConfig.getInboundAuthKey() != null) {
+                clientIds.add(requestConfig.getInboundAuthKey());
+            }
+        }
+        return clientIds;
+    }
+}
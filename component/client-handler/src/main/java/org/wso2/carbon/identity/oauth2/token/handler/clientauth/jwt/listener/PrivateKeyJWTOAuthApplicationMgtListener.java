@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth.IdentityOAuthAdminException;
+import org.wso2.carbon.identity.oauth.common.exception.InvalidOAuthClientException;
+import org.wso2.carbon.identity.oauth.dto.OAuthConsumerAppDTO;
+import org.wso2.carbon.identity.oauth.listener.OAuthApplicationMgtListener;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+/**
+ * OAuth application management listener which clears the cached client information of the private key JWT
+ * authenticator when the OAuth application of a client is updated, revoked, re-activated or removed. These changes
+ * are made through the OAuth admin service and do not reach the application management listeners.
+ */
+public class PrivateKeyJWTOAuthApplicationMgtListener implements OAuthApplicationMgtListener {
+
+    private static final Log log = LogFactory.getLog(PrivateKeyJWTOAuthApplicationMgtListener.class);
+    private static final int DEFAULT_ORDER_ID = 901;
+
+    @Override
+    public boolean isEnabled() {
+
+        IdentityEventListenerConfig identityEventListenerConfig = IdentityUtil.readEventListenerProperty
+                (OAuthApplicationMgtListener.class.getName(), this.getClass().getName());
+        return identityEventListenerConfig == null ||
+                Boolean.parseBoolean(identityEventListenerConfig.getEnable());
+    }
+
+    @Override
+    public int getExecutionOrder() {
+
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public void doPreUpdateConsumerApplication(OAuthConsumerAppDTO consumerAppDTO)
+            throws IdentityOAuthAdminException {
+
+        clearClientCaches(consumerAppDTO.getOauthConsumerKey());
+    }
+
+    @Override
+    public void doPreUpdateConsumerApplicationState(String consumerKey, String newState)
+            throws IdentityOAuthAdminException {
+
+        // Covers the revocation of the application and the re-activation on client secret regeneration.
+        clearClientCaches(consumerKey);
+    }
+
+    @Override
+    public void doPreRemoveOAuthApplicationData(String consumerKey) throws IdentityOAuthAdminException {
+
+        clearClientCaches(consumerKey);
+    }
+
+    private void clearClientCaches(String consumerKey) {
+
+        if (consumerKey == null) {
+            return;
+        }
+        String tenantDomain;
+        try {
+            tenantDomain = OAuth2Util.getTenantDomainOfOauthApp(consumerKey);
+        } catch (InvalidOAuthClientException | IdentityOAuth2Exception e) {
+            // Nothing is cached for a client which is not registered.
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to resolve the tenant domain of the client: " + consumerKey, e);
+            }
+            return;
+        }
+        PrivateKeyJWTApplicationMgtListener.clearClientCacheEntries(consumerKey, tenantDomain);
+    }
+}
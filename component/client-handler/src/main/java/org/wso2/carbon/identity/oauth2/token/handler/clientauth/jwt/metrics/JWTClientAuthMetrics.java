@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.metrics;
+
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIPurgeService;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIWriteBehindPersister;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator.JWTValidationStage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of the private key JWT client authentication. The values are read from the data holder on
+ * each call, hence the view follows the components replaced on reactivation.
+ */
+public class JWTClientAuthMetrics implements JWTClientAuthMetricsMXBean {
+
+    public static final String OBJECT_NAME =
+            "org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt:type=JWTClientAuthMetrics";
+
+    @Override
+    public long getAcceptedCount() {
+
+        return JWTServiceDataHolder.getInstance().getValidationStageMetrics().getAcceptedCount();
+    }
+
+    @Override
+    public Map<String, Long> getRejectionCounts() {
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<JWTValidationStage, Long> count :
+                JWTServiceDataHolder.getInstance().getValidationStageMetrics().getRejectionCounts().entrySet()) {
+            counts.put(count.getKey().name(), count.getValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public long getSuppressedJTIWriteCount() {
+
+        return JWTServiceDataHolder.getInstance().getValidationStageMetrics().getSuppressedJTIWriteCount();
+    }
+
+    @Override
+    public int getPendingJTIWriteCount() {
+
+        JTIWriteBehindPersister persister = JWTServiceDataHolder.getInstance().getJtiWriteBehindPersister();
+        return persister != null ? persister.getPendingCount() : 0;
+    }
+
+    @Override
+    public long getPurgedJTICount() {
+
+        JTIPurgeService purgeService = JWTServiceDataHolder.getInstance().getJtiPurgeService();
+        return purgeService != null ? purgeService.getTotalRowsPurged() : 0;
+    }
+
+    @Override
+    public long getLastPurgeRunJTICount() {
+
+        JTIPurgeService purgeService = JWTServiceDataHolder.getInstance().getJtiPurgeService();
+        return purgeService != null ? purgeService.getLastRunRowsPurged() : 0;
+    }
+
+    @Override
+    public long getLastPurgeRunTime() {
+
+        JTIPurgeService purgeService = JWTServiceDataHolder.getInstance().getJtiPurgeService();
+        return purgeService != null ? purgeService.getLastRunTime() : 0;
+    }
+
+    @Override
+    public long getPurgeExpiryLagInMillis() {
+
+        JTIPurgeService purgeService = JWTServiceDataHolder.getInstance().getJtiPurgeService();
+        return purgeService != null ? purgeService.getExpiryLagInMillis() : 0;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the metrics of the private key JWT client authentication of this node over JMX.
+ */
+public interface JWTClientAuthMetricsMXBean {
+
+    /**
+     * Get the number of assertions which passed all the validation stages.
+     *
+     * @return Number of accepted assertions.
+     */
+    long getAcceptedCount();
+
+    /**
+     * Get the number of assertions rejected at each validation stage.
+     *
+     * @return Rejection counts keyed by the name of the validation stage.
+     */
+    Map<String, Long> getRejectionCounts();
+
+    /**
+     * Get the number of JTI writes skipped since the JTI was already recorded with the same expiry.
+     *
+     * @return Number of suppressed writes.
+     */
+    long getSuppressedJTIWriteCount();
+
+    /**
+     * Get the number of JTIs waiting to be written by the write-behind persister.
+     *
+     * @return Number of pending JTIs, or 0 if write-behind is disabled.
+     */
+    int getPendingJTIWriteCount();
+
+    /**
+     * Get the number of expired JTIs deleted by the purge service of this node.
+     *
+     * @return Total number of purged JTIs, or 0 if the purge is disabled.
+     */
+    long getPurgedJTICount();
+
+    /**
+     * Get the number of expired JTIs deleted in the last purge cycle run by this node.
+     *
+     * @return Number of JTIs purged in the last cycle, or 0 if the purge is disabled.
+     */
+    long getLastPurgeRunJTICount();
+
+    /**
+     * Get the start time of the last purge cycle run by this node.
+     *
+     * @return Start time of the last cycle, or 0 if no cycle has run.
+     */
+    long getLastPurgeRunTime();
+
+    /**
+     * Get how far the purge is behind the expiry horizon after the last purge cycle run by this node.
+     *
+     * @return Lag behind the expiry horizon in milliseconds.
+     */
+    long getPurgeExpiryLagInMillis();
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node local JTI replay store whose retention is bounded by the reject before window of the validator.
+ * An assertion older than the window is rejected by its issued time, hence its JTI does not need to be kept until the
+ * expiry time chosen by the client. The JTIs are kept until min(exp, iat + window) plus the allowed clock skew, so the
+ * number of stored JTIs is bounded by the request rate times the window. Assertions without an issued time are kept
+ * until their expiry.
+ * <p>
+ * Expired JTIs are evicted through a timing wheel per lock stripe. The wheel is a ring of time buckets covering the
+ * window, every JTI is placed in the bucket of its retention time and a whole bucket is swept when the clock passes
+ * it, so that no timer or priority queue is kept per entry. JTIs retained beyond the span of the wheel are moved
+ * forward when their bucket is swept.
+ * <p>
+ * The store only knows the JTIs accepted by this node, hence it should only be used when every assertion of the
+ * deployment is validated by this node.
+ */
+public class BoundedWindowJTIReplayStore implements JTIReplayStore {
+
+    public static final String NAME = "window";
+
+    private static final int SHARD_COUNT = 16;
+    private static final int MAX_WHEEL_SIZE = 4096;
+    private static final long MIN_TICK_IN_MILLIS = 1000;
+
+    private final long windowInMillis;
+    private final long retentionSkewInMillis;
+    private final long tickInMillis;
+    private final int wheelSize;
+    private final Shard[] shards;
+
+    /**
+     * Create a bounded window replay store.
+     *
+     * @param windowInMillis        Maximum age of an accepted assertion, or 0 if the age is not validated.
+     * @param retentionSkewInMillis Allowed clock skew, added to the retention time of the JTIs.
+     */
+    public BoundedWindowJTIReplayStore(long windowInMillis, long retentionSkewInMillis) {
+
+        this.windowInMillis = Math.max(0, windowInMillis);
+        this.retentionSkewInMillis = Math.max(0, retentionSkewInMillis);
+        // The issued time may be ahead of the clock by the skew, hence the wheel spans the window and twice the skew.
+        long span = Math.max(MIN_TICK_IN_MILLIS, this.windowInMillis + 2 * this.retentionSkewInMillis);
+        this.tickInMillis = Math.max(MIN_TICK_IN_MILLIS, (span + MAX_WHEEL_SIZE - 1) / MAX_WHEEL_SIZE);
+        this.wheelSize = (int) Math.min(MAX_WHEEL_SIZE, span / tickInMillis + 2);
+        this.shards = new Shard[SHARD_COUNT];
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard(wheelSize);
+        }
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public boolean claim(String jti, int tenantId, long expiryTime, long issuedTime) {
+
+        return claim(jti, tenantId, expiryTime, issuedTime, System.currentTimeMillis());
+    }
+
+    @Override
+    public void record(String jti, int tenantId, long expiryTime, long issuedTime) {
+
+        record(jti, tenantId, expiryTime, issuedTime, System.currentTimeMillis());
+    }
+
+    boolean claim(String jti, int tenantId, long expiryTime, long issuedTime, long currentTimeInMillis) {
+
+        return put(jti, tenantId, getRetentionTime(expiryTime, issuedTime), currentTimeInMillis, false);
+    }
+
+    void record(String jti, int tenantId, long expiryTime, long issuedTime, long currentTimeInMillis) {
+
+        put(jti, tenantId, getRetentionTime(expiryTime, issuedTime), currentTimeInMillis, true);
+    }
+
+    /**
+     * Get the time until which the JTI of an assertion is kept.
+     *
+     * @param expiryTime Expiry time of the assertion.
+     * @param issuedTime Issued time of the assertion, or 0 if the assertion has no iat claim.
+     * @return Retention time of the JTI.
+     */
+    long getRetentionTime(long expiryTime, long issuedTime) {
+
+        long retentionTime = expiryTime;
+        if (windowInMillis > 0 && issuedTime > 0) {
+            retentionTime = Math.min(expiryTime, issuedTime + windowInMillis);
+        }
+        return retentionTime + retentionSkewInMillis;
+    }
+
+    /**
+     * Get the number of JTIs held by the store, including the expired JTIs whose bucket is not swept yet.
+     *
+     * @return Number of JTIs.
+     */
+    public int size() {
+
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private boolean put(String jti, int tenantId, long retentionTime, long currentTimeInMillis, boolean overwrite) {
+
+        byte[] fingerprint = OffHeapJTIReplayStore.fingerprint(jti, tenantId);
+        Fingerprint key = new Fingerprint(OffHeapJTIReplayStore.toLong(fingerprint, 0),
+                OffHeapJTIReplayStore.toLong(fingerprint, 8));
+        Shard shard = shards[(int) (key.high >>> 32) & (SHARD_COUNT - 1)];
+        synchronized (shard) {
+            shard.advance(currentTimeInMillis);
+            Entry entry = shard.entries.get(key);
+            if (entry != null && entry.retentionTime > currentTimeInMillis) {
+                if (overwrite) {
+                    shard.update(entry, retentionTime);
+                }
+                return false;
+            }
+            if (retentionTime <= currentTimeInMillis) {
+                // Already outside the window, nothing to protect.
+                return true;
+            }
+            if (entry != null) {
+                shard.update(entry, retentionTime);
+            } else {
+                entry = new Entry(key, retentionTime);
+                shard.entries.put(key, entry);
+                shard.schedule(entry);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A single lock stripe of the store with its own timing wheel.
+     */
+    private final class Shard {
+
+        private final Map<Fingerprint, Entry> entries = new HashMap<>();
+        private final List<Entry>[] wheel;
+        private long currentTick = -1;
+
+        @SuppressWarnings("unchecked")
+        Shard(int wheelSize) {
+
+            this.wheel = new List[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = new ArrayList<>();
+            }
+        }
+
+        /**
+         * Sweep the buckets the clock has passed since the last call.
+         */
+        void advance(long currentTimeInMillis) {
+
+            long nowTick = currentTimeInMillis / tickInMillis;
+            if (currentTick < 0) {
+                currentTick = nowTick;
+                return;
+            }
+            if (nowTick - currentTick >= wheelSize) {
+                // Idle for longer than the span of the wheel, rebuilding is cheaper than sweeping every bucket.
+                rebuild(currentTimeInMillis, nowTick);
+                return;
+            }
+            while (currentTick < nowTick) {
+                currentTick++;
+                int slot = (int) (currentTick % wheelSize);
+                List<Entry> bucket = wheel[slot];
+                wheel[slot] = new ArrayList<>();
+                for (Entry entry : bucket) {
+                    // Skip the stale placements of the entries which are replaced or scheduled to another bucket.
+                    if (entry.scheduledTick != currentTick || entries.get(entry.key) != entry) {
+                        continue;
+                    }
+                    if (entry.retentionTime <= currentTimeInMillis) {
+                        entries.remove(entry.key);
+                    } else {
+                        schedule(entry);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Place the entry in the bucket of its retention time, or in the last bucket of the wheel if the retention
+         * time is beyond the span of the wheel.
+         */
+        void schedule(Entry entry) {
+
+            long tick = (entry.retentionTime + tickInMillis - 1) / tickInMillis;
+            entry.scheduledTick = Math.max(currentTick + 1, Math.min(tick, currentTick + wheelSize - 1));
+            wheel[(int) (entry.scheduledTick % wheelSize)].add(entry);
+        }
+
+        void update(Entry entry, long retentionTime) {
+
+            long previousRetentionTime = entry.retentionTime;
+            entry.retentionTime = retentionTime;
+            // A later retention time is picked up when the current bucket is swept.
+            if (retentionTime < previousRetentionTime) {
+                schedule(entry);
+            }
+        }
+
+        private void rebuild(long currentTimeInMillis, long nowTick) {
+
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new ArrayList<>();
+            }
+            currentTick = nowTick;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.retentionTime <= currentTimeInMillis) {
+                    iterator.remove();
+                } else {
+                    schedule(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * A stored JTI.
+     */
+    private static final class Entry {
+
+        private final Fingerprint key;
+        private long retentionTime;
+        private long scheduledTick;
+
+        Entry(Fingerprint key, long retentionTime) {
+
+            this.key = key;
+            this.retentionTime = retentionTime;
+        }
+    }
+
+    /**
+     * 128 bit fingerprint of the tenant id and the JTI.
+     */
+    private static final class Fingerprint {
+
+        private final long high;
+        private final long low;
+
+        Fingerprint(long high, long low) {
+
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint that = (Fingerprint) o;
+            return high == that.high && low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+}
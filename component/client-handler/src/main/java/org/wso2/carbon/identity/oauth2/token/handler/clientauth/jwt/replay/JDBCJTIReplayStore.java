@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIWriteBehindPersister;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JWTStorageManager;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+
+/**
+ * JTI replay store backed by the IDN_OIDC_JTI table. This is the default store and the only one which is shared by
+ * all the nodes of a cluster.
+ */
+public class JDBCJTIReplayStore implements JTIReplayStore {
+
+    public static final String NAME = "jdbc";
+
+    private final JWTStorageManager jwtStorageManager;
+
+    public JDBCJTIReplayStore() {
+
+        this(new JWTStorageManager());
+    }
+
+    public JDBCJTIReplayStore(JWTStorageManager jwtStorageManager) {
+
+        this.jwtStorageManager = jwtStorageManager;
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public boolean claim(String jti, int tenantId, long expiryTime, long issuedTime)
+            throws OAuthClientAuthnException {
+
+        // Claim the JTI in a single round trip. The claim fails if the JTI is already recorded.
+        return jwtStorageManager.claimJWTIdInDB(jti, tenantId, expiryTime, issuedTime);
+    }
+
+    @Override
+    public void record(String jti, int tenantId, long expiryTime, long issuedTime)
+            throws OAuthClientAuthnException {
+
+        JTIWriteBehindPersister jtiWriteBehindPersister =
+                JWTServiceDataHolder.getInstance().getJtiWriteBehindPersister();
+        if (jtiWriteBehindPersister != null && jtiWriteBehindPersister.enqueue(jti, tenantId, expiryTime, issuedTime)) {
+            return;
+        }
+        jwtStorageManager.persistJWTIdInDB(jti, tenantId, expiryTime, issuedTime, false);
+    }
+}
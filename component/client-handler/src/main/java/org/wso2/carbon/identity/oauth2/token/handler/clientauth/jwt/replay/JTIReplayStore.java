@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+
+/**
+ * Store of the JTIs of the accepted private key JWT assertions, used to detect replayed assertions.
+ * Implementations are registered as OSGi services and the validator uses the one configured with the
+ * JTIReplayStore property of the authenticator.
+ */
+public interface JTIReplayStore {
+
+    /**
+     * Get the name used to select the store in the configuration.
+     *
+     * @return Name of the store.
+     */
+    String getName();
+
+    /**
+     * Record the JTI of an assertion which must not be reused. The JTI is recorded only if it is not already recorded
+     * for the tenant, and the check and the write are atomic.
+     *
+     * @param jti        JTI of the assertion.
+     * @param tenantId   Tenant id.
+     * @param expiryTime Expiry time of the assertion.
+     * @param issuedTime Issued time of the assertion, or 0 if the assertion has no iat claim.
+     * @return True if the JTI was recorded by this call, false if the assertion has been replayed.
+     * @throws OAuthClientAuthnException If the store could not be accessed.
+     */
+    boolean claim(String jti, int tenantId, long expiryTime, long issuedTime) throws OAuthClientAuthnException;
+
+    /**
+     * Record the JTI of a reusable assertion. An existing record of the same JTI is overwritten.
+     *
+     * @param jti        JTI of the assertion.
+     * @param tenantId   Tenant id.
+     * @param expiryTime Expiry time of the assertion.
+     * @param issuedTime Issued time of the assertion, or 0 if the assertion has no iat claim.
+     * @throws OAuthClientAuthnException If the store could not be accessed.
+     */
+    void record(String jti, int tenantId, long expiryTime, long issuedTime) throws OAuthClientAuthnException;
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Node local JTI replay store which survives restarts without a database.
+ * The JTIs are kept in an {@link OffHeapJTIReplayStore} index, and every accepted JTI is appended to a memory mapped
+ * journal on the local disk. The journal is split into segment files by expiry bucket, i.e. a segment only holds the
+ * JTIs whose retention time falls into its bucket, hence a whole segment file is deleted once its bucket has passed
+ * instead of compacting the journal. When the store is created the unexpired segments are replayed into the index, so
+ * that a restart does not open a replay window.
+ * <p>
+ * Each record holds the 128 bit fingerprint of the JTI, a checksum and the retention time. The retention time is
+ * written last and a record with a zero retention time or a wrong checksum ends the replay of a segment, hence a
+ * record torn by a crash is ignored. The writes survive a crash of the JVM as they are in the page cache, a crash of
+ * the host may lose the records which are not written back by the operating system yet.
+ * <p>
+ * Like the off heap store, the journal only knows the JTIs accepted by this node, hence it should only be used when
+ * every assertion of the deployment is validated by this node, e.g. single node deployments and gateways.
+ */
+public class JournalJTIReplayStore implements JTIReplayStore {
+
+    private static final Log log = LogFactory.getLog(JournalJTIReplayStore.class);
+
+    public static final String NAME = "journal";
+    public static final int DEFAULT_SEGMENT_SIZE_IN_KB = 4096;
+    public static final long DEFAULT_BUCKET_INTERVAL_IN_MINUTES = 10;
+
+    private static final int RECORD_SIZE = 32;
+    private static final int CHECKSUM_OFFSET = 16;
+    private static final int RETENTION_OFFSET = 24;
+    private static final long CHECKSUM_SEED = 0x4a54494a4f55524eL;
+    private static final Pattern SEGMENT_FILE_PATTERN = Pattern.compile("jti-(\\d+)-(\\d+)\\.journal");
+
+    private final OffHeapJTIReplayStore index;
+    private final Path directory;
+    private final int segmentSize;
+    private final long bucketIntervalInMillis;
+
+    // Segments of each unexpired bucket, in creation order. Only the last segment of a bucket is appended to.
+    private final TreeMap<Long, List<JournalSegment>> segments = new TreeMap<>();
+    private long nextSequence;
+    private long nextDropTime;
+    private boolean closed;
+
+    /**
+     * Create a journal backed replay store and replay the existing journal into the index.
+     *
+     * @param directory              Directory of the journal segments. Created if it does not exist.
+     * @param capacity               Number of live JTIs the index should hold.
+     * @param retentionSkewInMillis  Time the JTIs are kept after their expiry, i.e. the allowed clock skew.
+     * @param segmentSizeInKB        Size of a segment file.
+     * @param bucketIntervalInMillis Range of retention times covered by a segment.
+     * @throws IOException If the journal could not be read.
+     */
+    public JournalJTIReplayStore(Path directory, long capacity, long retentionSkewInMillis, int segmentSizeInKB,
+                                 long bucketIntervalInMillis) throws IOException {
+
+        this(directory, capacity, retentionSkewInMillis, segmentSizeInKB, bucketIntervalInMillis,
+                System.currentTimeMillis());
+    }
+
+    JournalJTIReplayStore(Path directory, long capacity, long retentionSkewInMillis, int segmentSizeInKB,
+                          long bucketIntervalInMillis, long currentTimeInMillis) throws IOException {
+
+        this.index = new OffHeapJTIReplayStore(capacity, retentionSkewInMillis);
+        this.directory = directory;
+        long segmentSizeInBytes = Math.min(Integer.MAX_VALUE, Math.max(1, segmentSizeInKB) * 1024L);
+        this.segmentSize = (int) Math.max(RECORD_SIZE, segmentSizeInBytes / RECORD_SIZE * RECORD_SIZE);
+        this.bucketIntervalInMillis = Math.max(1, bucketIntervalInMillis);
+        Files.createDirectories(directory);
+        replay(currentTimeInMillis);
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public boolean claim(String jti, int tenantId, long expiryTime, long issuedTime)
+            throws OAuthClientAuthnException {
+
+        return claim(jti, tenantId, expiryTime, issuedTime, System.currentTimeMillis());
+    }
+
+    @Override
+    public void record(String jti, int tenantId, long expiryTime, long issuedTime) {
+
+        record(jti, tenantId, expiryTime, issuedTime, System.currentTimeMillis());
+    }
+
+    boolean claim(String jti, int tenantId, long expiryTime, long issuedTime, long currentTimeInMillis)
+            throws OAuthClientAuthnException {
+
+        byte[] fingerprint = OffHeapJTIReplayStore.fingerprint(jti, tenantId);
+        long high = OffHeapJTIReplayStore.toLong(fingerprint, 0);
+        long low = OffHeapJTIReplayStore.toLong(fingerprint, 8);
+        long retentionTime = index.getRetentionTime(expiryTime);
+        int result = index.put(high, low, retentionTime, currentTimeInMillis, false);
+        if (result == OffHeapJTIReplayStore.FULL) {
+            log.error("Index of the JTI journal is full. Increase the capacity of the store.");
+            throw new OAuthClientAuthnException("Error occurred while validating the JTI: " + jti + " of the " +
+                    "assertion.", OAuth2ErrorCodes.INVALID_REQUEST);
+        }
+        if (result == OffHeapJTIReplayStore.EXISTS) {
+            return false;
+        }
+        try {
+            append(high, low, retentionTime, currentTimeInMillis);
+        } catch (IOException e) {
+            // The JTI is in the index, hence a retry of the same assertion is still rejected until the next restart.
+            log.error("Error while appending to the JTI journal in: " + directory, e);
+            throw new OAuthClientAuthnException("Error occurred while validating the JTI: " + jti + " of the " +
+                    "assertion.", OAuth2ErrorCodes.INVALID_REQUEST);
+        }
+        return true;
+    }
+
+    void record(String jti, int tenantId, long expiryTime, long issuedTime, long currentTimeInMillis) {
+
+        byte[] fingerprint = OffHeapJTIReplayStore.fingerprint(jti, tenantId);
+        long high = OffHeapJTIReplayStore.toLong(fingerprint, 0);
+        long low = OffHeapJTIReplayStore.toLong(fingerprint, 8);
+        long retentionTime = index.getRetentionTime(expiryTime);
+        if (index.put(high, low, retentionTime, currentTimeInMillis, true) == OffHeapJTIReplayStore.FULL) {
+            // Reusable assertions are only recorded for bookkeeping, hence a full store is not an error.
+            if (log.isDebugEnabled()) {
+                log.debug("Index of the JTI journal is full. JTI: " + jti + " of a reusable assertion is not " +
+                        "recorded.");
+            }
+            return;
+        }
+        try {
+            append(high, low, retentionTime, currentTimeInMillis);
+        } catch (IOException e) {
+            log.error("Error while appending to the JTI journal in: " + directory, e);
+        }
+    }
+
+    /**
+     * Write the journal to the disk and release the segments. The store can not record JTIs afterwards.
+     */
+    public synchronized void close() {
+
+        for (List<JournalSegment> bucketSegments : segments.values()) {
+            for (JournalSegment segment : bucketSegments) {
+                segment.release();
+            }
+        }
+        segments.clear();
+        index.clear();
+        closed = true;
+    }
+
+    /**
+     * Get the number of segment files of the unexpired buckets.
+     *
+     * @return Number of segment files.
+     */
+    public synchronized int getSegmentCount() {
+
+        int count = 0;
+        for (List<JournalSegment> bucketSegments : segments.values()) {
+            count += bucketSegments.size();
+        }
+        return count;
+    }
+
+    /**
+     * Delete the segment files of the buckets which have passed.
+     *
+     * @param currentTimeInMillis Current time.
+     */
+    synchronized void dropExpiredSegments(long currentTimeInMillis) {
+
+        // Every retention time in a bucket is before the end of the bucket.
+        long firstLiveBucket = currentTimeInMillis / bucketIntervalInMillis;
+        Iterator<Map.Entry<Long, List<JournalSegment>>> iterator =
+                segments.headMap(firstLiveBucket).entrySet().iterator();
+        while (iterator.hasNext()) {
+            for (JournalSegment segment : iterator.next().getValue()) {
+                segment.release();
+                delete(segment.path);
+            }
+            iterator.remove();
+        }
+        nextDropTime = (firstLiveBucket + 1) * bucketIntervalInMillis;
+    }
+
+    private synchronized void append(long high, long low, long retentionTime, long currentTimeInMillis)
+            throws IOException {
+
+        if (closed) {
+            throw new IOException("JTI journal is closed.");
+        }
+        if (currentTimeInMillis >= nextDropTime) {
+            dropExpiredSegments(currentTimeInMillis);
+        }
+        if (retentionTime <= currentTimeInMillis) {
+            // Nothing to protect after a restart.
+            return;
+        }
+        long bucket = retentionTime / bucketIntervalInMillis;
+        List<JournalSegment> bucketSegments = segments.computeIfAbsent(bucket, key -> new ArrayList<>());
+        JournalSegment segment = bucketSegments.isEmpty() ? null : bucketSegments.get(bucketSegments.size() - 1);
+        if (segment == null || !segment.hasRoom()) {
+            if (segment != null) {
+                segment.release();
+            }
+            segment = JournalSegment.open(directory.resolve(segmentFileName(bucket, nextSequence++)), segmentSize);
+            bucketSegments.add(segment);
+        }
+        segment.append(high, low, retentionTime);
+    }
+
+    /**
+     * Load the records of the unexpired segments into the index and delete the expired segments.
+     */
+    private synchronized void replay(long currentTimeInMillis) throws IOException {
+
+        long firstLiveBucket = currentTimeInMillis / bucketIntervalInMillis;
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                Matcher matcher = SEGMENT_FILE_PATTERN.matcher(path.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                long bucket = Long.parseLong(matcher.group(1));
+                long sequence = Long.parseLong(matcher.group(2));
+                nextSequence = Math.max(nextSequence, sequence + 1);
+                if (bucket < firstLiveBucket) {
+                    delete(path);
+                } else {
+                    files.put(sequence, path);
+                }
+            }
+        }
+        int replayed = 0;
+        for (Path path : files.values()) {
+            Matcher matcher = SEGMENT_FILE_PATTERN.matcher(path.getFileName().toString());
+            if (!matcher.matches()) {
+                continue;
+            }
+            long bucket = Long.parseLong(matcher.group(1));
+            JournalSegment segment = JournalSegment.open(path, segmentSize);
+            replayed += segment.replayInto(index, currentTimeInMillis);
+            List<JournalSegment> bucketSegments = segments.computeIfAbsent(bucket, key -> new ArrayList<>());
+            if (!bucketSegments.isEmpty()) {
+                // Files are visited in sequence order, hence only the last segment of a bucket stays writable.
+                bucketSegments.get(bucketSegments.size() - 1).release();
+            }
+            bucketSegments.add(segment);
+        }
+        nextDropTime = (firstLiveBucket + 1) * bucketIntervalInMillis;
+        if (log.isDebugEnabled()) {
+            log.debug("Replayed " + replayed + " JTIs from " + files.size() + " segments of the JTI journal in: " +
+                    directory);
+        }
+    }
+
+    private static String segmentFileName(long bucket, long sequence) {
+
+        return "jti-" + bucket + "-" + sequence + ".journal";
+    }
+
+    private static long checksum(long high, long low, long retentionTime) {
+
+        return CHECKSUM_SEED ^ high ^ Long.rotateLeft(low, 21) ^ Long.rotateLeft(retentionTime, 42);
+    }
+
+    private static void delete(Path path) {
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Error while deleting the expired JTI journal segment: " + path, e);
+        }
+    }
+
+    /**
+     * A single segment file of the journal, mapped into memory while it can be appended to.
+     */
+    private static final class JournalSegment {
+
+        private final Path path;
+        private MappedByteBuffer buffer;
+        private int position;
+
+        private JournalSegment(Path path, MappedByteBuffer buffer) {
+
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Map a segment file, creating it if needed. The segment is appended to from the start, unless the existing
+         * records are replayed first.
+         */
+        static JournalSegment open(Path path, int segmentSize) throws IOException {
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                // The mapping stays valid after the channel is closed.
+                int size = (int) Math.max(segmentSize, Math.min(channel.size(), Integer.MAX_VALUE) / RECORD_SIZE *
+                        RECORD_SIZE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                return new JournalSegment(path, buffer);
+            }
+        }
+
+        boolean hasRoom() {
+
+            return buffer != null && position + RECORD_SIZE <= buffer.capacity();
+        }
+
+        void append(long high, long low, long retentionTime) {
+
+            buffer.putLong(position, high);
+            buffer.putLong(position + 8, low);
+            buffer.putLong(position + CHECKSUM_OFFSET, checksum(high, low, retentionTime));
+            // Written last, as a non zero retention time marks a complete record.
+            buffer.putLong(position + RETENTION_OFFSET, retentionTime);
+            position += RECORD_SIZE;
+        }
+
+        /**
+         * Load the unexpired records into the index and move the append position after the last valid record.
+         *
+         * @return Number of records loaded.
+         */
+        int replayInto(OffHeapJTIReplayStore index, long currentTimeInMillis) {
+
+            int loaded = 0;
+            boolean indexFull = false;
+            position = 0;
+            while (position + RECORD_SIZE <= buffer.capacity()) {
+                long retentionTime = buffer.getLong(position + RETENTION_OFFSET);
+                if (retentionTime == 0) {
+                    break;
+                }
+                long high = buffer.getLong(position);
+                long low = buffer.getLong(position + 8);
+                if (buffer.getLong(position + CHECKSUM_OFFSET) != checksum(high, low, retentionTime)) {
+                    log.warn("Corrupted record found at offset: " + position + " of the JTI journal segment: " +
+                            path + ". Ignoring the rest of the segment.");
+                    // Later appends to this segment would not be replayed, hence the segment is not appended to.
+                    position = buffer.capacity();
+                    break;
+                }
+                if (retentionTime > currentTimeInMillis && !indexFull) {
+                    if (index.put(high, low, retentionTime, currentTimeInMillis, true) ==
+                            OffHeapJTIReplayStore.FULL) {
+                        // Keep scanning, so that the appends do not overwrite the records which are not replayed.
+                        log.warn("Index of the JTI journal is full. Remaining records of the segment: " + path +
+                                " are not replayed.");
+                        indexFull = true;
+                    } else {
+                        loaded++;
+                    }
+                }
+                position += RECORD_SIZE;
+            }
+            return loaded;
+        }
+
+        void release() {
+
+            if (buffer != null) {
+                buffer.force();
+                // Java 8 has no public API to unmap a buffer, the mapping is released once the buffer is collected.
+                buffer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.Util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Node local JTI replay store kept outside the Java heap.
+ * The JTIs are kept as fixed width fingerprints in open addressing hash tables over direct byte buffers, so that tens
+ * of millions of live JTIs neither grow the heap nor add to the garbage collection pauses. Each slot holds the 128 bit
+ * SHA-256 prefix of the tenant id and the JTI followed by the retention time of the entry. Expired slots are reused
+ * by the inserts and dropped when a segment is compacted. A segment is compacted in place, and only when enough of its
+ * slots have expired to make the compaction worthwhile.
+ * <p>
+ * The store only knows the JTIs accepted by this node, hence it should only be used when every assertion of the
+ * deployment is validated by this node.
+ */
+public class OffHeapJTIReplayStore implements JTIReplayStore {
+
+    private static final Log log = LogFactory.getLog(OffHeapJTIReplayStore.class);
+
+    public static final String NAME = "offheap";
+    public static final long DEFAULT_CAPACITY = 1000000;
+
+    private static final int SEGMENT_COUNT = 64;
+    private static final int SLOT_SIZE = 24;
+    private static final int EXPIRY_OFFSET = 16;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    // Fraction of the maximum load which must have expired for a full segment to be compacted.
+    private static final double MIN_COMPACTION_GAIN = 0.125;
+    private static final int MAX_SLOTS_PER_SEGMENT = 1 << 26;
+    private static final long EMPTY = 0;
+
+    static final int INSERTED = 0;
+    static final int EXISTS = 1;
+    static final int FULL = 2;
+
+    private final Segment[] segments;
+    private final long retentionSkewInMillis;
+
+    /**
+     * Create an off heap replay store.
+     *
+     * @param capacity              Number of live JTIs the store should hold.
+     * @param retentionSkewInMillis Time the JTIs are kept after their expiry, i.e. the allowed clock skew.
+     */
+    public OffHeapJTIReplayStore(long capacity, long retentionSkewInMillis) {
+
+        long slotsPerSegment = (long) Math.ceil(Math.max(1, capacity) / (double) SEGMENT_COUNT / MAX_LOAD_FACTOR);
+        int slotCount = 1;
+        while (slotCount < slotsPerSegment && slotCount < MAX_SLOTS_PER_SEGMENT) {
+            slotCount <<= 1;
+        }
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(slotCount);
+        }
+        this.retentionSkewInMillis = Math.max(0, retentionSkewInMillis);
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public boolean claim(String jti, int tenantId, long expiryTime, long issuedTime)
+            throws OAuthClientAuthnException {
+
+        return claim(jti, tenantId, expiryTime, issuedTime, System.currentTimeMillis());
+    }
+
+    @Override
+    public void record(String jti, int tenantId, long expiryTime, long issuedTime) {
+
+        record(jti, tenantId, expiryTime, issuedTime, System.currentTimeMillis());
+    }
+
+    boolean claim(String jti, int tenantId, long expiryTime, long issuedTime, long currentTimeInMillis)
+            throws OAuthClientAuthnException {
+
+        byte[] fingerprint = fingerprint(jti, tenantId);
+        int result = put(toLong(fingerprint, 0), toLong(fingerprint, 8), getRetentionTime(expiryTime),
+                currentTimeInMillis, false);
+        if (result == FULL) {
+            log.error("Off heap JTI replay store is full. Increase the capacity of the store.");
+            throw new OAuthClientAuthnException("Error occurred while validating the JTI: " + jti + " of the " +
+                    "assertion.", OAuth2ErrorCodes.INVALID_REQUEST);
+        }
+        return result == INSERTED;
+    }
+
+    void record(String jti, int tenantId, long expiryTime, long issuedTime, long currentTimeInMillis) {
+
+        byte[] fingerprint = fingerprint(jti, tenantId);
+        if (put(toLong(fingerprint, 0), toLong(fingerprint, 8), getRetentionTime(expiryTime), currentTimeInMillis,
+                true) == FULL && log.isDebugEnabled()) {
+            // Reusable assertions are only recorded for bookkeeping, hence a full store is not an error.
+            log.debug("Off heap JTI replay store is full. JTI: " + jti + " of a reusable assertion is not recorded.");
+        }
+    }
+
+    /**
+     * Insert a fingerprint unless a live entry of it exists. A live entry is updated only when overwrite is
+     * requested.
+     *
+     * @param high                High order bits of the fingerprint.
+     * @param low                 Low order bits of the fingerprint.
+     * @param retentionTime       Time until which the entry is kept.
+     * @param currentTimeInMillis Current time.
+     * @param overwrite           Whether the retention time of a live entry should be updated.
+     * @return One of {@link #INSERTED}, {@link #EXISTS} or {@link #FULL}.
+     */
+    int put(long high, long low, long retentionTime, long currentTimeInMillis, boolean overwrite) {
+
+        Segment segment = segmentFor(high);
+        synchronized (segment) {
+            return segment.put(high, low, retentionTime, currentTimeInMillis, overwrite);
+        }
+    }
+
+    /**
+     * Get the number of occupied slots, including the expired slots which are not reused yet.
+     *
+     * @return Number of occupied slots.
+     */
+    public long getUsedSlots() {
+
+        long usedSlots = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                usedSlots += segment.usedSlots;
+            }
+        }
+        return usedSlots;
+    }
+
+    /**
+     * Get the number of JTIs the store can hold.
+     *
+     * @return Capacity of the store.
+     */
+    public long getCapacity() {
+
+        return (long) segments.length * segments[0].maxUsedSlots;
+    }
+
+    /**
+     * Remove all the JTIs from the store.
+     */
+    public void clear() {
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    long getRetentionTime(long expiryTime) {
+
+        // The retention time doubles as the marker of an occupied slot, hence it must not be 0.
+        return Math.max(1, expiryTime + retentionSkewInMillis);
+    }
+
+    private Segment segmentFor(long high) {
+
+        return segments[(int) (high >>> 32) & (SEGMENT_COUNT - 1)];
+    }
+
+    static byte[] fingerprint(String jti, int tenantId) {
+
+        MessageDigest digest = Util.getSHA256Digest();
+        digest.update((byte) (tenantId >>> 24));
+        digest.update((byte) (tenantId >>> 16));
+        digest.update((byte) (tenantId >>> 8));
+        digest.update((byte) tenantId);
+        return digest.digest(jti.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long toLong(byte[] bytes, int offset) {
+
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xff);
+        }
+        return value;
+    }
+
+    /**
+     * Open addressing hash table with linear probing over a direct byte buffer. Not thread safe, the callers
+     * synchronize on the segment.
+     */
+    private static final class Segment {
+
+        private final int slotCount;
+        private final int maxUsedSlots;
+        private final int minCompactionGain;
+        private final ByteBuffer table;
+        private int usedSlots;
+
+        Segment(int slotCount) {
+
+            this.slotCount = slotCount;
+            this.maxUsedSlots = Math.max(1, (int) (slotCount * MAX_LOAD_FACTOR));
+            this.minCompactionGain = Math.max(1, (int) (maxUsedSlots * MIN_COMPACTION_GAIN));
+            this.table = ByteBuffer.allocateDirect(slotCount * SLOT_SIZE);
+        }
+
+        /**
+         * Insert the fingerprint unless a live entry of it exists. A live entry is updated only when overwrite is
+         * requested.
+         */
+        int put(long high, long low, long retentionTime, long currentTimeInMillis, boolean overwrite) {
+
+            int mask = slotCount - 1;
+            int index = (int) low & mask;
+            int reusable = -1;
+            // A probe sequence ends only at an empty slot, since the live entries may be behind expired ones.
+            for (int probe = 0; probe < slotCount; probe++) {
+                int offset = index * SLOT_SIZE;
+                long slotRetentionTime = table.getLong(offset + EXPIRY_OFFSET);
+                if (slotRetentionTime == EMPTY) {
+                    break;
+                }
+                if (table.getLong(offset) == high && table.getLong(offset + 8) == low) {
+                    if (slotRetentionTime > currentTimeInMillis) {
+                        if (overwrite) {
+                            table.putLong(offset + EXPIRY_OFFSET, retentionTime);
+                        }
+                        return EXISTS;
+                    }
+                    table.putLong(offset + EXPIRY_OFFSET, retentionTime);
+                    return INSERTED;
+                }
+                if (reusable < 0 && slotRetentionTime <= currentTimeInMillis) {
+                    reusable = index;
+                }
+                index = (index + 1) & mask;
+            }
+            if (reusable >= 0) {
+                write(reusable, high, low, retentionTime);
+                return INSERTED;
+            }
+            if (usedSlots >= maxUsedSlots) {
+                if (!compact(currentTimeInMillis)) {
+                    return FULL;
+                }
+                return put(high, low, retentionTime, currentTimeInMillis, overwrite);
+            }
+            write(index, high, low, retentionTime);
+            usedSlots++;
+            return INSERTED;
+        }
+
+        /**
+         * Drop the expired entries in place. The slots are visited in probe order starting after an empty slot, so
+         * that no probe sequence wraps over the start. Each live entry is moved to the first empty slot from its
+         * home slot, which is never after its current slot, hence the entries already visited keep their place.
+         *
+         * @return False if too few entries have expired for the compaction to be worthwhile.
+         */
+        private boolean compact(long currentTimeInMillis) {
+
+            int expiredSlots = 0;
+            int start = -1;
+            for (int slot = 0; slot < slotCount; slot++) {
+                long retentionTime = table.getLong(slot * SLOT_SIZE + EXPIRY_OFFSET);
+                if (retentionTime == EMPTY) {
+                    if (start < 0) {
+                        start = slot;
+                    }
+                } else if (retentionTime <= currentTimeInMillis) {
+                    expiredSlots++;
+                }
+            }
+            // The load factor keeps a slot empty, except in a single slot segment.
+            if (start < 0 || expiredSlots < minCompactionGain) {
+                return false;
+            }
+            int mask = slotCount - 1;
+            for (int step = 1; step <= slotCount; step++) {
+                int slot = (start + step) & mask;
+                int offset = slot * SLOT_SIZE;
+                long retentionTime = table.getLong(offset + EXPIRY_OFFSET);
+                if (retentionTime == EMPTY) {
+                    continue;
+                }
+                table.putLong(offset + EXPIRY_OFFSET, EMPTY);
+                if (retentionTime <= currentTimeInMillis) {
+                    usedSlots--;
+                    continue;
+                }
+                long high = table.getLong(offset);
+                long low = table.getLong(offset + 8);
+                int index = (int) low & mask;
+                while (table.getLong(index * SLOT_SIZE + EXPIRY_OFFSET) != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                write(index, high, low, retentionTime);
+            }
+            return usedSlots < maxUsedSlots;
+        }
+
+        /**
+         * Zero the table in place.
+         */
+        void clear() {
+
+            for (int offset = 0; offset < slotCount * SLOT_SIZE; offset += 8) {
+                table.putLong(offset, EMPTY);
+            }
+            usedSlots = 0;
+        }
+
+        private void write(int index, long high, long low, long retentionTime) {
+
+            int offset = index * SLOT_SIZE;
+            table.putLong(offset, high);
+            table.putLong(offset + 8, low);
+            table.putLong(offset + EXPIRY_OFFSET, retentionTime);
+        }
+    }
+}
@@ -20,13 +20,23 @@ package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util;
 
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.SQLQueries;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils.isTableColumnExists;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_H2;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_MSSQL_DB2;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_MYSQL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_ORACLE;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.CLAIM_POSTGRESQL;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.DELETE_EXPIRED_JWT_ID;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_EXPIRED_JWT_IDS;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_JWT;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_JWT_ID;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_JWT_DETAILS;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.GET_OLDEST_EXPIRED_JWT;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.INSERT_JWD_ID;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.UPSERT_H2;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.UPSERT_MSSQL_DB2;
@@ -42,6 +52,13 @@ public class Util {
 
     private static boolean isTenantIdColumnIsAvailableInIdnOidcAuthTable = false;
     private static Map<String, String> queries = new HashMap<>();
+    private static final ThreadLocal<MessageDigest> SHA256_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM.", e);
+        }
+    });
 
     public static boolean isTenantIdColumnAvailableInIdnOidcAuth() {
 
@@ -53,6 +70,19 @@ public class Util {
         return queries.get(key);
     }
 
+    /**
+     * Get the SHA-256 digest of the current thread, used to fingerprint assertions and JTIs on the request path
+     * without creating a digest per request.
+     *
+     * @return Reset SHA-256 digest owned by the current thread.
+     */
+    public static MessageDigest getSHA256Digest() {
+
+        MessageDigest digest = SHA256_DIGEST.get();
+        digest.reset();
+        return digest;
+    }
+
     /**
      * Checking whether the tenant id column is available in the IDN_OIDC_JTI table.
      */
@@ -75,6 +105,13 @@ public class Util {
             queries.put(UPSERT_H2, SQLQueries.INSERT_OR_UPDATE_TENANTED_JWT_ID_H2);
             queries.put(UPSERT_POSTGRESQL, SQLQueries.INSERT_OR_UPDATE_TENANTED_JWT_ID_POSTGRESQL);
             queries.put(UPSERT_ORACLE, SQLQueries.INSERT_OR_UPDATE_TENANTED_JWT_ID_ORACLE);
+            queries.put(CLAIM_H2, SQLQueries.INSERT_TENANTED_JWD_ID);
+            queries.put(CLAIM_MYSQL, SQLQueries.INSERT_TENANTED_JWD_ID);
+            queries.put(CLAIM_POSTGRESQL, SQLQueries.CLAIM_TENANTED_JWT_ID_POSTGRESQL);
+            queries.put(CLAIM_MSSQL_DB2, SQLQueries.CLAIM_TENANTED_JWT_ID_MSSQL_OR_DB2);
+            queries.put(CLAIM_ORACLE, SQLQueries.CLAIM_TENANTED_JWT_ID_ORACLE);
+            queries.put(GET_EXPIRED_JWT_IDS, SQLQueries.GET_EXPIRED_TENANTED_JWT_IDS);
+            queries.put(DELETE_EXPIRED_JWT_ID, SQLQueries.DELETE_EXPIRED_TENANTED_JWT_ID);
         } else {
             queries.put(GET_JWT_ID, SQLQueries.GET_JWT_ID);
             queries.put(GET_JWT, SQLQueries.GET_JWT);
@@ -84,6 +121,14 @@ public class Util {
             queries.put(UPSERT_H2, SQLQueries.INSERT_OR_UPDATE_JWT_ID_H2);
             queries.put(UPSERT_POSTGRESQL, SQLQueries.INSERT_OR_UPDATE_JWT_ID_POSTGRESQL);
             queries.put(UPSERT_ORACLE, SQLQueries.INSERT_OR_UPDATE_JWT_ID_ORACLE);
+            queries.put(CLAIM_H2, SQLQueries.INSERT_JWD_ID);
+            queries.put(CLAIM_MYSQL, SQLQueries.INSERT_JWD_ID);
+            queries.put(CLAIM_POSTGRESQL, SQLQueries.CLAIM_JWT_ID_POSTGRESQL);
+            queries.put(CLAIM_MSSQL_DB2, SQLQueries.CLAIM_JWT_ID_MSSQL_OR_DB2);
+            queries.put(CLAIM_ORACLE, SQLQueries.CLAIM_JWT_ID_ORACLE);
+            queries.put(GET_EXPIRED_JWT_IDS, SQLQueries.GET_EXPIRED_JWT_IDS);
+            queries.put(DELETE_EXPIRED_JWT_ID, SQLQueries.DELETE_EXPIRED_JWT_ID);
         }
+        queries.put(GET_OLDEST_EXPIRED_JWT, SQLQueries.GET_OLDEST_EXPIRED_JWT);
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCacheEntry;
+
+import java.util.Date;
+
+/**
+ * State of the validation of a single assertion. A context is created per request and is only accessed by the
+ * request thread, which keeps the JWTValidator free of per request state.
+ */
+public class JWTValidationContext {
+
+    private final SignedJWT signedJWT;
+    private final JWTClaimsSet claimsSet;
+    private final long currentTimeInMillis;
+    private final long timeStampSkewMillis;
+    private JWTClientAuthProfileCacheEntry profile;
+    private JWTSignatureKeyCacheEntry signatureKey;
+    private boolean preventTokenReuse;
+
+    public JWTValidationContext(SignedJWT signedJWT, JWTClaimsSet claimsSet, long currentTimeInMillis,
+                                long timeStampSkewMillis) {
+
+        this.signedJWT = signedJWT;
+        this.claimsSet = claimsSet;
+        this.currentTimeInMillis = currentTimeInMillis;
+        this.timeStampSkewMillis = timeStampSkewMillis;
+    }
+
+    public SignedJWT getSignedJWT() {
+
+        return signedJWT;
+    }
+
+    public JWTClaimsSet getClaimsSet() {
+
+        return claimsSet;
+    }
+
+    public long getCurrentTimeInMillis() {
+
+        return currentTimeInMillis;
+    }
+
+    public long getTimeStampSkewMillis() {
+
+        return timeStampSkewMillis;
+    }
+
+    public String getJti() {
+
+        return claimsSet.getJWTID();
+    }
+
+    /**
+     * Get the expiry time of the assertion.
+     *
+     * @return Expiry time in milliseconds, or 0 if the assertion has no exp claim.
+     */
+    public long getExpiryTime() {
+
+        Date expirationTime = claimsSet.getExpirationTime();
+        return expirationTime == null ? 0 : expirationTime.getTime();
+    }
+
+    /**
+     * Get the issued time of the assertion.
+     *
+     * @return Issued time in milliseconds, or 0 if the assertion has no iat claim.
+     */
+    public long getIssuedTime() {
+
+        Date issuedAtTime = claimsSet.getIssueTime();
+        return issuedAtTime == null ? 0 : issuedAtTime.getTime();
+    }
+
+    public JWTClientAuthProfileCacheEntry getProfile() {
+
+        return profile;
+    }
+
+    public void setProfile(JWTClientAuthProfileCacheEntry profile) {
+
+        this.profile = profile;
+    }
+
+    /**
+     * Get the key material used to verify the assertion.
+     *
+     * @return Key material of the client, or null if it could not be resolved.
+     */
+    public JWTSignatureKeyCacheEntry getSignatureKey() {
+
+        return signatureKey;
+    }
+
+    public void setSignatureKey(JWTSignatureKeyCacheEntry signatureKey) {
+
+        this.signatureKey = signatureKey;
+    }
+
+    public boolean isPreventTokenReuse() {
+
+        return preventTokenReuse;
+    }
+
+    public void setPreventTokenReuse(boolean preventTokenReuse) {
+
+        this.preventTokenReuse = preventTokenReuse;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator;
+
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+/**
+ * Rejection of a private key JWT assertion. The message is only formatted when it is read, so that rejecting an
+ * assertion does not build diagnostic strings nobody looks at. Flooding the token endpoint with invalid assertions
+ * can also make the stack traces of the rejections the dominant cost, hence a stackless variant can be created.
+ * The arguments of the message are not serialized, hence the message is formatted before the rejection is written.
+ */
+public class JWTValidationException extends OAuthClientAuthnException {
+
+    private static final long serialVersionUID = -6342750186391248823L;
+
+    private final String messageFormat;
+    private final transient Object[] messageArgs;
+    private volatile String formattedMessage;
+
+    JWTValidationException(String errorCode, String messageFormat, Object... messageArgs) {
+
+        super(null, errorCode);
+        this.messageFormat = messageFormat;
+        this.messageArgs = messageArgs;
+    }
+
+    /**
+     * Create a rejection.
+     *
+     * @param stackless     Whether the stack trace should not be captured.
+     * @param errorCode     OAuth2 error code.
+     * @param messageFormat Message in the {@link String#format(String, Object...)} syntax.
+     * @param messageArgs   Arguments of the message.
+     * @return Rejection.
+     */
+    public static JWTValidationException create(boolean stackless, String errorCode, String messageFormat,
+                                                Object... messageArgs) {
+
+        if (stackless) {
+            return new Stackless(errorCode, messageFormat, messageArgs);
+        }
+        return new JWTValidationException(errorCode, messageFormat, messageArgs);
+    }
+
+    @Override
+    public String getMessage() {
+
+        String message = formattedMessage;
+        if (message == null) {
+            message = messageArgs == null || messageArgs.length == 0 ? messageFormat :
+                    String.format(messageFormat, messageArgs);
+            formattedMessage = message;
+        }
+        return message;
+    }
+
+    private void writeObject(ObjectOutputStream outputStream) throws IOException {
+
+        getMessage();
+        outputStream.defaultWriteObject();
+    }
+
+    /**
+     * Rejection which does not capture the stack trace.
+     */
+    private static class Stackless extends JWTValidationException {
+
+        private static final long serialVersionUID = 2904741935316617452L;
+
+        Stackless(String errorCode, String messageFormat, Object... messageArgs) {
+
+            super(errorCode, messageFormat, messageArgs);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+
+            return this;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator;
+
+/**
+ * Stages of the validation of a private key JWT assertion, in the order they are run. The stages are ordered by cost,
+ * so that the checks which only need the assertion itself reject the invalid assertions before any lookup is made.
+ */
+public enum JWTValidationStage {
+
+    /**
+     * Mandatory claims, and the issuer against the subject. Local to the assertion.
+     */
+    CLAIMS,
+
+    /**
+     * exp, nbf and the age of the assertion. Local to the assertion.
+     */
+    TIME,
+
+    /**
+     * Client of the assertion, its signing algorithm and the FAPI algorithm constraints. Cached lookup.
+     */
+    CLIENT,
+
+    /**
+     * Audience against the accepted audiences of the tenant. Cached lookup.
+     */
+    AUDIENCE,
+
+    /**
+     * Signature of the assertion.
+     */
+    SIGNATURE,
+
+    /**
+     * Replay of the JTI. May need the persistent storage.
+     */
+    JTI
+}
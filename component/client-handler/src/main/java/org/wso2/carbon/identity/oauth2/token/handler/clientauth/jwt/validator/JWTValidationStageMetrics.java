@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of the private key JWT assertions rejected at each validation stage, and of the JTI writes skipped for
+ * reusable assertions which are already recorded.
+ */
+public class JWTValidationStageMetrics {
+
+    private final AtomicLongArray rejections = new AtomicLongArray(JWTValidationStage.values().length);
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong suppressedJTIWrites = new AtomicLong();
+
+    /**
+     * Record an assertion rejected at the given stage.
+     *
+     * @param stage Validation stage which rejected the assertion.
+     */
+    public void recordRejection(JWTValidationStage stage) {
+
+        rejections.incrementAndGet(stage.ordinal());
+    }
+
+    /**
+     * Record an assertion which passed all the stages.
+     */
+    public void recordAcceptance() {
+
+        accepted.incrementAndGet();
+    }
+
+    /**
+     * Record a reusable assertion whose JTI write is skipped as the JTI is already recorded with the same expiry.
+     */
+    public void recordSuppressedJTIWrite() {
+
+        suppressedJTIWrites.incrementAndGet();
+    }
+
+    /**
+     * Get the number of assertions rejected at the given stage.
+     *
+     * @param stage Validation stage.
+     * @return Number of rejected assertions.
+     */
+    public long getRejectionCount(JWTValidationStage stage) {
+
+        return rejections.get(stage.ordinal());
+    }
+
+    /**
+     * Get the number of assertions rejected at each stage.
+     *
+     * @return Snapshot of the rejection counts, in stage order.
+     */
+    public Map<JWTValidationStage, Long> getRejectionCounts() {
+
+        Map<JWTValidationStage, Long> counts = new EnumMap<>(JWTValidationStage.class);
+        for (JWTValidationStage stage : JWTValidationStage.values()) {
+            counts.put(stage, rejections.get(stage.ordinal()));
+        }
+        return counts;
+    }
+
+    /**
+     * Get the number of assertions which passed all the stages.
+     *
+     * @return Number of accepted assertions.
+     */
+    public long getAcceptedCount() {
+
+        return accepted.get();
+    }
+
+    /**
+     * Get the number of JTI writes skipped since the JTI was already recorded with the same expiry.
+     *
+     * @return Number of suppressed writes.
+     */
+    public long getSuppressedJTIWriteCount() {
+
+        return suppressedJTIWrites.get();
+    }
+}
@@ -21,7 +21,6 @@ package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.lang.StringUtils;
@@ -46,33 +45,45 @@ import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JTIReplayFilter;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTAudienceCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTAudienceCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTAudienceCacheKey;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTCache;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTCacheEntry;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTUnknownClientCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTVerifiedAssertionCache;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.exception.JWTClientAuthenticatorServiceServerException;
-import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JWTEntry;
-import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JWTStorageManager;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.core.model.JWTClientAuthenticatorConfig;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceComponent;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JDBCJTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay.JTIReplayStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks.JWKSKeySet;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks.JWKSKeyStore;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.Util;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
-import org.wso2.carbon.identity.oauth2.validators.jwt.JWKSBasedJWTValidator;
 import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
 import org.wso2.carbon.idp.mgt.IdentityProviderManager;
 import org.wso2.carbon.user.api.UserStoreException;
 
+import java.io.IOException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
-import java.security.PublicKey;
 import java.security.cert.X509Certificate;
-import java.security.interfaces.RSAPublicKey;
 import java.text.ParseException;
-import java.util.Arrays;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OAuth20Endpoints.OAUTH2_TOKEN_EP_URL;
@@ -96,15 +107,22 @@ public class JWTValidator {
             "AllowedSignatureAlgorithms.AllowedSignatureAlgorithm";
     private static final String MTLS_ALIASES_ENABLED = "OAuth.MutualTLSAliases.Enabled";
     private static final String MTLS_ALIASES_HOSTNAME = "OAuth.MutualTLSAliases.Hostname";
-    private boolean preventTokenReuse;
-    private String validAudience;
-    private String validIssuer;
-    private int rejectBeforeInMinutes;
-    List<String> mandatoryClaims;
-    private JWTCache jwtCache;
-    private boolean enableJTICache;
-
-    private JWTStorageManager jwtStorageManager;
+    // The validator is shared by all the request threads, hence the per request state is kept in a
+    // JWTValidationContext and the fields of the validator must not be modified after construction.
+    private final boolean preventTokenReuse;
+    private final String validAudience;
+    private final String validIssuer;
+    private final int rejectBeforeInMinutes;
+    final List<String> mandatoryClaims;
+    private final JWTCache jwtCache;
+    private final boolean enableJTICache;
+    private final JTIReplayFilter jtiReplayFilter;
+    private final boolean verifiedAssertionCacheEnabled;
+    private final long unknownClientCacheTimeoutInMillis;
+
+    private final JTIReplayStore defaultReplayStore;
+    private final JWTValidationStageMetrics validationStageMetrics;
+    private final boolean stacklessRejections;
 
     public JWTValidator(boolean preventTokenReuse, String validAudience, int rejectBefore, String validIssuer,
                         List<String> mandatoryClaims, boolean enableJTICache) {
@@ -112,11 +130,18 @@ public class JWTValidator {
         this.preventTokenReuse = preventTokenReuse;
         this.validAudience = validAudience;
         this.validIssuer = validIssuer;
-        this.jwtStorageManager = new JWTStorageManager();
+        this.defaultReplayStore = new JDBCJTIReplayStore();
         this.mandatoryClaims = mandatoryClaims;
         this.rejectBeforeInMinutes = rejectBefore;
         this.enableJTICache = enableJTICache;
         this.jwtCache = JWTCache.getInstance();
+        this.jtiReplayFilter = JWTServiceDataHolder.getInstance().isJtiReplayFilterEnabled() ?
+                JWTServiceDataHolder.getInstance().getJtiReplayFilter() : null;
+        this.verifiedAssertionCacheEnabled = JWTServiceDataHolder.getInstance().isVerifiedAssertionCacheEnabled();
+        this.unknownClientCacheTimeoutInMillis = JWTServiceDataHolder.getInstance()
+                .getUnknownClientCacheTimeoutInMillis();
+        this.validationStageMetrics = JWTServiceDataHolder.getInstance().getValidationStageMetrics();
+        this.stacklessRejections = JWTServiceDataHolder.getInstance().isStacklessRejectionsEnabled();
     }
 
     /**
@@ -135,6 +160,7 @@ public class JWTValidator {
             errorMessage = "No valid JWT assertion found for " + Constants.OAUTH_JWT_BEARER_GRANT_TYPE;
             return logAndThrowException(errorMessage);
         }
+        JWTValidationStage stage = JWTValidationStage.CLAIMS;
         try {
             JWTClaimsSet claimsSet = getClaimSet(signedJWT);
 
@@ -143,98 +169,116 @@ public class JWTValidator {
                 throw new OAuthClientAuthnException(errorMessage, OAuth2ErrorCodes.INVALID_REQUEST);
             }
 
-            String jwtIssuer = claimsSet.getIssuer();
-            String jwtSubject = resolveSubject(claimsSet);
-            List<String> audience = claimsSet.getAudience();
-            Date expirationTime = claimsSet.getExpirationTime();
-            String jti = claimsSet.getJWTID();
-            Date nbf = claimsSet.getNotBeforeTime();
-            Date issuedAtTime = claimsSet.getIssueTime();
             long currentTimeInMillis = System.currentTimeMillis();
             long timeStampSkewMillis = OAuthServerConfiguration.getInstance().getTimeStampSkewInSeconds() * 1000;
-            OAuthAppDO oAuthAppDO = getOAuthAppDO(jwtSubject);
-            String consumerKey = oAuthAppDO.getOauthConsumerKey();
-            String tenantDomain = oAuthAppDO.getUser().getTenantDomain();
-            int tenantId = JWTServiceComponent.getRealmService().getTenantManager().getTenantId(tenantDomain);
-            if (!validateMandatoryFeilds(mandatoryClaims, claimsSet)) {
-                return false;
+            JWTValidationContext context = new JWTValidationContext(signedJWT, claimsSet, currentTimeInMillis,
+                    timeStampSkewMillis);
+            // The stages are run in the declared order, so that the cheap local checks run before any lookup.
+            for (JWTValidationStage current : JWTValidationStage.values()) {
+                stage = current;
+                if (!runStage(stage, context, requestUrl)) {
+                    validationStageMetrics.recordRejection(stage);
+                    return false;
+                }
             }
+            validationStageMetrics.recordAcceptance();
+            return true;
 
-            //Validate issuer and subject.
-            if (!validateIssuer(jwtIssuer, consumerKey) || !validateSubject(jwtSubject, consumerKey)) {
-                return false;
-            }
+        } catch (OAuthClientAuthnException e) {
+            // Already logged where the assertion was rejected.
+            validationStageMetrics.recordRejection(stage);
+            throw e;
+        } catch (IdentityOAuth2Exception e) {
+            validationStageMetrics.recordRejection(stage);
+            return logAndThrowException(e.getMessage(), e.getErrorCode());
+        } catch (UserStoreException | JWTClientAuthenticatorServiceServerException e) {
+            validationStageMetrics.recordRejection(stage);
+            return logAndThrowException(e.getMessage());
+        }
+    }
 
-            /* A list of valid audiences (issuer identifier, token endpoint URL or pushed authorization request
-            endpoint URL) should be supported for PAR and not just a single valid audience.
-            https://datatracker.ietf.org/doc/html/rfc9126 */
-            List<String> acceptedAudienceList = getValidAudiences(tenantDomain, requestUrl);
+    private boolean runStage(JWTValidationStage stage, JWTValidationContext context, String requestUrl)
+            throws IdentityOAuth2Exception, UserStoreException, JWTClientAuthenticatorServiceServerException {
+
+        switch (stage) {
+            case CLAIMS:
+                return validateClaims(context.getClaimsSet());
+            case TIME:
+                return validateTime(context);
+            case CLIENT:
+                return validateClient(context);
+            case AUDIENCE:
+                /* A list of valid audiences (issuer identifier, token endpoint URL or pushed authorization request
+                endpoint URL) should be supported for PAR and not just a single valid audience.
+                https://datatracker.ietf.org/doc/html/rfc9126 */
+                return validateAudience(getValidAudiences(context.getProfile().getTenantDomain(), requestUrl),
+                        context.getClaimsSet().getAudience());
+            case SIGNATURE:
+                return verifySignature(context);
+            case JTI:
+                return validateJTI(context);
+            default:
+                return true;
+        }
+    }
 
-            long expTime = 0;
-            long issuedTime = 0;
-            if (expirationTime != null) {
-                expTime = expirationTime.getTime();
-            }
-            if (issuedAtTime != null) {
-                issuedTime = issuedAtTime.getTime();
-            }
+    /**
+     * Validate the mandatory claims, and the issuer against the subject. The subject is validated against the client
+     * once the client is resolved.
+     */
+    boolean validateClaims(JWTClaimsSet claimsSet) throws OAuthClientAuthnException {
 
-            //   Obtain the signing algorithm used to sign the JWT in the request.
-            String requestSigningAlgorithm = signedJWT.getHeader().getAlgorithm().getName();
-            if (!isValidSignatureAlgorithm(requestSigningAlgorithm, consumerKey)) {
-                throw new OAuthClientAuthnException("Signature algorithm used in the request is invalid.",
-                        OAuth2ErrorCodes.INVALID_CLIENT);
-            }
+        if (!validateMandatoryFeilds(mandatoryClaims, claimsSet)) {
+            return false;
+        }
+        // "REQUIRED. iss. This MUST contain the client_id of the OAuth Client." which is also the subject.
+        return validateIssuer(claimsSet.getIssuer(), resolveSubject(claimsSet).trim());
+    }
 
-            /* Check whether the request signing algorithm is an allowed algorithm as per the FAPI specification.
-               https://openid.net/specs/openid-financial-api-part-2-1_0.html#algorithm-considerations */
-            try {
-                if (OAuth2Util.isFapiConformantApp(consumerKey)) {
-                    //   Mandating FAPI specified JWT signing algorithms.
-                    List<String> fapiAllowedSigningAlgorithms = IdentityUtil
-                            .getPropertyAsList(FAPI_SIGNATURE_ALG_CONFIGURATION);
-                    if (!fapiAllowedSigningAlgorithms.contains(requestSigningAlgorithm)) {
-                        throw new OAuthClientAuthnException("FAPI unsupported signing algorithm " + requestSigningAlgorithm
-                                + " is used to sign the JWT.", OAuth2ErrorCodes.INVALID_CLIENT);
-                    }
-                }
-            } catch (InvalidOAuthClientException e) {
-                throw new OAuthClientAuthnException("Could not find an existing app for clientId: " + consumerKey,
-                        OAuth2ErrorCodes.INVALID_CLIENT);
-            } catch (IdentityOAuth2Exception e) {
-                throw new OAuthClientAuthnException("Error while obtaining the service provider for client_id: " +
-                        consumerKey, OAuth2ErrorCodes.SERVER_ERROR);
-            }
+    //Validate nbf, exp time and the age of the token.
+    boolean validateTime(JWTValidationContext context) throws OAuthClientAuthnException {
 
-            if (oAuthAppDO.isTokenEndpointAllowReusePvtKeyJwt() != null) {
-                // Private ket JWT is selected as the token endpoint authentication method.
-                preventTokenReuse = !oAuthAppDO.isTokenEndpointAllowReusePvtKeyJwt();
-            } else {
-                // No client authentication method is selected. -> All methods are allowed.
-                preventTokenReuse = !JWTServiceDataHolder.getInstance()
-                        .getPrivateKeyJWTAuthenticationConfigurationDAO()
-                        .getPrivateKeyJWTClientAuthenticationConfigurationByTenantDomain(tenantDomain)
-                        .isEnableTokenReuse();
-            }
-
-            //Validate signature validation, audience, nbf,exp time, jti.
-            if (!validateAudience(acceptedAudienceList, audience)
-                    || !validateJWTWithExpTime(expirationTime, currentTimeInMillis, timeStampSkewMillis)
-                    || !validateNotBeforeClaim(currentTimeInMillis, timeStampSkewMillis, nbf)
-                    || !validateAgeOfTheToken(issuedAtTime, currentTimeInMillis, timeStampSkewMillis)
-                    || !isValidSignature(consumerKey, signedJWT, tenantDomain, jwtSubject, tenantId)
-                    || !validateJTI(signedJWT, jti, currentTimeInMillis, timeStampSkewMillis, expTime,
-                    issuedTime, tenantId)) {
-                return false;
-            }
+        JWTClaimsSet claimsSet = context.getClaimsSet();
+        long currentTimeInMillis = context.getCurrentTimeInMillis();
+        long timeStampSkewMillis = context.getTimeStampSkewMillis();
+        return validateJWTWithExpTime(claimsSet.getExpirationTime(), currentTimeInMillis, timeStampSkewMillis)
+                && validateNotBeforeClaim(currentTimeInMillis, timeStampSkewMillis, claimsSet.getNotBeforeTime())
+                && validateAgeOfTheToken(claimsSet.getIssueTime(), currentTimeInMillis, timeStampSkewMillis);
+    }
 
-            return true;
+    private boolean validateClient(JWTValidationContext context)
+            throws OAuthClientAuthnException, UserStoreException, JWTClientAuthenticatorServiceServerException {
 
-        } catch (IdentityOAuth2Exception e) {
-            return logAndThrowException(e.getMessage(), e.getErrorCode());
-        } catch (UserStoreException | JWTClientAuthenticatorServiceServerException e) {
-            return logAndThrowException(e.getMessage());
+        String jwtSubject = resolveSubject(context.getClaimsSet());
+        JWTClientAuthProfileCacheEntry profile = getClientAuthProfile(jwtSubject);
+        context.setProfile(profile);
+        if (!validateSubject(jwtSubject, profile.getConsumerKey())) {
+            return false;
+        }
+
+        //   Obtain the signing algorithm used to sign the JWT in the request.
+        String requestSigningAlgorithm = context.getSignedJWT().getHeader().getAlgorithm().getName();
+        if (!isValidSignatureAlgorithm(requestSigningAlgorithm, profile)) {
+            throw rejection(OAuth2ErrorCodes.INVALID_CLIENT, "Signature algorithm used in the request is invalid.");
+        }
+
+        /* Check whether the request signing algorithm is an allowed algorithm as per the FAPI specification.
+           https://openid.net/specs/openid-financial-api-part-2-1_0.html#algorithm-considerations */
+        if (profile.isFapiConformant()) {
+            //   Mandating FAPI specified JWT signing algorithms.
+            List<String> fapiAllowedSigningAlgorithms = IdentityUtil
+                    .getPropertyAsList(FAPI_SIGNATURE_ALG_CONFIGURATION);
+            if (!fapiAllowedSigningAlgorithms.contains(requestSigningAlgorithm)) {
+                throw rejection(OAuth2ErrorCodes.INVALID_CLIENT,
+                        "FAPI unsupported signing algorithm %s is used to sign the JWT.", requestSigningAlgorithm);
+            }
         }
+
+        context.setPreventTokenReuse(isPreventTokenReuse(profile));
+        // The key material is resolved on each use, as the key store certificate of the client may have changed.
+        context.setSignatureKey(getSignatureKey(profile.getConsumerKey(), profile.getTenantDomain(), jwtSubject,
+                profile.getTenantId()));
+        return true;
     }
 
     /**
@@ -249,12 +293,36 @@ public class JWTValidator {
         return isValidAssertion(signedJWT, null);
     }
 
+    /**
+     * Resolve whether the assertions of the client can be used only once.
+     *
+     * @param profile Authentication profile of the client.
+     * @return True if the reuse of the assertions should be prevented.
+     * @throws JWTClientAuthenticatorServiceServerException If the configuration of the tenant could not be read.
+     */
+    private boolean isPreventTokenReuse(JWTClientAuthProfileCacheEntry profile)
+            throws JWTClientAuthenticatorServiceServerException {
+
+        if (profile.getTokenReuseAllowed() != null) {
+            // Private ket JWT is selected as the token endpoint authentication method.
+            return !profile.getTokenReuseAllowed();
+        }
+        // No client authentication method is selected. -> All methods are allowed.
+        JWTClientAuthenticatorConfig tenantConfig = JWTServiceDataHolder.getInstance()
+                .getPrivateKeyJWTAuthenticationConfigurationDAO()
+                .getPrivateKeyJWTClientAuthenticationConfigurationByTenantDomain(profile.getTenantDomain());
+        if (tenantConfig == null) {
+            return preventTokenReuse;
+        }
+        return !tenantConfig.isEnableTokenReuse();
+    }
+
     private boolean validateMandatoryFeilds(List<String> mandatoryClaims, JWTClaimsSet claimsSet) throws OAuthClientAuthnException {
 
         for (String mandatoryClaim : mandatoryClaims) {
             if (claimsSet.getClaim(mandatoryClaim) == null) {
-                String errorMessage = "Mandatory field :" + mandatoryClaim + " is missing in the JWT assertion.";
-                return logAndThrowException(errorMessage);
+                throw rejection(OAuth2ErrorCodes.INVALID_REQUEST,
+                        "Mandatory field :%s is missing in the JWT assertion.", mandatoryClaim);
             }
         }
         return true;
@@ -263,14 +331,12 @@ public class JWTValidator {
     // "REQUIRED. sub. This MUST contain the client_id of the OAuth Client."
     public boolean validateSubject(String jwtSubject, String consumerKey) throws OAuthClientAuthnException {
 
-        String errorMessage = String.format("Invalid Subject '%s' is found in the JWT. It should be equal to the '%s'",
-                jwtSubject, consumerKey);
         if (!jwtSubject.trim().equals(consumerKey)) {
             if (log.isDebugEnabled()) {
-                log.debug(errorMessage);
+                log.debug(String.format("Invalid Subject '%s' is found in the JWT. It should be equal to the '%s'",
+                        jwtSubject, consumerKey));
             }
-            throw new OAuthClientAuthnException("Invalid Subject: " + jwtSubject + " is found in the JWT", OAuth2ErrorCodes.
-                    INVALID_REQUEST);
+            throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "Invalid Subject: %s is found in the JWT", jwtSubject);
         }
         return true;
     }
@@ -279,139 +345,255 @@ public class JWTValidator {
     // jwtValidator.
     private boolean validateIssuer(String issuer, String consumerKey) throws OAuthClientAuthnException {
 
-        String errorMessage = String.format("Invalid issuer '%s' is found in the JWT. It should be equal to the '%s'"
-                , issuer, consumerKey);
-        String error = String.format("Invalid issuer '%s' is found in the JWT. ", issuer);
         //check whether the issuer is client_id
-        if (isEmpty(validIssuer)) {
-            if (!issuer.trim().equals(consumerKey)) {
-                if (log.isDebugEnabled()) {
-                    log.debug(errorMessage);
-                }
-                throw new OAuthClientAuthnException(error, OAuth2ErrorCodes.INVALID_REQUEST);
-            }
-            return true;
-        } else if (!validIssuer.equals(issuer)) {
+        boolean isValidIssuer = isEmpty(validIssuer) ? issuer.trim().equals(consumerKey) : validIssuer.equals(issuer);
+        if (!isValidIssuer) {
             if (log.isDebugEnabled()) {
-                log.debug(errorMessage);
+                log.debug(String.format("Invalid issuer '%s' is found in the JWT. It should be equal to the '%s'",
+                        issuer, isEmpty(validIssuer) ? consumerKey : validIssuer));
             }
-            throw new OAuthClientAuthnException(error, OAuth2ErrorCodes.INVALID_REQUEST);
+            throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "Invalid issuer '%s' is found in the JWT. ", issuer);
         }
         return true;
     }
 
     // The valid audience value should either be the issuer identifier or the token endpoint URL or the pushed authorization
     // request endpoint URL
-    private boolean validateAudience(List<String> expectedAudiences, List<String> audience) throws OAuthClientAuthnException {
+    private boolean validateAudience(Set<String> expectedAudiences, List<String> audience) throws OAuthClientAuthnException {
 
+        boolean hasAlias = StringUtils.isNotEmpty(validAudience);
         for (String aud : audience) {
-            if (expectedAudiences.contains(aud)) {
+            if (expectedAudiences.contains(aud) || (hasAlias && validAudience.equals(aud))) {
                 return true;
             }
         }
         if (log.isDebugEnabled()) {
-            log.debug("None of the audience values : " + audience + " matched the expected audiences : " + expectedAudiences);
+            log.debug("None of the audience values : " + audience + " matched the expected audiences : " +
+                    expectedAudiences + (hasAlias ? " or the token endpoint alias : " + validAudience : ""));
         }
-        throw new OAuthClientAuthnException("Failed to match audience values.", OAuth2ErrorCodes.INVALID_REQUEST);
+        throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "Failed to match audience values.");
     }
 
     // "REQUIRED. JWT ID. A unique identifier for the token, which can be used to prevent reuse of the token. These tokens
     // MUST only be used once, unless conditions for reuse were negotiated between the parties; any such negotiation is
     // beyond the scope of this specification."
-    private boolean validateJTI(SignedJWT signedJWT, String jti, long currentTimeInMillis,
-                                long timeStampSkewMillis, long expTime, long issuedTime, int tenantId)
-            throws OAuthClientAuthnException {
-
+    private boolean validateJTI(JWTValidationContext context) throws OAuthClientAuthnException {
+
+        String jti = context.getJti();
+        int tenantId = context.getProfile().getTenantId();
+        long currentTimeInMillis = context.getCurrentTimeInMillis();
+        long timeStampSkewMillis = context.getTimeStampSkewMillis();
+        long expTime = context.getExpiryTime();
+        long issuedTime = context.getIssuedTime();
+        JWTCacheKey jwtCacheKey = null;
+        boolean recordedInCache = false;
         if (enableJTICache) {
-            JWTCacheKey jwtCacheKey;
             if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
                 jwtCacheKey = new JWTCacheKey(jti, tenantId);
             } else {
                 jwtCacheKey = new JWTCacheKey(jti);
             }
             JWTCacheEntry entry = jwtCache.getValueFromCache(jwtCacheKey);
-            if (!validateJTIInCache(jti, signedJWT, entry, currentTimeInMillis, timeStampSkewMillis, this.jwtCache,
-                    tenantId)) {
+            recordedInCache = entry != null && entry.getExpiryTime() == expTime && entry.getIssuedTime() == issuedTime;
+            if (!validateJTIInCache(jti, context, entry, this.jwtCache, tenantId)) {
                 return false;
             }
         }
-        // Check JWT ID in DB
-        if (!validateJWTInDataBase(jti, currentTimeInMillis, timeStampSkewMillis, tenantId)) {
-            return false;
-        }
-        persistJWTID(jti, expTime, issuedTime, tenantId);
-        return true;
-    }
-
-    private boolean validateJWTInDataBase(String jti, long currentTimeInMillis,
-                                          long timeStampSkewMillis, int tenantId) throws OAuthClientAuthnException {
-
-        JWTEntry jwtEntry = getJTIfromDB(jti, tenantId);
-        if (jwtEntry == null) {
+        JTIReplayFilter.Verdict verdict = checkJTIInReplayFilter(jti, currentTimeInMillis, tenantId);
+        JTIReplayStore replayStore = getJTIReplayStore();
+        if (context.isPreventTokenReuse()) {
+            if (verdict == JTIReplayFilter.Verdict.SEEN) {
+                throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "JWT Token with JTI: %s has been replayed.", jti);
+            }
+            if (!replayStore.claim(jti, tenantId, expTime, issuedTime)) {
+                throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "JWT Token with JTI: %s has been replayed.", jti);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("JWT id: " + jti + " not found in the Storage the JWT has been validated successfully.");
             }
-            return true;
-        } else if (preventTokenReuse) {
-            String message = "JWT Token with JTI: " + jti + " has been replayed.";
-            return logAndThrowException(message);
-        }
-        // Token reuse is allowed. Here we are logging whether the token is reused within the allowed expiry time.
-        if (currentTimeInMillis + timeStampSkewMillis < jwtEntry.getExp()) {
+        } else if (recordedInCache || isRecordedInReplayFilter(jti, expTime, currentTimeInMillis,
+                timeStampSkewMillis, tenantId)) {
+            // The same assertion is already recorded. Rewriting the row would only add lock contention and redo.
+            validationStageMetrics.recordSuppressedJTIWrite();
             if (log.isDebugEnabled()) {
-                log.debug("JWT Token with jti: " + jti + "has been reused with in the allowed expiry time: " +
-                        jwtEntry.getExp());
+                log.debug("JWT id: " + jti + " is already recorded with the same expiry time. Skipping the write.");
+            }
+        } else {
+            try {
+                replayStore.record(jti, tenantId, expTime, issuedTime);
+            } catch (OAuthClientAuthnException e) {
+                if (jwtCacheKey != null) {
+                    // The cache entry must not suppress the write of the next presentation.
+                    jwtCache.clearCacheEntry(jwtCacheKey);
+                }
+                throw e;
             }
         }
+        recordJTIInReplayFilter(jti, expTime, currentTimeInMillis, timeStampSkewMillis, tenantId);
         return true;
     }
 
-    /**
-     * This method is to get JTI from the DB.
-     * For the migration purposes (preserve existing behaviour),
-     * We are searching for the current tenant and default tenant.
-     *
-     * @param jti      JTI.
-     * @param tenantId Tenant id.
-     * @return JWT entry if exists.
-     * @throws OAuthClientAuthnException OAuthClientAuthnException.
-     */
-    private JWTEntry getJTIfromDB(String jti, final int tenantId) throws OAuthClientAuthnException {
+    private boolean isRecordedInReplayFilter(String jti, long expTime, long currentTimeInMillis,
+                                             long timeStampSkewMillis, int tenantId) {
 
-        List<JWTEntry> jwtEntries = jwtStorageManager.getJwtsFromDB(jti, tenantId);
+        return jtiReplayFilter != null && jtiReplayFilter.isRecorded(jti, getReplayFilterTenantId(tenantId),
+                expTime + timeStampSkewMillis, currentTimeInMillis);
+    }
 
-        if (jwtEntries.isEmpty()) {
-            return null;
+    private JTIReplayFilter.Verdict checkJTIInReplayFilter(String jti, long currentTimeInMillis, int tenantId) {
+
+        if (jtiReplayFilter == null) {
+            return JTIReplayFilter.Verdict.UNKNOWN;
         }
-        // If there is only one entry return it.
-        if (jwtEntries.size() == 1) {
-            return jwtEntries.get(0);
+        JTIReplayFilter.Verdict verdict = jtiReplayFilter.check(jti, getReplayFilterTenantId(tenantId),
+                currentTimeInMillis);
+        if (log.isDebugEnabled()) {
+            log.debug("JTI replay filter verdict for jti: " + jti + " of tenant id: " + tenantId + " is " + verdict);
         }
-        return jwtEntries.stream().filter(e -> e.getTenantId() == tenantId).findFirst().orElse(null);
+        return verdict;
     }
 
-    private void persistJWTID(final String jti, long expiryTime, long issuedTime, int tenantId)
-            throws OAuthClientAuthnException {
+    private void recordJTIInReplayFilter(String jti, long expTime, long currentTimeInMillis,
+                                         long timeStampSkewMillis, int tenantId) {
+
+        if (jtiReplayFilter != null) {
+            jtiReplayFilter.record(jti, getReplayFilterTenantId(tenantId), expTime + timeStampSkewMillis,
+                    currentTimeInMillis);
+        }
+    }
 
-        jwtStorageManager.persistJWTIdInDB(jti, tenantId, expiryTime, issuedTime, this.preventTokenReuse);
+    private int getReplayFilterTenantId(int tenantId) {
+
+        // JTIs are unique across tenants when the tenant id column is not available.
+        return Util.isTenantIdColumnAvailableInIdnOidcAuth() ? tenantId : Constants.DEFAULT_TENANT_ID;
     }
 
-    private OAuthAppDO getOAuthAppDO(String jwtSubject) throws OAuthClientAuthnException {
+    /**
+     * Get the configured JTI replay store. The JDBC store is used until the configured store is registered.
+     *
+     * @return JTI replay store.
+     */
+    private JTIReplayStore getJTIReplayStore() {
+
+        JTIReplayStore replayStore = JWTServiceDataHolder.getInstance().getJtiReplayStore();
+        return replayStore != null ? replayStore : defaultReplayStore;
+    }
+
+    /**
+     * Get the OAuth application of the subject. Subjects which did not resolve to an application are remembered for a
+     * short time, so that assertions with bogus subjects do not reach the database.
+     *
+     * @param jwtSubject          Subject of the assertion.
+     * @param requestTenantDomain Tenant domain in which the application is resolved.
+     * @return OAuth application of the subject.
+     * @throws OAuthClientAuthnException If the subject does not resolve to an application.
+     */
+    private OAuthAppDO getOAuthAppDO(String jwtSubject, String requestTenantDomain) throws OAuthClientAuthnException {
 
         OAuthAppDO oAuthAppDO = null;
         String message = String.format("Error while retrieving OAuth application with provided JWT information with " +
                 "subject '%s' ", jwtSubject);
+        long currentTimeInMillis = System.currentTimeMillis();
+        if (unknownClientCacheTimeoutInMillis > 0 && JWTUnknownClientCache.getInstance()
+                .isUnknown(jwtSubject, requestTenantDomain, currentTimeInMillis)) {
+            logAndThrowException(message);
+        }
         try {
             oAuthAppDO = OAuth2Util.getAppInformationByClientId(jwtSubject);
-            if (oAuthAppDO == null) {
-                logAndThrowException(message);
-            }
-        } catch (InvalidOAuthClientException | IdentityOAuth2Exception e) {
+        } catch (InvalidOAuthClientException e) {
+            // Only a definite miss is remembered. Server errors may be transient.
+            rememberUnknownClient(jwtSubject, requestTenantDomain, currentTimeInMillis);
+            logAndThrowException(message);
+        } catch (IdentityOAuth2Exception e) {
+            logAndThrowException(message);
+        }
+        if (oAuthAppDO == null) {
+            rememberUnknownClient(jwtSubject, requestTenantDomain, currentTimeInMillis);
             logAndThrowException(message);
         }
         return oAuthAppDO;
     }
 
+    private void rememberUnknownClient(String jwtSubject, String requestTenantDomain, long currentTimeInMillis) {
+
+        if (unknownClientCacheTimeoutInMillis > 0) {
+            JWTUnknownClientCache.getInstance().addUnknown(jwtSubject, requestTenantDomain,
+                    currentTimeInMillis + unknownClientCacheTimeoutInMillis);
+        }
+    }
+
+    /**
+     * Get the compiled authentication profile of the client. The profile is compiled once per client and cached until
+     * the application is updated or deleted.
+     *
+     * @param jwtSubject Subject of the assertion, i.e. the client id.
+     * @return Authentication profile of the client.
+     * @throws OAuthClientAuthnException If the client does not exist or its profile could not be compiled.
+     * @throws UserStoreException        If the tenant id of the client could not be resolved.
+     */
+    private JWTClientAuthProfileCacheEntry getClientAuthProfile(String jwtSubject)
+            throws OAuthClientAuthnException, UserStoreException {
+
+        // The application is resolved in the tenant of the request, hence the profile is cached against it.
+        String requestTenantDomain = IdentityTenantUtil.resolveTenantDomain();
+        JWTClientAuthProfileCacheKey cacheKey = new JWTClientAuthProfileCacheKey(jwtSubject, requestTenantDomain);
+        JWTClientAuthProfileCacheEntry profile = JWTClientAuthProfileCache.getInstance().getValueFromCache(cacheKey,
+                requestTenantDomain);
+        if (profile != null) {
+            return profile;
+        }
+        profile = compileClientAuthProfile(jwtSubject, requestTenantDomain);
+        JWTClientAuthProfileCache.getInstance().addToCache(cacheKey, profile, requestTenantDomain);
+        return profile;
+    }
+
+    private JWTClientAuthProfileCacheEntry compileClientAuthProfile(String jwtSubject, String requestTenantDomain)
+            throws OAuthClientAuthnException, UserStoreException {
+
+        OAuthAppDO oAuthAppDO = getOAuthAppDO(jwtSubject, requestTenantDomain);
+        String consumerKey = oAuthAppDO.getOauthConsumerKey();
+        String tenantDomain = oAuthAppDO.getUser().getTenantDomain();
+        int tenantId = JWTServiceComponent.getRealmService().getTenantManager().getTenantId(tenantDomain);
+        boolean fapiConformant;
+        try {
+            fapiConformant = OAuth2Util.isFapiConformantApp(consumerKey);
+        } catch (InvalidOAuthClientException e) {
+            throw new OAuthClientAuthnException("Could not find an existing app for clientId: " + consumerKey,
+                    OAuth2ErrorCodes.INVALID_CLIENT);
+        } catch (IdentityOAuth2Exception e) {
+            throw new OAuthClientAuthnException("Error while obtaining the service provider for client_id: " +
+                    consumerKey, OAuth2ErrorCodes.SERVER_ERROR);
+        }
+        Set<String> allowedSigningAlgorithms = new HashSet<>();
+        if (StringUtils.isNotBlank(oAuthAppDO.getTokenEndpointAuthSignatureAlgorithm())) {
+            allowedSigningAlgorithms.add(oAuthAppDO.getTokenEndpointAuthSignatureAlgorithm());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Compiled the authentication profile of the client: " + consumerKey + " of tenant: " +
+                    tenantDomain);
+        }
+        return new JWTClientAuthProfileCacheEntry(consumerKey, tenantDomain, tenantId, fapiConformant,
+                allowedSigningAlgorithms, oAuthAppDO.isTokenEndpointAllowReusePvtKeyJwt());
+    }
+
+    /**
+     * Create the exception for a rejected assertion. The message is only formatted if it is logged or read.
+     *
+     * @param errorCode     OAuth2 error code.
+     * @param messageFormat Message in the {@link String#format(String, Object...)} syntax.
+     * @param messageArgs   Arguments of the message.
+     * @return Exception to be thrown.
+     */
+    private OAuthClientAuthnException rejection(String errorCode, String messageFormat, Object... messageArgs) {
+
+        OAuthClientAuthnException exception = JWTValidationException.create(stacklessRejections, errorCode,
+                messageFormat, messageArgs);
+        if (log.isDebugEnabled()) {
+            log.debug(exception.getMessage());
+        }
+        return exception;
+    }
+
     private boolean logAndThrowException(String detailedMessage) throws OAuthClientAuthnException {
 
         return logAndThrowException(detailedMessage, OAuth2ErrorCodes.INVALID_REQUEST);
@@ -430,11 +612,7 @@ public class JWTValidator {
 
         long expirationTime = expTime.getTime();
         if (currentTimeInMillis + timeStampSkewMillis > expirationTime) {
-            String errorMessage = "JWT Token is expired. Expired Time: " + expTime;
-            if (log.isDebugEnabled()) {
-                log.debug(errorMessage);
-            }
-            throw new OAuthClientAuthnException(errorMessage, OAuth2ErrorCodes.INVALID_REQUEST);
+            throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "JWT Token is expired. Expired Time: %s", expTime);
         } else {
             return true;
         }
@@ -448,22 +626,174 @@ public class JWTValidator {
         if (nbf != null) {
 
             if (currentTimeInMillis + timeStampSkewMillis - nbf.getTime() <= 0) {
-                String message = "The token is used before the nbf claim value.";
-                if (log.isDebugEnabled()) {
-                    log.debug(message);
-                }
-                throw new OAuthClientAuthnException(message, OAuth2ErrorCodes.INVALID_REQUEST);
+                throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "The token is used before the nbf claim value.");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validate the signature of the assertion. A successful verification of a reusable assertion is remembered until
+     * the assertion expires, so that the repeated presentations of the same assertion skip the public key operation.
+     */
+    private boolean verifySignature(JWTValidationContext context) throws OAuthClientAuthnException {
+
+        SignedJWT signedJWT = context.getSignedJWT();
+        JWTClientAuthProfileCacheEntry profile = context.getProfile();
+        JWTSignatureKeyCacheEntry signatureKey = context.getSignatureKey();
+        if (!verifiedAssertionCacheEnabled || context.isPreventTokenReuse() || signatureKey == null ||
+                signedJWT.getParsedString() == null) {
+            return isValidSignature(signedJWT, signatureKey);
+        }
+        JWTVerifiedAssertionCache verifiedAssertionCache = JWTVerifiedAssertionCache.getInstance();
+        byte[] digest = JWTVerifiedAssertionCache.digest(signedJWT.getParsedString());
+        Object keyMaterial = getKeyMaterial(signatureKey);
+        if (keyMaterial != null && verifiedAssertionCache.isVerified(digest, profile.getConsumerKey(),
+                profile.getTenantDomain(), keyMaterial, context.getCurrentTimeInMillis())) {
+            if (log.isDebugEnabled()) {
+                log.debug("Signature of the reusable assertion of client: " + profile.getConsumerKey() +
+                        " is already verified.");
             }
+            return true;
+        }
+        if (!isValidSignature(signedJWT, signatureKey)) {
+            return false;
+        }
+        // Read again, as the verification may have refreshed the JWKS of the client.
+        keyMaterial = getKeyMaterial(signatureKey);
+        if (keyMaterial != null) {
+            verifiedAssertionCache.put(digest, profile.getConsumerKey(), profile.getTenantDomain(), keyMaterial,
+                    context.getExpiryTime() - context.getTimeStampSkewMillis());
         }
         return true;
     }
 
-    private boolean isValidSignature(String clientId, SignedJWT signedJWT, String tenantDomain,
-                                     String alias, int tenantId) throws OAuthClientAuthnException {
+    /**
+     * Get the current key material of the client. A new instance is returned once the key material is replaced,
+     * i.e. the key material of the client is reloaded or the JWKS of the client is fetched again.
+     *
+     * @param signatureKey Key material entry of the client.
+     * @return Current key material, or null if it could not be resolved.
+     */
+    private Object getKeyMaterial(JWTSignatureKeyCacheEntry signatureKey) {
+
+        if (signatureKey.getKeySource() != JWTSignatureKeyCacheEntry.KeySource.JWKS_URI) {
+            return signatureKey;
+        }
+        try {
+            return JWTServiceDataHolder.getInstance().getJwksKeyStore().getKeySet(signatureKey.getJwksUri());
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while reading the JWKS of: " + signatureKey.getJwksUri(), e);
+            }
+            return null;
+        }
+    }
+
+    private boolean isValidSignature(SignedJWT signedJWT, JWTSignatureKeyCacheEntry signatureKey)
+            throws OAuthClientAuthnException {
+
+        if (signatureKey == null) {
+            return false;
+        }
+        if (signatureKey.getKeySource() == JWTSignatureKeyCacheEntry.KeySource.JWKS_URI) {
+            return validateSignatureWithJWKS(signedJWT, signatureKey.getJwksUri());
+        }
+        try {
+            return validateSignature(signedJWT, signatureKey);
+        } catch (JOSEException e) {
+            String message = "Error while validating the signature";
+            throw new OAuthClientAuthnException(message, OAuth2ErrorCodes.INVALID_REQUEST, e);
+        }
+    }
+
+    /**
+     * Validate the signature of the assertion with the keys of the JWKS of the client. The key is looked up by the
+     * kid of the assertion, or every signature verification key of the JWKS is tried when the assertion has no kid.
+     *
+     * @param signedJWT Assertion.
+     * @param jwksUri   JWKS URI of the client.
+     * @return True if a key of the JWKS verifies the signature.
+     * @throws OAuthClientAuthnException If the signature could not be verified.
+     */
+    private boolean validateSignatureWithJWKS(SignedJWT signedJWT, String jwksUri) throws OAuthClientAuthnException {
+
+        JWSHeader header = signedJWT.getHeader();
+        JWKSKeyStore jwksKeyStore = JWTServiceDataHolder.getInstance().getJwksKeyStore();
+        try {
+            List<JWKSKeySet.JWKSKey> candidates;
+            if (header.getKeyID() != null) {
+                JWKSKeySet.JWKSKey key = jwksKeyStore.getKey(jwksUri, header.getKeyID());
+                candidates = key == null ? Collections.<JWKSKeySet.JWKSKey>emptyList() :
+                        Collections.singletonList(key);
+            } else {
+                candidates = jwksKeyStore.getKeySet(jwksUri).getKeys();
+            }
+            for (JWKSKeySet.JWKSKey key : candidates) {
+                JWSVerifier verifier = key.getVerifier();
+                if (verifier.supportedJWSAlgorithms().contains(header.getAlgorithm()) && signedJWT.verify(verifier)) {
+                    return true;
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("None of the keys of the jwks end point " + jwksUri + " verified the assertion with kid: " +
+                        header.getKeyID());
+            }
+            return false;
+        } catch (IOException e) {
+            String errorMessage = "Error occurred while validating signature using jwks ";
+            log.error(errorMessage, e);
+            return false;
+        } catch (JOSEException e) {
+            String message = "Error while validating the signature";
+            throw new OAuthClientAuthnException(message, OAuth2ErrorCodes.INVALID_REQUEST, e);
+        }
+    }
+
+    /**
+     * Get the key material used to verify the assertions of the client. The resolved key material is cached per
+     * client, and invalidated when the application or the OAuth application of the client is updated. Key store
+     * certificates are checked against the key store on each use.
+     *
+     * @param clientId     Client id.
+     * @param tenantDomain Tenant domain of the client.
+     * @param alias        Key store alias used when no key material is configured for the client.
+     * @param tenantId     Tenant id of the client.
+     * @return Key material of the client, or null if the service provider could not be read.
+     * @throws OAuthClientAuthnException If the key store could not be loaded.
+     */
+    private JWTSignatureKeyCacheEntry getSignatureKey(String clientId, String tenantDomain, String alias,
+                                                      int tenantId) throws OAuthClientAuthnException {
+
+        JWTSignatureKeyCacheKey cacheKey = new JWTSignatureKeyCacheKey(clientId, tenantDomain);
+        JWTSignatureKeyCacheEntry signatureKey = JWTSignatureKeyCache.getInstance().getValueFromCache(cacheKey,
+                tenantDomain);
+        if (signatureKey != null) {
+            if (signatureKey.getKeySource() != JWTSignatureKeyCacheEntry.KeySource.KEYSTORE_ALIAS) {
+                return signatureKey;
+            }
+            // The key store may have been updated since the certificate was cached. The key store manager reloads
+            // updated key stores, hence the certificate is looked up again and the entry is kept only if unchanged.
+            if (signatureKey.getCertificate().equals(getCertificate(tenantDomain, alias, tenantId))) {
+                return signatureKey;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Key store certificate of the alias: " + alias + " of tenant: " + tenantDomain +
+                        " has changed. Clearing the cached key material of the client: " + clientId);
+            }
+            JWTSignatureKeyCache.getInstance().clearCacheEntry(cacheKey, tenantDomain);
+        }
+        signatureKey = resolveSignatureKey(clientId, tenantDomain, alias, tenantId);
+        if (signatureKey != null) {
+            JWTSignatureKeyCache.getInstance().addToCache(cacheKey, signatureKey, tenantDomain);
+        }
+        return signatureKey;
+    }
+
+    private JWTSignatureKeyCacheEntry resolveSignatureKey(String clientId, String tenantDomain, String alias,
+                                                          int tenantId) throws OAuthClientAuthnException {
 
         X509Certificate cert = null;
-        String jwksUri = "";
-        boolean isValidSignature = false;
         try {
             cert = (X509Certificate) OAuth2Util.getX509CertOfOAuthApp(clientId, tenantDomain);
         } catch (IdentityOAuth2Exception e) {
@@ -472,52 +802,67 @@ public class JWTValidator {
                 log.debug(message, e);
             }
         }
+        if (cert != null) {
+            return JWTSignatureKeyCacheEntry.forCertificate(JWTSignatureKeyCacheEntry.KeySource.CERTIFICATE, cert);
+        }
         // If cert is null check whether a jwks endpoint is configured for the service provider.
-        if (cert == null) {
-            try {
-                ServiceProviderProperty[] spProperties = OAuth2Util.getServiceProvider(clientId).getSpProperties();
-                for (ServiceProviderProperty spProperty : spProperties) {
-                    if (Constants.JWKS_URI.equals(spProperty.getName())) {
-                        jwksUri = spProperty.getValue();
-                        break;
-                    }
-                }
-                // Validate the signature of the assertion using the jwks end point.
-                if (StringUtils.isNotBlank(jwksUri)) {
-                    if (log.isDebugEnabled()) {
-                        String message = "Found jwks end point for service provider " + jwksUri;
-                        log.debug(message);
-                    }
-                    String jwtString = signedJWT.getParsedString();
-                    String alg = signedJWT.getHeader().getAlgorithm().getName();
-                    Map<String, Object> options = new HashMap<String, Object>();
-                    isValidSignature = new JWKSBasedJWTValidator().validateSignature(jwtString, jwksUri, alg, options);
+        String jwksUri = "";
+        try {
+            ServiceProviderProperty[] spProperties = OAuth2Util.getServiceProvider(clientId).getSpProperties();
+            for (ServiceProviderProperty spProperty : spProperties) {
+                if (Constants.JWKS_URI.equals(spProperty.getName())) {
+                    jwksUri = spProperty.getValue();
+                    break;
                 }
-            } catch (IdentityOAuth2Exception e) {
-                String errorMessage = "Error occurred while validating signature using jwks ";
-                log.error(errorMessage, e);
-                return false;
             }
+        } catch (IdentityOAuth2Exception e) {
+            String errorMessage = "Error occurred while validating signature using jwks ";
+            log.error(errorMessage, e);
+            return null;
+        }
+        if (StringUtils.isNotBlank(jwksUri)) {
+            if (log.isDebugEnabled()) {
+                String message = "Found jwks end point for service provider " + jwksUri;
+                log.debug(message);
+            }
+            return JWTSignatureKeyCacheEntry.forJwksUri(jwksUri);
         }
         // If certificate is not configured in service provider, it will throw an error.
         // For the existing clients need to handle that error and get from truststore.
-        if (StringUtils.isBlank(jwksUri) && cert == null) {
-            cert = getCertificate(tenantDomain, alias, tenantId);
+        cert = getCertificate(tenantDomain, alias, tenantId);
+        if (cert == null) {
+            return null;
         }
-        if (StringUtils.isBlank(jwksUri) && cert != null) {
-            try {
-                isValidSignature = validateSignature(signedJWT, cert);
-            } catch (JOSEException e) {
-                String message = "Error while validating the signature";
-                throw new OAuthClientAuthnException(message, OAuth2ErrorCodes.INVALID_REQUEST, e);
-            }
+        return JWTSignatureKeyCacheEntry.forCertificate(JWTSignatureKeyCacheEntry.KeySource.KEYSTORE_ALIAS, cert);
+    }
+
+    /**
+     * Get the audiences accepted for the assertions of the tenant, excluding the configured token endpoint alias.
+     * The audiences are computed once per tenant and cached until the resident IdP of the tenant is updated.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param requestUrl   Request URL, used to identify the requests received through the mTLS alias hostname.
+     * @return Immutable set of the accepted audiences.
+     * @throws OAuthClientAuthnException If the resident IdP could not be loaded.
+     */
+    private Set<String> getValidAudiences(String tenantDomain, String requestUrl) throws OAuthClientAuthnException {
+
+        /* If the request is from the mTLS gateway, then the token and PAR endpoints should be set to the mTLS
+        endpoints.*/
+        boolean isMtlsAlias = requestUrl != null && Boolean.parseBoolean(IdentityUtil.getProperty(MTLS_ALIASES_ENABLED))
+                && requestUrl.contains(IdentityUtil.getProperty(MTLS_ALIASES_HOSTNAME));
+        JWTAudienceCacheKey cacheKey = new JWTAudienceCacheKey(tenantDomain, isMtlsAlias);
+        JWTAudienceCacheEntry cacheEntry = JWTAudienceCache.getInstance().getValueFromCache(cacheKey, tenantDomain);
+        if (cacheEntry == null) {
+            cacheEntry = new JWTAudienceCacheEntry(buildValidAudiences(tenantDomain, isMtlsAlias));
+            JWTAudienceCache.getInstance().addToCache(cacheKey, cacheEntry, tenantDomain);
         }
-        return isValidSignature;
+        return cacheEntry.getAudiences();
     }
 
-    private List<String> getValidAudiences(String tenantDomain, String requestUrl) throws OAuthClientAuthnException {
+    private Set<String> buildValidAudiences(String tenantDomain, boolean isMtlsAlias) throws OAuthClientAuthnException {
 
-        List<String> validAudiences = new ArrayList<>();
+        Set<String> validAudiences = new HashSet<>();
         String tokenEndpoint = null;
         String parEndpoint = null;
         IdentityProvider residentIdP;
@@ -546,10 +891,7 @@ public class JWTValidator {
             throw new OAuthClientAuthnException(message, OAuth2ErrorCodes.INVALID_REQUEST);
         }
 
-        /* If the request is from the mTLS gateway, then the token and PAR endpoints should be set to the mTLS
-        endpoints.*/
-        if (requestUrl != null && Boolean.parseBoolean(IdentityUtil.getProperty(MTLS_ALIASES_ENABLED)) &&
-                requestUrl.contains(IdentityUtil.getProperty(MTLS_ALIASES_HOSTNAME))) {
+        if (isMtlsAlias) {
             String mtlsHostname = IdentityUtil.getProperty(MTLS_ALIASES_HOSTNAME);
             try {
                 tokenEndpoint = ServiceURLBuilder.create().addPath(OAUTH2_TOKEN_EP_URL).build(mtlsHostname)
@@ -570,9 +912,6 @@ public class JWTValidator {
             parEndpoint = IdentityUtil.getProperty(Constants.OAUTH2_PAR_URL_CONFIG);
         }
 
-        if (StringUtils.isNotEmpty(validAudience)) {
-            validAudiences.add(validAudience);
-        }
         validAudiences.add(tokenEndpoint);
         validAudiences.add(parEndpoint);
         return validAudiences;
@@ -659,12 +998,12 @@ public class JWTValidator {
         return ksName + KEYSTORE_FILE_EXTENSION;
     }
 
-    private boolean validateSignature(SignedJWT signedJWT, X509Certificate x509Certificate)
+    private boolean validateSignature(SignedJWT signedJWT, JWTSignatureKeyCacheEntry signatureKey)
             throws JOSEException, OAuthClientAuthnException {
 
         JWSVerifier verifier;
         JWSHeader header = signedJWT.getHeader();
-        if (x509Certificate == null) {
+        if (signatureKey.getCertificate() == null) {
             throw new OAuthClientAuthnException("Unable to locate certificate for JWT " + header.toString(),
                     OAuth2ErrorCodes.INVALID_REQUEST);
         }
@@ -678,11 +1017,9 @@ public class JWTValidator {
                 log.debug("Signature Algorithm found in the JWT Header: " + alg);
             }
             if (alg.indexOf(RS) == 0 || alg.indexOf(PS) == 0) {
-                // At this point 'x509Certificate' will never be null.
-                PublicKey publicKey = x509Certificate.getPublicKey();
-                if (publicKey instanceof RSAPublicKey) {
-                    verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
-                } else {
+                // The verifier is built once per certificate and reused across the assertions of the client.
+                verifier = signatureKey.getVerifier();
+                if (verifier == null) {
                     throw new OAuthClientAuthnException("Signature validation failed. Public key is not an RSA public key.",
                             OAuth2ErrorCodes.INVALID_REQUEST);
                 }
@@ -706,12 +1043,11 @@ public class JWTValidator {
             long rejectBeforeMillis = 1000L * 60 * rejectBeforeInMinutes;
             if (currentTimeInMillis + timeStampSkewMillis - issuedAtTimeMillis >
                     rejectBeforeMillis) {
-                String logMsg = getTokenTooOldMessage(currentTimeInMillis, timeStampSkewMillis, issuedAtTimeMillis,
-                        rejectBeforeMillis);
                 if (log.isDebugEnabled()) {
-                    log.debug(logMsg);
+                    log.debug(getTokenTooOldMessage(currentTimeInMillis, timeStampSkewMillis, issuedAtTimeMillis,
+                            rejectBeforeMillis));
                 }
-                throw new OAuthClientAuthnException("The jwt is too old to use.", OAuth2ErrorCodes.INVALID_REQUEST);
+                throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "The jwt is too old to use.");
             }
         }
         return true;
@@ -734,48 +1070,34 @@ public class JWTValidator {
         return tmp.toString();
     }
 
-    private boolean validateJTIInCache(String jti, SignedJWT signedJWT, JWTCacheEntry entry, long currentTimeInMillis,
-                                       long timeStampSkewMillis, JWTCache jwtCache, int tenantId)
-            throws OAuthClientAuthnException {
+    private boolean validateJTIInCache(String jti, JWTValidationContext context, JWTCacheEntry entry,
+                                       JWTCache jwtCache, int tenantId) throws OAuthClientAuthnException {
 
-        if (entry == null) {
-            // Update the cache with the new JWT for the same JTI.
-            JWTCacheKey jwtCacheKey;
-            if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
-                jwtCacheKey = new JWTCacheKey(jti, tenantId);
-            } else {
-                jwtCacheKey = new JWTCacheKey(jti);
+        long expiryTime = context.getExpiryTime();
+        if (entry != null) {
+            if (context.isPreventTokenReuse()) {
+                throw rejection(OAuth2ErrorCodes.INVALID_REQUEST, "JWT Token with jti: %s has been replayed", jti);
             }
-            jwtCache.addToCache(jwtCacheKey, new JWTCacheEntry(signedJWT));
-        } else if (preventTokenReuse) {
-            throw new OAuthClientAuthnException("JWT Token with jti: " + jti + " has been replayed",
-                    OAuth2ErrorCodes.INVALID_REQUEST);
-        } else {
-            try {
-                SignedJWT cachedJWT = entry.getJwt();
-                long cachedJWTExpiryTimeMillis = cachedJWT.getJWTClaimsSet().getExpirationTime().getTime();
-                // Token reuse is allowed. Here we are logging whether the token is reused within the allowed expiry time.
-                if (currentTimeInMillis + timeStampSkewMillis < cachedJWTExpiryTimeMillis) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("JWT Token with jti: " + jti + "has been reused with in the allowed expiry time: " +
-                                cachedJWTExpiryTimeMillis);
-                    }
-                }
-                // Update the cache with the new JWT for the same JTI.
-                JWTCacheKey jwtCacheKey;
-                if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
-                    jwtCacheKey = new JWTCacheKey(jti, tenantId);
-                } else {
-                    jwtCacheKey = new JWTCacheKey(jti);
-                }
-                jwtCache.addToCache(jwtCacheKey, new JWTCacheEntry(signedJWT));
-            } catch (ParseException e) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Unable to parse the cached jwt assertion : " + entry.getEncodedJWt());
-                }
-                throw new OAuthClientAuthnException("JTI validation failed.", OAuth2ErrorCodes.INVALID_REQUEST);
+            long cachedJWTExpiryTimeMillis = entry.getExpiryTime();
+            // Token reuse is allowed. Here we are logging whether the token is reused within the allowed expiry time.
+            if (log.isDebugEnabled() && context.getCurrentTimeInMillis() + context.getTimeStampSkewMillis() <
+                    cachedJWTExpiryTimeMillis) {
+                log.debug("JWT Token with jti: " + jti + "has been reused with in the allowed expiry time: " +
+                        cachedJWTExpiryTimeMillis);
+            }
+            if (cachedJWTExpiryTimeMillis == expiryTime && entry.getIssuedTime() == context.getIssuedTime()) {
+                // The cached entry already reflects this assertion.
+                return true;
             }
         }
+        // Update the cache with the new JWT for the same JTI.
+        JWTCacheKey jwtCacheKey;
+        if (Util.isTenantIdColumnAvailableInIdnOidcAuth()) {
+            jwtCacheKey = new JWTCacheKey(jti, tenantId);
+        } else {
+            jwtCacheKey = new JWTCacheKey(jti);
+        }
+        jwtCache.addToCache(jwtCacheKey, new JWTCacheEntry(expiryTime, context.getIssuedTime(), tenantId));
         if (log.isDebugEnabled()) {
             log.debug("JWT id: " + jti + " for tenant id: " + tenantId + " not found in the cache " +
                     "and the JWT has been validated successfully in cache.");
@@ -787,48 +1109,21 @@ public class JWTValidator {
      * Validate whether the request signing algorithm is configured for the application.
      *
      * @param requestSigningAlgorithm     The request signed algorithm.
-     * @param clientId                    Client ID of the application.
+     * @param profile                     Authentication profile of the application.
      * @return whether the request signing algorithm is configured for the application.
-     * @throws OAuthClientAuthnException OAuth Client Authentication Exception.
      */
-    private boolean isValidSignatureAlgorithm(String requestSigningAlgorithm, String clientId)
-            throws OAuthClientAuthnException {
+    private boolean isValidSignatureAlgorithm(String requestSigningAlgorithm, JWTClientAuthProfileCacheEntry profile) {
 
-        //   Obtain the signing algorithm configured for the application.
-        List<String> configuredSigningAlgorithms = getConfiguredSigningAlgorithm(clientId);
         //  Validate whether the JWT signing algorithm is configured for the application.
-        if (configuredSigningAlgorithms.isEmpty() || configuredSigningAlgorithms.contains(requestSigningAlgorithm)) {
+        if (profile.isSigningAlgorithmAllowed(requestSigningAlgorithm)) {
             return true;
         } else {
             if (log.isDebugEnabled()) {
                 log.debug("JWT signed algorithm: " + requestSigningAlgorithm + " does not match with the configured algorithms: " +
-                        configuredSigningAlgorithms);
+                        profile.getAllowedSigningAlgorithms());
             }
             return false;
         }
     }
 
-    /**
-     * Obtain the request signing algorithms configured for the application.
-     *
-     * @param clientId   Client ID of the application.
-     * @throws OAuthClientAuthnException OAuth Client Authentication Exception.
-     */
-    private List<String> getConfiguredSigningAlgorithm(String clientId) throws OAuthClientAuthnException {
-
-        List<String> configuredSigningAlgorithms = new ArrayList<>();
-        String tenantDomain = IdentityTenantUtil.resolveTenantDomain();
-        try {
-            OAuthAppDO oAuthAppDO = OAuth2Util.getAppInformationByClientId(clientId, tenantDomain);
-            String tokenEndpointAuthSignatureAlgorithm = oAuthAppDO.getTokenEndpointAuthSignatureAlgorithm();
-            if (StringUtils.isNotBlank(tokenEndpointAuthSignatureAlgorithm)) {
-                configuredSigningAlgorithms = Arrays.asList(tokenEndpointAuthSignatureAlgorithm);
-            }
-        } catch (IdentityOAuth2Exception | InvalidOAuthClientException e) {
-            throw new OAuthClientAuthnException("Error occurred while retrieving app information for client id: " +
-                    clientId + " of tenantDomain: " + tenantDomain, OAuth2ErrorCodes.INVALID_REQUEST, e);
-        }
-        return configuredSigningAlgorithms;
-    }
-
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JTIReplayFilterTest {
+
+    private static final long NOW = 1000000L;
+
+    @Test
+    public void testSeenWithinExpiry() {
+
+        JTIReplayFilter filter = new JTIReplayFilter();
+        assertEquals(filter.check("jti-1", -1234, NOW), JTIReplayFilter.Verdict.UNKNOWN);
+        filter.record("jti-1", -1234, NOW + 1000, NOW);
+        assertEquals(filter.check("jti-1", -1234, NOW + 500), JTIReplayFilter.Verdict.SEEN);
+        assertEquals(filter.check("jti-1", 1, NOW + 500), JTIReplayFilter.Verdict.UNKNOWN);
+    }
+
+    @Test
+    public void testEvictionOnExpiry() {
+
+        JTIReplayFilter filter = new JTIReplayFilter();
+        filter.record("jti-2", -1234, NOW + 1000, NOW);
+        filter.record("jti-2", -1234, NOW + 2000, NOW);
+        assertEquals(filter.check("jti-2", -1234, NOW + 1500), JTIReplayFilter.Verdict.SEEN);
+        assertEquals(filter.check("jti-2", -1234, NOW + 2000), JTIReplayFilter.Verdict.UNKNOWN);
+        assertEquals(filter.size(), 0);
+    }
+
+    @Test
+    public void testIsRecorded() {
+
+        JTIReplayFilter filter = new JTIReplayFilter();
+        filter.record("jti-6", -1234, NOW + 1000, NOW);
+        assertTrue(filter.isRecorded("jti-6", -1234, NOW + 1000, NOW + 10));
+        assertFalse(filter.isRecorded("jti-6", -1234, NOW + 2000, NOW + 10));
+        assertFalse(filter.isRecorded("jti-6", 1, NOW + 1000, NOW + 10));
+        assertFalse(filter.isRecorded("jti-6", -1234, NOW + 1000, NOW + 1000));
+    }
+
+    @Test
+    public void testSizeBound() {
+
+        JTIReplayFilter filter = new JTIReplayFilter(1, 1);
+        filter.record("jti-3", -1234, NOW + 1000, NOW);
+        // Recording a second JTI evicts the first one before its expiry due to the size bound.
+        filter.record("jti-4", -1234, NOW + 2000, NOW);
+        assertEquals(filter.check("jti-3", -1234, NOW + 10), JTIReplayFilter.Verdict.UNKNOWN);
+        assertEquals(filter.check("jti-4", -1234, NOW + 10), JTIReplayFilter.Verdict.SEEN);
+    }
+}
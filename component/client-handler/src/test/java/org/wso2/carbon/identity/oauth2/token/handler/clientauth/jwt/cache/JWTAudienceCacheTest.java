@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener.PrivateKeyJWTIdentityProviderMgtListener;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@WithCarbonHome
+public class JWTAudienceCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String TOKEN_ENDPOINT = "https://localhost:9443/oauth2/token";
+    private static final String MTLS_TOKEN_ENDPOINT = "https://mtls.localhost:9443/oauth2/token";
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testAudiencesAreImmutable() {
+
+        JWTAudienceCacheEntry entry = new JWTAudienceCacheEntry(new HashSet<>(Arrays.asList(TOKEN_ENDPOINT)));
+        entry.getAudiences().add("some-audience");
+    }
+
+    @Test
+    public void testInvalidationOnResidentIdPUpdate() throws Exception {
+
+        JWTAudienceCache audienceCache = JWTAudienceCache.getInstance();
+        JWTAudienceCacheKey defaultKey = new JWTAudienceCacheKey(TENANT_DOMAIN, false);
+        JWTAudienceCacheKey mtlsKey = new JWTAudienceCacheKey(TENANT_DOMAIN, true);
+        audienceCache.addToCache(defaultKey, new JWTAudienceCacheEntry(new HashSet<>(Arrays.asList(TOKEN_ENDPOINT))),
+                TENANT_DOMAIN);
+        audienceCache.addToCache(mtlsKey, new JWTAudienceCacheEntry(new HashSet<>(Arrays.asList(MTLS_TOKEN_ENDPOINT))),
+                TENANT_DOMAIN);
+        assertTrue(audienceCache.getValueFromCache(defaultKey, TENANT_DOMAIN).getAudiences().contains(TOKEN_ENDPOINT));
+        assertEquals(audienceCache.getValueFromCache(mtlsKey, TENANT_DOMAIN).getAudiences().size(), 1);
+
+        new PrivateKeyJWTIdentityProviderMgtListener().doPostUpdateResidentIdP(new IdentityProvider(), TENANT_DOMAIN);
+        assertNull(audienceCache.getValueFromCache(defaultKey, TENANT_DOMAIN));
+        assertNull(audienceCache.getValueFromCache(mtlsKey, TENANT_DOMAIN));
+    }
+}
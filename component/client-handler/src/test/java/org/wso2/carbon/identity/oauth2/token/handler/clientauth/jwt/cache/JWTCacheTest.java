@@ -51,7 +51,8 @@ public class JWTCacheTest {
 
         String privateKeyJWT1 = buildJWT("some-issuer", "some-subject", "some-jti", "some-audience", "RSA265", key1, 0);
         signedJWT = SignedJWT.parse(privateKeyJWT1);
-        cacheEntry = new JWTCacheEntry(signedJWT);
+        cacheEntry = new JWTCacheEntry(signedJWT.getJWTClaimsSet().getExpirationTime().getTime(),
+                signedJWT.getJWTClaimsSet().getIssueTime().getTime(), -1234);
         jwtCacheKey = new JWTCacheKey("some-key", -1234);
     }
 
@@ -66,6 +67,15 @@ public class JWTCacheTest {
         assertEquals(jwtCache.getValueFromCache(jwtCacheKey), cacheEntry);
     }
 
+    @Test
+    public void testCacheEntryHoldsClaimTimes() throws Exception {
+
+        JWTCacheEntry entry = new JWTCacheEntry(2000L, 1000L, 1);
+        assertEquals(entry.getExpiryTime(), 2000L);
+        assertEquals(entry.getIssuedTime(), 1000L);
+        assertEquals(entry.getTenantId(), 1);
+    }
+
     @Test(dependsOnMethods = {"testGetValueFromCache"})
     public void testClearCacheEntry() throws Exception {
         jwtCache.clearCacheEntry(jwtCacheKey);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener.PrivateKeyJWTApplicationMgtListener;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@WithCarbonHome
+public class JWTClientAuthProfileCacheTest {
+
+    private static final String SUPER_TENANT_DOMAIN = "carbon.super";
+    private static final String TENANT_DOMAIN = "abc.com";
+    private static final String CLIENT_ID = "some-client-id";
+
+    @Test
+    public void testAllowedSigningAlgorithms() {
+
+        Set<String> algorithms = new HashSet<>(Collections.singletonList("PS256"));
+        JWTClientAuthProfileCacheEntry profile = createProfile(algorithms);
+        // The profile is not affected by later changes to the given set.
+        algorithms.add("RS256");
+        assertTrue(profile.isSigningAlgorithmAllowed("PS256"));
+        assertFalse(profile.isSigningAlgorithmAllowed("RS256"));
+        assertTrue(createProfile(Collections.<String>emptySet()).isSigningAlgorithmAllowed("RS256"));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testProfileIsImmutable() {
+
+        createProfile(Collections.<String>emptySet()).getAllowedSigningAlgorithms().add("RS256");
+    }
+
+    @Test
+    public void testInvalidationOnApplicationUpdate() throws Exception {
+
+        JWTClientAuthProfileCache profileCache = JWTClientAuthProfileCache.getInstance();
+        JWTClientAuthProfileCacheKey tenantKey = new JWTClientAuthProfileCacheKey(CLIENT_ID, TENANT_DOMAIN);
+        JWTClientAuthProfileCacheKey superTenantKey = new JWTClientAuthProfileCacheKey(CLIENT_ID,
+                SUPER_TENANT_DOMAIN);
+        JWTClientAuthProfileCacheEntry profile = createProfile(Collections.<String>emptySet());
+        profileCache.addToCache(tenantKey, profile, TENANT_DOMAIN);
+        profileCache.addToCache(superTenantKey, profile, SUPER_TENANT_DOMAIN);
+        assertEquals(profileCache.getValueFromCache(tenantKey, TENANT_DOMAIN), profile);
+
+        InboundAuthenticationRequestConfig requestConfig = new InboundAuthenticationRequestConfig();
+        requestConfig.setInboundAuthType("oauth2");
+        requestConfig.setInboundAuthKey(CLIENT_ID);
+        InboundAuthenticationConfig inboundAuthenticationConfig = new InboundAuthenticationConfig();
+        inboundAuthenticationConfig.setInboundAuthenticationRequestConfigs(
+                new InboundAuthenticationRequestConfig[]{requestConfig});
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setInboundAuthenticationConfig(inboundAuthenticationConfig);
+
+        new PrivateKeyJWTApplicationMgtListener().doPostUpdateApplication(serviceProvider, TENANT_DOMAIN, "admin");
+        assertNull(profileCache.getValueFromCache(tenantKey, TENANT_DOMAIN));
+        assertNull(profileCache.getValueFromCache(superTenantKey, SUPER_TENANT_DOMAIN));
+    }
+
+    private static JWTClientAuthProfileCacheEntry createProfile(Set<String> algorithms) {
+
+        return new JWTClientAuthProfileCacheEntry(CLIENT_ID, TENANT_DOMAIN, 1, false, algorithms, null);
+    }
+}
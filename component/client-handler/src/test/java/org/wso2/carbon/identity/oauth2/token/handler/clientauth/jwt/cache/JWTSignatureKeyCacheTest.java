@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.mockito.Mockito;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.CarbonBaseConstants;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.InboundAuthenticationRequestConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.common.testng.WithKeyStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks.JWKSKeyStore;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.listener.PrivateKeyJWTApplicationMgtListener;
+
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.getKeyStoreFromFile;
+
+@WithCarbonHome
+@WithKeyStore
+public class JWTSignatureKeyCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String CLIENT_ID = "some-client-id";
+    private static final String JWKS_URI = "https://localhost/jwks";
+
+    private JWTSignatureKeyCache signatureKeyCache;
+    private X509Certificate certificate;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        KeyStore clientKeyStore = getKeyStoreFromFile("testkeystore.jks", "wso2carbon",
+                System.getProperty(CarbonBaseConstants.CARBON_HOME));
+        certificate = (X509Certificate) clientKeyStore.getCertificate("wso2carbon");
+        signatureKeyCache = JWTSignatureKeyCache.getInstance();
+    }
+
+    @Test
+    public void testVerifierIsReused() {
+
+        JWTSignatureKeyCacheEntry entry = JWTSignatureKeyCacheEntry.forCertificate(
+                JWTSignatureKeyCacheEntry.KeySource.CERTIFICATE, certificate);
+        assertNotNull(entry.getVerifier());
+        assertSame(entry.getVerifier(), entry.getVerifier());
+        assertNull(JWTSignatureKeyCacheEntry.forJwksUri("https://localhost/jwks").getVerifier());
+    }
+
+    @Test
+    public void testInvalidationOnApplicationUpdate() throws Exception {
+
+        JWTSignatureKeyCacheKey cacheKey = new JWTSignatureKeyCacheKey(CLIENT_ID, TENANT_DOMAIN);
+        JWTSignatureKeyCacheEntry entry = JWTSignatureKeyCacheEntry.forCertificate(
+                JWTSignatureKeyCacheEntry.KeySource.CERTIFICATE, certificate);
+        signatureKeyCache.addToCache(cacheKey, entry, TENANT_DOMAIN);
+        assertEquals(signatureKeyCache.getValueFromCache(cacheKey, TENANT_DOMAIN), entry);
+
+        InboundAuthenticationRequestConfig requestConfig = new InboundAuthenticationRequestConfig();
+        requestConfig.setInboundAuthType("oauth2");
+        requestConfig.setInboundAuthKey(CLIENT_ID);
+        InboundAuthenticationConfig inboundAuthenticationConfig = new InboundAuthenticationConfig();
+        inboundAuthenticationConfig.setInboundAuthenticationRequestConfigs(
+                new InboundAuthenticationRequestConfig[]{requestConfig});
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setInboundAuthenticationConfig(inboundAuthenticationConfig);
+
+        new PrivateKeyJWTApplicationMgtListener().doPostUpdateApplication(serviceProvider, TENANT_DOMAIN, "admin");
+        assertNull(signatureKeyCache.getValueFromCache(cacheKey, TENANT_DOMAIN));
+    }
+
+    @Test
+    public void testJWKSInvalidationOnJWKSUriChange() throws Exception {
+
+        JWKSKeyStore previous = JWTServiceDataHolder.getInstance().getJwksKeyStore();
+        JWKSKeyStore jwksKeyStore = Mockito.mock(JWKSKeyStore.class);
+        JWTServiceDataHolder.getInstance().setJwksKeyStore(jwksKeyStore);
+        try {
+            JWTSignatureKeyCacheKey cacheKey = new JWTSignatureKeyCacheKey(CLIENT_ID, TENANT_DOMAIN);
+            PrivateKeyJWTApplicationMgtListener listener = new PrivateKeyJWTApplicationMgtListener();
+
+            // The JWKS is kept when the application is updated without changing its JWKS URI.
+            signatureKeyCache.addToCache(cacheKey, JWTSignatureKeyCacheEntry.forJwksUri(JWKS_URI), TENANT_DOMAIN);
+            listener.doPostUpdateApplication(createServiceProvider(JWKS_URI), TENANT_DOMAIN, "admin");
+            Mockito.verify(jwksKeyStore, Mockito.never()).invalidate(JWKS_URI);
+
+            signatureKeyCache.addToCache(cacheKey, JWTSignatureKeyCacheEntry.forJwksUri(JWKS_URI), TENANT_DOMAIN);
+            listener.doPostUpdateApplication(createServiceProvider("https://localhost/new-jwks"), TENANT_DOMAIN,
+                    "admin");
+            Mockito.verify(jwksKeyStore).invalidate(JWKS_URI);
+            assertNull(signatureKeyCache.getValueFromCache(cacheKey, TENANT_DOMAIN));
+        } finally {
+            JWTServiceDataHolder.getInstance().setJwksKeyStore(previous);
+        }
+    }
+
+    private static ServiceProvider createServiceProvider(String jwksUri) {
+
+        InboundAuthenticationRequestConfig requestConfig = new InboundAuthenticationRequestConfig();
+        requestConfig.setInboundAuthType("oauth2");
+        requestConfig.setInboundAuthKey(CLIENT_ID);
+        InboundAuthenticationConfig inboundAuthenticationConfig = new InboundAuthenticationConfig();
+        inboundAuthenticationConfig.setInboundAuthenticationRequestConfigs(
+                new InboundAuthenticationRequestConfig[]{requestConfig});
+        ServiceProviderProperty jwksUriProperty = new ServiceProviderProperty();
+        jwksUriProperty.setName(Constants.JWKS_URI);
+        jwksUriProperty.setValue(jwksUri);
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setInboundAuthenticationConfig(inboundAuthenticationConfig);
+        serviceProvider.setSpProperties(new ServiceProviderProperty[]{jwksUriProperty});
+        return serviceProvider;
+    }
+}
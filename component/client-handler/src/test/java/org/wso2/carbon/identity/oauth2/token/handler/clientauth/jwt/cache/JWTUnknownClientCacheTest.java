@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@WithCarbonHome
+public class JWTUnknownClientCacheTest {
+
+    private static final long NOW = 1000000L;
+    private static final String SUPER_TENANT_DOMAIN = "carbon.super";
+    private static final String TENANT_DOMAIN = "abc.com";
+
+    @Test
+    public void testUnknownUntilTimeout() {
+
+        JWTUnknownClientCache cache = JWTUnknownClientCache.getInstance();
+        assertFalse(cache.isUnknown("bogus", SUPER_TENANT_DOMAIN, NOW));
+        cache.addUnknown("bogus", SUPER_TENANT_DOMAIN, NOW + 1000);
+        assertTrue(cache.isUnknown("bogus", SUPER_TENANT_DOMAIN, NOW + 500));
+        assertFalse(cache.isUnknown("bogus", TENANT_DOMAIN, NOW + 500));
+        assertFalse(cache.isUnknown("bogus", SUPER_TENANT_DOMAIN, NOW + 1000));
+        // The expired entry is cleared on the lookup.
+        assertFalse(cache.isUnknown("bogus", SUPER_TENANT_DOMAIN, NOW));
+    }
+
+    @Test
+    public void testClearOnRegistration() {
+
+        JWTUnknownClientCache cache = JWTUnknownClientCache.getInstance();
+        cache.addUnknown("client", SUPER_TENANT_DOMAIN, NOW + 1000);
+        cache.addUnknown("client", TENANT_DOMAIN, NOW + 1000);
+        cache.addUnknown("other-client", SUPER_TENANT_DOMAIN, NOW + 1000);
+        cache.clearCacheEntries("client", TENANT_DOMAIN);
+        assertFalse(cache.isUnknown("client", SUPER_TENANT_DOMAIN, NOW));
+        assertFalse(cache.isUnknown("client", TENANT_DOMAIN, NOW));
+        assertTrue(cache.isUnknown("other-client", SUPER_TENANT_DOMAIN, NOW));
+    }
+}
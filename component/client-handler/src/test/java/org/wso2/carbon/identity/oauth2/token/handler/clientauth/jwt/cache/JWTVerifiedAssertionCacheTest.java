@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@WithCarbonHome
+public class JWTVerifiedAssertionCacheTest {
+
+    private static final long NOW = 1000000L;
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    @Test
+    public void testVerifiedUntilExpiry() {
+
+        JWTVerifiedAssertionCache cache = JWTVerifiedAssertionCache.getInstance();
+        Object keyMaterial = new Object();
+        byte[] digest = JWTVerifiedAssertionCache.digest("header.payload.signature");
+        assertFalse(cache.isVerified(digest, "client", TENANT_DOMAIN, keyMaterial, NOW));
+        cache.put(digest, "client", TENANT_DOMAIN, keyMaterial, NOW + 1000);
+        assertTrue(cache.isVerified(JWTVerifiedAssertionCache.digest("header.payload.signature"), "client",
+                TENANT_DOMAIN, keyMaterial, NOW + 500));
+        assertFalse(cache.isVerified(JWTVerifiedAssertionCache.digest("header.payload.other"), "client",
+                TENANT_DOMAIN, keyMaterial, NOW + 500));
+        assertFalse(cache.isVerified(digest, "client", TENANT_DOMAIN, keyMaterial, NOW + 1000));
+        // The expired entry is cleared on the lookup.
+        assertFalse(cache.isVerified(digest, "client", TENANT_DOMAIN, keyMaterial, NOW));
+    }
+
+    @Test
+    public void testOtherClient() {
+
+        JWTVerifiedAssertionCache cache = JWTVerifiedAssertionCache.getInstance();
+        Object keyMaterial = new Object();
+        byte[] digest = JWTVerifiedAssertionCache.digest("header.payload.client");
+        cache.put(digest, "client", TENANT_DOMAIN, keyMaterial, NOW + 1000);
+        assertFalse(cache.isVerified(digest, "other", TENANT_DOMAIN, keyMaterial, NOW));
+    }
+
+    @Test
+    public void testKeyMaterialChange() {
+
+        JWTVerifiedAssertionCache cache = JWTVerifiedAssertionCache.getInstance();
+        Object keyMaterial = new Object();
+        byte[] digest = JWTVerifiedAssertionCache.digest("header.payload.rotated");
+        cache.put(digest, "client", TENANT_DOMAIN, keyMaterial, NOW + 1000);
+        assertFalse(cache.isVerified(digest, "client", TENANT_DOMAIN, new Object(), NOW));
+        // The entry bound to the replaced key material is cleared.
+        assertFalse(cache.isVerified(digest, "client", TENANT_DOMAIN, keyMaterial, NOW));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao;
+
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class JTIPurgeServiceTest {
+
+    private static final long SKEW = 300000L;
+
+    @Test
+    public void testPurgeStopsAtPartialChunk() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        when(storageManager.deleteExpiredJWTIds(anyLong(), anyInt())).thenReturn(10, 10, 3);
+        JTIPurgeService purgeService = new JTIPurgeService(storageManager, 60000, 10, 0, 100, SKEW);
+
+        long before = System.currentTimeMillis();
+        assertEquals(purgeService.purge(), 23);
+        verify(storageManager, times(3)).deleteExpiredJWTIds(anyLong(), anyInt());
+        // All the expired JTIs are deleted, hence the oldest one is not looked up.
+        verify(storageManager, never()).getOldestExpiryTime(anyLong());
+        assertEquals(purgeService.getExpiryLagInMillis(), 0);
+        assertEquals(purgeService.getLastRunRowsPurged(), 23);
+        assertEquals(purgeService.getTotalRowsPurged(), 23);
+        assertTrue(purgeService.getLastRunTime() >= before);
+    }
+
+    @Test
+    public void testPurgeStopsAtMaxChunksPerRun() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        when(storageManager.deleteExpiredJWTIds(anyLong(), anyInt())).thenReturn(10);
+        when(storageManager.getOldestExpiryTime(anyLong()))
+                .thenAnswer(invocation -> (Long) invocation.getArguments()[0] - 5000);
+        JTIPurgeService purgeService = new JTIPurgeService(storageManager, 60000, 10, 0, 3, SKEW);
+
+        assertEquals(purgeService.purge(), 30);
+        verify(storageManager, times(3)).deleteExpiredJWTIds(anyLong(), anyInt());
+        assertEquals(purgeService.getExpiryLagInMillis(), 5000);
+        assertEquals(purgeService.purge(), 30);
+        assertEquals(purgeService.getLastRunRowsPurged(), 30);
+        assertEquals(purgeService.getTotalRowsPurged(), 60);
+    }
+
+    @Test
+    public void testPurgeKeepsJTIsWithinSkew() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        long[] horizon = new long[1];
+        when(storageManager.deleteExpiredJWTIds(anyLong(), anyInt())).thenAnswer(invocation -> {
+            horizon[0] = (Long) invocation.getArguments()[0];
+            return 0;
+        });
+        JTIPurgeService purgeService = new JTIPurgeService(storageManager, 60000, 10, 0, 3, SKEW);
+
+        long before = System.currentTimeMillis();
+        assertEquals(purgeService.purge(), 0);
+        assertTrue(horizon[0] >= before - SKEW && horizon[0] <= System.currentTimeMillis() - SKEW);
+    }
+
+    @Test
+    public void testPurgeIsSkippedOnNonCoordinator() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        JTIPurgeService purgeService = new JTIPurgeService(storageManager, 60000, 10, 0, 3, SKEW) {
+
+            @Override
+            protected boolean isCoordinator() {
+
+                return false;
+            }
+        };
+
+        assertEquals(purgeService.purge(), 0);
+        verify(storageManager, never()).deleteExpiredJWTIds(anyLong(), anyInt());
+        assertEquals(purgeService.getLastRunTime(), 0);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class JTIWriteBehindPersisterTest {
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        doThrow(new OAuthClientAuthnException("Database is not available.", OAuth2ErrorCodes.INVALID_REQUEST))
+                .doNothing().when(storageManager).persistJWTIdsInDB(anyListOf(JWTEntry.class));
+        List<JWTEntry> evicted = new ArrayList<>();
+        JTIWriteBehindPersister persister = newPersister(storageManager, evicted);
+        persister.start();
+        persister.enqueue("jti-1", 1, 10000, 1000);
+        persister.enqueue("jti-2", 1, 10000, 1000);
+
+        assertFlushFails(persister);
+        // The entries of the failed batch are queued again.
+        assertEquals(persister.getPendingCount(), 2);
+        persister.flush();
+        assertEquals(persister.getPendingCount(), 0);
+        assertTrue(evicted.isEmpty());
+        persister.shutdown();
+    }
+
+    @Test
+    public void testFailedBatchIsGivenUpAfterMaxAttempts() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        doThrow(new OAuthClientAuthnException("Database is not available.", OAuth2ErrorCodes.INVALID_REQUEST))
+                .when(storageManager).persistJWTIdsInDB(anyListOf(JWTEntry.class));
+        List<JWTEntry> evicted = new ArrayList<>();
+        JTIWriteBehindPersister persister = newPersister(storageManager, evicted);
+        persister.start();
+        persister.enqueue("jti-3", 1, 10000, 1000);
+
+        for (int attempt = 1; attempt < JTIWriteBehindPersister.MAX_WRITE_ATTEMPTS; attempt++) {
+            assertFlushFails(persister);
+            assertEquals(persister.getPendingCount(), 1);
+        }
+        assertFlushFails(persister);
+        assertEquals(persister.getPendingCount(), 0);
+        assertEquals(evicted.size(), 1);
+        assertEquals(evicted.get(0).getJti(), "jti-3");
+        persister.shutdown();
+    }
+
+    @Test
+    public void testPendingEntriesAreEvictedOnShutdown() throws Exception {
+
+        JWTStorageManager storageManager = mock(JWTStorageManager.class);
+        doThrow(new OAuthClientAuthnException("Database is not available.", OAuth2ErrorCodes.INVALID_REQUEST))
+                .when(storageManager).persistJWTIdsInDB(anyListOf(JWTEntry.class));
+        List<JWTEntry> evicted = new ArrayList<>();
+        JTIWriteBehindPersister persister = newPersister(storageManager, evicted);
+        persister.start();
+        persister.enqueue("jti-4", 1, 10000, 1000);
+
+        persister.shutdown();
+        assertEquals(persister.getPendingCount(), 0);
+        assertEquals(evicted.size(), 1);
+    }
+
+    private JTIWriteBehindPersister newPersister(JWTStorageManager storageManager, List<JWTEntry> evicted) {
+
+        return new JTIWriteBehindPersister(storageManager, 10, 60000, 10) {
+
+            @Override
+            protected void evict(JWTEntry entry) {
+
+                evicted.add(entry);
+            }
+        };
+    }
+
+    private void assertFlushFails(JTIWriteBehindPersister persister) {
+
+        try {
+            persister.flush();
+            fail("The flush should fail when the batch could not be written.");
+        } catch (OAuthClientAuthnException e) {
+            // Expected, the entries of the batch are queued again or given up.
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.jwks;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+public class JWKSKeyStoreTest {
+
+    private HttpServer server;
+    private String jwksUri;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile String jwks;
+    private volatile int status;
+    private volatile long delayInMillis;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        hits.set(0);
+        jwks = buildJWKS("kid-1");
+        status = 200;
+        delayInMillis = 0;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            hits.incrementAndGet();
+            try {
+                Thread.sleep(delayInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = jwks.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        jwksUri = "http://127.0.0.1:" + server.getAddress().getPort() + "/jwks";
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        server.stop(0);
+    }
+
+    @Test
+    public void testKeyLookup() throws Exception {
+
+        JWKSKeyStore keyStore = createKeyStore(60000, 0, 60000);
+        assertNotNull(keyStore.getKey(jwksUri, "kid-1"));
+        assertSame(keyStore.getKeySet(jwksUri), keyStore.getKeySet(jwksUri));
+        assertEquals(hits.get(), 1);
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+
+        delayInMillis = 200;
+        JWKSKeyStore keyStore = createKeyStore(60000, 0, 60000);
+        int threads = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<JWKSKeySet>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return keyStore.getKeySet(jwksUri);
+            }));
+        }
+        start.countDown();
+        for (Future<JWKSKeySet> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS).getKey("kid-1"));
+        }
+        executor.shutdown();
+        assertEquals(hits.get(), 1);
+    }
+
+    @Test
+    public void testForcedRefreshOnUnknownKid() throws Exception {
+
+        JWKSKeyStore keyStore = createKeyStore(60000, 0, 60000);
+        assertNotNull(keyStore.getKey(jwksUri, "kid-1"));
+        jwks = buildJWKS("kid-2");
+        // The key rotation is picked up on the first miss.
+        assertNotNull(keyStore.getKey(jwksUri, "kid-2"));
+        assertEquals(hits.get(), 2);
+        // Further misses within the minimum refresh interval do not hit the endpoint.
+        assertNull(keyStore.getKey(jwksUri, "kid-3"));
+        assertEquals(hits.get(), 2);
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+
+        JWKSKeyStore keyStore = createKeyStore(1000, 900, 60000);
+        JWKSKeySet keySet = keyStore.getKeySet(jwksUri);
+        Thread.sleep(200);
+        // The current snapshot is served while the refresh runs in the background.
+        assertSame(keyStore.getKeySet(jwksUri), keySet);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hits.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(hits.get(), 2);
+    }
+
+    @Test
+    public void testStaleKeysOnFailure() throws Exception {
+
+        JWKSKeyStore keyStore = createKeyStore(100, 0, 60000);
+        JWKSKeySet keySet = keyStore.getKeySet(jwksUri);
+        status = 500;
+        Thread.sleep(150);
+        assertSame(keyStore.getKeySet(jwksUri), keySet);
+    }
+
+    @Test
+    public void testStaleKeysDroppedAfterMaxStaleness() throws Exception {
+
+        JWKSKeyStore keyStore = new JWKSKeyStore(new DefaultResourceRetriever(1000, 1000), 100, 0, 60000, 300, 0,
+                JWKSKeyStore.DEFAULT_MAX_ENTRIES);
+        JWKSKeySet keySet = keyStore.getKeySet(jwksUri);
+        status = 500;
+        Thread.sleep(150);
+        assertSame(keyStore.getKeySet(jwksUri), keySet);
+        Thread.sleep(250);
+        try {
+            keyStore.getKeySet(jwksUri);
+            fail("Keys older than the maximum staleness should not be served.");
+        } catch (IOException e) {
+            // Expected, as the stale keys are dropped.
+        }
+        status = 200;
+        assertNotSame(keyStore.getKeySet(jwksUri), keySet);
+    }
+
+    @Test
+    public void testFailureBackoff() throws Exception {
+
+        status = 500;
+        JWKSKeyStore keyStore = new JWKSKeyStore(new DefaultResourceRetriever(1000, 1000), 60000, 0, 60000,
+                JWKSKeyStore.DEFAULT_MAX_STALENESS_IN_MILLIS, 60000, JWKSKeyStore.DEFAULT_MAX_ENTRIES);
+        for (int i = 0; i < 3; i++) {
+            try {
+                keyStore.getKeySet(jwksUri);
+                fail("The JWKS should not be available.");
+            } catch (IOException e) {
+                // Expected, as the endpoint fails.
+            }
+        }
+        // The requests within the failure backoff do not hit the endpoint.
+        assertEquals(hits.get(), 1);
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+
+        JWKSKeyStore keyStore = createKeyStore(60000, 0, 60000);
+        JWKSKeySet keySet = keyStore.getKeySet(jwksUri);
+        keyStore.invalidate(jwksUri);
+        assertEquals(keyStore.size(), 0);
+        assertNotSame(keyStore.getKeySet(jwksUri), keySet);
+        assertEquals(hits.get(), 2);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testFailureWithoutKeys() throws Exception {
+
+        status = 500;
+        createKeyStore(60000, 0, 60000).getKeySet(jwksUri);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+
+        JWKSKeyStore keyStore = new JWKSKeyStore(new DefaultResourceRetriever(1000, 1000), 60000, 0, 60000, 2);
+        keyStore.getKeySet(jwksUri + "?a");
+        Thread.sleep(5);
+        keyStore.getKeySet(jwksUri + "?b");
+        Thread.sleep(5);
+        // Touch the first URI so that the second one is the least recently used.
+        keyStore.getKeySet(jwksUri + "?a");
+        Thread.sleep(5);
+        keyStore.getKeySet(jwksUri + "?c");
+        assertEquals(keyStore.size(), 2);
+        assertEquals(hits.get(), 3);
+        keyStore.getKeySet(jwksUri + "?a");
+        assertEquals(hits.get(), 3);
+        keyStore.getKeySet(jwksUri + "?b");
+        assertEquals(hits.get(), 4);
+    }
+
+    private JWKSKeyStore createKeyStore(long ttl, long refreshAhead, long minRefreshInterval) {
+
+        return new JWKSKeyStore(new DefaultResourceRetriever(1000, 1000), ttl, refreshAhead, minRefreshInterval);
+    }
+
+    private static String buildJWKS(String kid) throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic())
+                .keyID(kid).build();
+        return new JWKSet(Collections.<JWK>singletonList(rsaKey)).toJSONObject().toString();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.metrics;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator.JWTValidationStage;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator.JWTValidationStageMetrics;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.testng.Assert.assertEquals;
+
+public class JWTClientAuthMetricsTest {
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(JWTClientAuthMetrics.OBJECT_NAME);
+        if (mBeanServer.isRegistered(objectName)) {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+    @Test
+    public void testMetricsAreReadOverJMX() throws Exception {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(JWTClientAuthMetrics.OBJECT_NAME);
+        mBeanServer.registerMBean(new JWTClientAuthMetrics(), objectName);
+        JWTClientAuthMetricsMXBean proxy = JMX.newMXBeanProxy(mBeanServer, objectName,
+                JWTClientAuthMetricsMXBean.class);
+
+        JWTValidationStageMetrics metrics = JWTServiceDataHolder.getInstance().getValidationStageMetrics();
+        long accepted = proxy.getAcceptedCount();
+        long signatureRejections = proxy.getRejectionCounts().get(JWTValidationStage.SIGNATURE.name());
+        long suppressedWrites = proxy.getSuppressedJTIWriteCount();
+        metrics.recordAcceptance();
+        metrics.recordRejection(JWTValidationStage.SIGNATURE);
+        metrics.recordSuppressedJTIWrite();
+
+        assertEquals(proxy.getAcceptedCount(), accepted + 1);
+        assertEquals((long) proxy.getRejectionCounts().get(JWTValidationStage.SIGNATURE.name()),
+                signatureRejections + 1);
+        assertEquals(proxy.getSuppressedJTIWriteCount(), suppressedWrites + 1);
+        assertEquals(proxy.getRejectionCounts().size(), JWTValidationStage.values().length);
+    }
+}
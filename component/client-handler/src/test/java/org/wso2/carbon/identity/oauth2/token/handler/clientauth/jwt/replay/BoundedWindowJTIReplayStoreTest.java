@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class BoundedWindowJTIReplayStoreTest {
+
+    private static final long NOW = 1000000000L;
+    private static final long WINDOW = 60000L;
+    private static final long SKEW = 5000L;
+
+    @Test
+    public void testRetentionIsBoundedByWindow() {
+
+        BoundedWindowJTIReplayStore store = new BoundedWindowJTIReplayStore(WINDOW, SKEW);
+        // A far expiry is cut at the end of the window of the issued time.
+        assertEquals(store.getRetentionTime(NOW + 3600000, NOW), NOW + WINDOW + SKEW);
+        assertEquals(store.getRetentionTime(NOW + 1000, NOW), NOW + 1000 + SKEW);
+        // Without an issued time the assertion is kept until its expiry.
+        assertEquals(store.getRetentionTime(NOW + 3600000, 0), NOW + 3600000 + SKEW);
+        assertEquals(new BoundedWindowJTIReplayStore(0, SKEW).getRetentionTime(NOW + 3600000, NOW),
+                NOW + 3600000 + SKEW);
+    }
+
+    @Test
+    public void testClaim() {
+
+        BoundedWindowJTIReplayStore store = new BoundedWindowJTIReplayStore(WINDOW, SKEW);
+        assertTrue(store.claim("jti-1", -1234, NOW + 3600000, NOW, NOW));
+        assertFalse(store.claim("jti-1", -1234, NOW + 3600000, NOW, NOW + WINDOW));
+        assertTrue(store.claim("jti-1", 1, NOW + 3600000, NOW, NOW + WINDOW));
+        // The validator rejects the assertion by its age from here on, hence the JTI is released.
+        assertTrue(store.claim("jti-1", -1234, NOW + 3600000, NOW, NOW + WINDOW + SKEW));
+    }
+
+    @Test
+    public void testRecord() {
+
+        BoundedWindowJTIReplayStore store = new BoundedWindowJTIReplayStore(WINDOW, SKEW);
+        store.record("jti-2", -1234, NOW + 1000, NOW, NOW);
+        store.record("jti-2", -1234, NOW + 30000, NOW, NOW + 10);
+        assertFalse(store.claim("jti-2", -1234, NOW + 30000, NOW, NOW + 20000));
+        assertEquals(store.size(), 1);
+    }
+
+    @Test
+    public void testExpiredJTIsAreEvictedByTheWheel() {
+
+        BoundedWindowJTIReplayStore store = new BoundedWindowJTIReplayStore(WINDOW, SKEW);
+        for (int i = 0; i < 1000; i++) {
+            store.claim("jti-" + i, -1234, NOW + 3600000, NOW + i * 10, NOW + i * 10);
+        }
+        assertEquals(store.size(), 1000);
+        // Sweeping the buckets drops every JTI whose window has passed.
+        for (int i = 0; i < 1000; i++) {
+            store.claim("late-" + i, -1234, NOW + 3600000, NOW + WINDOW + SKEW + 11000, NOW + WINDOW + SKEW + 11000);
+        }
+        assertEquals(store.size(), 1000);
+    }
+
+    @Test
+    public void testEvictionAfterIdlePeriod() {
+
+        BoundedWindowJTIReplayStore store = new BoundedWindowJTIReplayStore(WINDOW, SKEW);
+        store.claim("jti-3", -1234, NOW + 3600000, 0, NOW);
+        store.claim("jti-4", -1234, NOW + 3600000, NOW, NOW);
+        for (int i = 0; i < 64; i++) {
+            store.claim("idle-" + i, -1234, NOW + 3600000, NOW + 1000000, NOW + 1000000);
+        }
+        // The JTI without an issued time outlives the span of the wheel.
+        assertFalse(store.claim("jti-3", -1234, NOW + 3600000, 0, NOW + 1000000));
+        // The window of the other JTI has passed, hence it is neither kept nor stored again.
+        assertTrue(store.claim("jti-4", -1234, NOW + 3600000, NOW, NOW + 1000000));
+        assertEquals(store.size(), 65);
+    }
+}
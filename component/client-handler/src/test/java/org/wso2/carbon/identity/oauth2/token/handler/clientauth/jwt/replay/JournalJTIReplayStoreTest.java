@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JournalJTIReplayStoreTest {
+
+    private static final long NOW = 1000000L;
+    private static final long BUCKET_INTERVAL = 1000L;
+
+    private Path directory;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        directory = Files.createTempDirectory("jti-journal");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    @Test
+    public void testJournalIsReplayedOnRestart() throws Exception {
+
+        JournalJTIReplayStore store = createStore(NOW);
+        assertTrue(store.claim("jti-1", -1234, NOW + 500, NOW, NOW));
+        assertTrue(store.claim("jti-2", -1234, NOW + 5000, NOW, NOW));
+        store.record("jti-3", -1234, NOW + 5000, NOW, NOW);
+        assertFalse(store.claim("jti-1", -1234, NOW + 500, NOW, NOW + 10));
+        store.close();
+
+        JournalJTIReplayStore restarted = createStore(NOW + 10);
+        assertFalse(restarted.claim("jti-1", -1234, NOW + 500, NOW, NOW + 20));
+        assertFalse(restarted.claim("jti-2", -1234, NOW + 5000, NOW, NOW + 20));
+        assertFalse(restarted.claim("jti-3", -1234, NOW + 5000, NOW, NOW + 20));
+        assertTrue(restarted.claim("jti-1", 1, NOW + 500, NOW, NOW + 20));
+        restarted.close();
+    }
+
+    @Test
+    public void testExpiredSegmentsAreDropped() throws Exception {
+
+        JournalJTIReplayStore store = createStore(NOW);
+        store.claim("jti-1", -1234, NOW + 500, NOW, NOW);
+        store.claim("jti-2", -1234, NOW + 2500, NOW, NOW);
+        assertEquals(store.getSegmentCount(), 2);
+        assertEquals(countSegmentFiles(), 2);
+        store.dropExpiredSegments(NOW + 1000);
+        assertEquals(store.getSegmentCount(), 1);
+        assertEquals(countSegmentFiles(), 1);
+        store.close();
+
+        // Segments of the buckets which passed while the node was down are deleted on the restart.
+        JournalJTIReplayStore restarted = createStore(NOW + 3000);
+        assertEquals(restarted.getSegmentCount(), 0);
+        assertEquals(countSegmentFiles(), 0);
+        assertTrue(restarted.claim("jti-2", -1234, NOW + 5000, NOW, NOW + 3000));
+        restarted.close();
+    }
+
+    @Test
+    public void testFullSegmentRollsOver() throws Exception {
+
+        // A single kilobyte segment holds 32 records.
+        JournalJTIReplayStore store = createStore(NOW);
+        for (int i = 0; i < 40; i++) {
+            assertTrue(store.claim("jti-" + i, -1234, NOW + 500, NOW, NOW));
+        }
+        assertEquals(store.getSegmentCount(), 2);
+        store.close();
+
+        JournalJTIReplayStore restarted = createStore(NOW);
+        for (int i = 0; i < 40; i++) {
+            assertFalse(restarted.claim("jti-" + i, -1234, NOW + 500, NOW, NOW));
+        }
+        restarted.close();
+    }
+
+    @Test
+    public void testCorruptedRecordEndsReplay() throws Exception {
+
+        JournalJTIReplayStore store = createStore(NOW);
+        store.claim("jti-1", -1234, NOW + 500, NOW, NOW);
+        store.claim("jti-2", -1234, NOW + 500, NOW, NOW);
+        store.close();
+
+        // Corrupt the checksum of the second record.
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().get();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8), 48);
+        }
+        JournalJTIReplayStore restarted = createStore(NOW);
+        assertFalse(restarted.claim("jti-1", -1234, NOW + 500, NOW, NOW));
+        assertTrue(restarted.claim("jti-2", -1234, NOW + 500, NOW, NOW));
+        restarted.close();
+
+        // The record appended after the corruption went to a new segment, hence it is replayed.
+        JournalJTIReplayStore replayedAgain = createStore(NOW);
+        assertFalse(replayedAgain.claim("jti-2", -1234, NOW + 500, NOW, NOW));
+        replayedAgain.close();
+    }
+
+    private JournalJTIReplayStore createStore(long currentTimeInMillis) throws Exception {
+
+        return new JournalJTIReplayStore(directory, 1000, 0, 1, BUCKET_INTERVAL, currentTimeInMillis);
+    }
+
+    private long countSegmentFiles() throws Exception {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
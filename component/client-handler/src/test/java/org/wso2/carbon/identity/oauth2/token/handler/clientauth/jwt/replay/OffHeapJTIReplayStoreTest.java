@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.replay;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class OffHeapJTIReplayStoreTest {
+
+    private static final long NOW = 1000000L;
+    private static final long SKEW = 300L;
+
+    @Test
+    public void testClaim() throws Exception {
+
+        OffHeapJTIReplayStore store = new OffHeapJTIReplayStore(1000, SKEW);
+        assertTrue(store.claim("jti-1", -1234, NOW + 1000, NOW, NOW));
+        assertFalse(store.claim("jti-1", -1234, NOW + 1000, NOW, NOW + 10));
+        // Same JTI is allowed in a different tenant.
+        assertTrue(store.claim("jti-1", 1, NOW + 1000, NOW, NOW + 10));
+        // The JTI is kept for the allowed clock skew after the expiry.
+        assertFalse(store.claim("jti-1", -1234, NOW + 2000, NOW, NOW + 1000 + SKEW - 1));
+        assertTrue(store.claim("jti-1", -1234, NOW + 2000, NOW, NOW + 1000 + SKEW));
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+
+        OffHeapJTIReplayStore store = new OffHeapJTIReplayStore(1000, 0);
+        store.record("jti-2", -1234, NOW + 1000, NOW, NOW);
+        store.record("jti-2", -1234, NOW + 5000, NOW, NOW + 10);
+        assertEquals(store.getUsedSlots(), 1);
+        // The retention of the entry is extended by the second record.
+        assertFalse(store.claim("jti-2", -1234, NOW + 5000, NOW, NOW + 2000));
+    }
+
+    @Test
+    public void testExpiredSlotsAreReused() throws Exception {
+
+        OffHeapJTIReplayStore store = new OffHeapJTIReplayStore(1000, 0);
+        long capacity = store.getCapacity();
+        for (int round = 0; round < 5; round++) {
+            long currentTime = NOW + round * 1000;
+            for (int i = 0; i < capacity / 2; i++) {
+                assertTrue(store.claim("jti-" + round + "-" + i, -1234, currentTime + 500, NOW, currentTime));
+            }
+        }
+        assertTrue(store.getUsedSlots() <= capacity);
+    }
+
+    @Test
+    public void testCompactionKeepsLiveEntries() throws Exception {
+
+        OffHeapJTIReplayStore store = new OffHeapJTIReplayStore(1000, 0);
+        long capacity = store.getCapacity();
+        for (int round = 0; round < 8; round++) {
+            long currentTime = NOW + round * 1000;
+            for (int i = 0; i < capacity / 4; i++) {
+                assertTrue(store.claim("jti-" + round + "-" + i, -1234, currentTime + 1500, NOW, currentTime));
+            }
+            if (round > 0) {
+                // The entries of the previous round are still live after the expired ones are dropped.
+                for (int i = 0; i < capacity / 4; i++) {
+                    assertFalse(store.claim("jti-" + (round - 1) + "-" + i, -1234, currentTime + 1500, NOW,
+                            currentTime));
+                }
+            }
+        }
+    }
+
+    @Test(expectedExceptions = OAuthClientAuthnException.class)
+    public void testFullStoreRejectsClaims() throws Exception {
+
+        OffHeapJTIReplayStore store = new OffHeapJTIReplayStore(64, 0);
+        for (long i = 0; i <= store.getCapacity(); i++) {
+            store.claim("jti-" + i, -1234, NOW + 1000, NOW, NOW);
+        }
+    }
+
+    @Test
+    public void testClear() throws Exception {
+
+        OffHeapJTIReplayStore store = new OffHeapJTIReplayStore(1000, 0);
+        store.claim("jti-3", -1234, NOW + 1000, NOW, NOW);
+        store.clear();
+        assertEquals(store.getUsedSlots(), 0);
+        assertTrue(store.claim("jti-3", -1234, NOW + 1000, NOW, NOW));
+    }
+}
@@ -31,11 +31,13 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.core.util.JdbcUtils;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JTIWriteBehindPersister;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JWTEntry;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.dao.JWTStorageManager;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.testng.Assert.assertEquals;
@@ -45,6 +47,7 @@ import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.closeH2Base;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.initiateH2Base;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.spyConnection;
@@ -141,4 +144,64 @@ public class JWTStorageManagerTest extends PowerMockTestCase {
         assertEquals(jwtEntry.getExp(), 10001000);
         assertEquals(jwtEntry.getCreatedTime(), 10000100);
     }
+
+    @Test()
+    public void testClaimJWTIdInDB() throws Exception {
+
+        assertTrue(JWTStorageManager.claimJWTIdInDB("2030", -1234, 10000000, 10000000));
+    }
+
+    @Test(dependsOnMethods = {"testClaimJWTIdInDB"})
+    public void testClaimReplayedJWTIdInDB() throws Exception {
+
+        assertFalse(JWTStorageManager.claimJWTIdInDB("2030", -1234, 10000000, 10000000));
+        // Same JTI is allowed in a different tenant.
+        assertTrue(JWTStorageManager.claimJWTIdInDB("2030", 12, 10000000, 10000000));
+    }
+
+    @Test()
+    public void testPersistJWTIdsInDB() throws Exception {
+
+        when(JdbcUtils.isH2DB()).thenReturn(true);
+        when(JdbcUtils.isOracleDB()).thenReturn(false);
+        JWTStorageManager.persistJWTIdsInDB(Arrays.asList(new JWTEntry("2040", 10000000, 10000000, 12),
+                new JWTEntry("2041", 10000000, 10000000, 12)));
+        assertEquals(JWTStorageManager.getJwtsFromDB("2040", 12).size(), 1);
+        assertEquals(JWTStorageManager.getJwtsFromDB("2041", 12).size(), 1);
+    }
+
+    @Test()
+    public void testWriteBehindPersister() throws Exception {
+
+        when(JdbcUtils.isH2DB()).thenReturn(true);
+        when(JdbcUtils.isOracleDB()).thenReturn(false);
+        JTIWriteBehindPersister persister = new JTIWriteBehindPersister(JWTStorageManager, 10, 60000, 2);
+        assertFalse(persister.enqueue("2050", 12, 10000000, 10000000));
+        persister.start();
+        assertTrue(persister.enqueue("2050", 12, 10000000, 10000000));
+        // Entries of the same JTI are coalesced.
+        assertTrue(persister.enqueue("2050", 12, 10001000, 10000100));
+        assertTrue(persister.enqueue("2051", 12, 10000000, 10000000));
+        // The queue is full, hence the caller has to persist synchronously.
+        assertFalse(persister.enqueue("2052", 12, 10000000, 10000000));
+        assertEquals(persister.getPendingCount(), 2);
+        persister.shutdown();
+        assertEquals(persister.getPendingCount(), 0);
+        JWTEntry jwtEntry = JWTStorageManager.getJwtsFromDB("2050", 12).get(0);
+        assertEquals(jwtEntry.getExp(), 10001000);
+        assertEquals(JWTStorageManager.getJwtsFromDB("2052", 12).size(), 0);
+    }
+
+    @Test()
+    public void testDeleteExpiredJWTIds() throws Exception {
+
+        when(JdbcUtils.isH2DB()).thenReturn(true);
+        JWTStorageManager.persistJWTIdsInDB(Arrays.asList(new JWTEntry("2060", 1000, 1000, 99),
+                new JWTEntry("2061", 2000, 1000, 99), new JWTEntry("2062", 3000, 1000, 99)));
+        assertEquals(JWTStorageManager.getOldestExpiryTime(5000), 1000);
+        assertEquals(JWTStorageManager.deleteExpiredJWTIds(5000, 2), 2);
+        assertEquals(JWTStorageManager.deleteExpiredJWTIds(5000, 2), 1);
+        assertEquals(JWTStorageManager.deleteExpiredJWTIds(5000, 2), 0);
+        assertEquals(JWTStorageManager.getOldestExpiryTime(5000), -1);
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.validator;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the rejections raised by the local validation stages of the JWT validator.
+ */
+@WithCarbonHome
+public class JWTValidationExceptionTest {
+
+    private static final String CLIENT_ID = "KrVLov4Bl3natUksF2HmWsdw684a";
+
+    @AfterMethod
+    public void tearDown() {
+
+        JWTServiceDataHolder.getInstance().setStacklessRejectionsEnabled(false);
+    }
+
+    @Test
+    public void testStacklessRejection() {
+
+        JWTServiceDataHolder.getInstance().setStacklessRejectionsEnabled(true);
+        try {
+            getJWTValidator().validateSubject("other", CLIENT_ID);
+            fail("Validation should fail when the subject does not match the client id.");
+        } catch (OAuthClientAuthnException e) {
+            assertEquals(e.getStackTrace().length, 0);
+            assertEquals(e.getMessage(), "Invalid Subject: other is found in the JWT");
+        }
+    }
+
+    @Test
+    public void testRejectionWithStackTrace() {
+
+        try {
+            getJWTValidator().validateSubject("other", CLIENT_ID);
+            fail("Validation should fail when the subject does not match the client id.");
+        } catch (OAuthClientAuthnException e) {
+            assertTrue(e.getStackTrace().length > 0);
+            assertEquals(e.getMessage(), "Invalid Subject: other is found in the JWT");
+        }
+    }
+
+    @Test
+    public void testMessageIsKeptOnSerialization() throws Exception {
+
+        JWTValidationException exception = JWTValidationException.create(true, "invalid_request",
+                "Invalid Subject: %s is found in the JWT", "other");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(exception);
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            JWTValidationException deserialized = (JWTValidationException) inputStream.readObject();
+            assertEquals(deserialized.getMessage(), "Invalid Subject: other is found in the JWT");
+            assertEquals(deserialized.getErrorCode(), "invalid_request");
+        }
+    }
+
+    private JWTValidator getJWTValidator() {
+
+        return new JWTValidator(true, "https://localhost:9443/oauth2/token", 60, null,
+                Arrays.asList("iss", "sub", "exp", "aud", "jti"), false);
+    }
+}
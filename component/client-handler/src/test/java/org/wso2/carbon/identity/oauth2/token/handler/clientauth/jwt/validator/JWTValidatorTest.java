@@ -31,6 +31,7 @@ import org.wso2.carbon.base.CarbonBaseConstants;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.core.util.KeyStoreManager;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
 import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
 import org.wso2.carbon.identity.common.testng.WithAxisConfiguration;
 import org.wso2.carbon.identity.common.testng.WithCarbonHome;
@@ -42,6 +43,10 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTClientAuthProfileCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.cache.JWTSignatureKeyCacheKey;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceComponent;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.internal.JWTServiceDataHolder;
 import org.wso2.carbon.identity.testutil.ReadCertStoreSampleUtil;
@@ -50,6 +55,8 @@ import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.cert.Certificate;
@@ -65,7 +72,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import static org.mockito.Matchers.anyString;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.Constants.REJECT_BEFORE_IN_MINUTES;
+import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.buildExpiredJWT;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.buildJWT;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.getJWTValidator;
 import static org.wso2.carbon.identity.oauth2.token.handler.clientauth.jwt.util.JWTTestUtil.getKeyStoreFromFile;
@@ -97,6 +108,7 @@ public class JWTValidatorTest {
     public static final String PAR_ENDPOINT = "https://localhost:9443/oauth2/par";
     private KeyStore clientKeyStore;
     private KeyStore serverKeyStore;
+    private KeyStoreManager keyStoreManager;
     private X509Certificate cert;
 
     private static final String CERTIFICATE =
@@ -128,7 +140,7 @@ public class JWTValidatorTest {
         serverKeyStore = getKeyStoreFromFile("wso2carbon.jks", "wso2carbon",
                 System.getProperty(CarbonBaseConstants.CARBON_HOME));
 
-        KeyStoreManager keyStoreManager = Mockito.mock(KeyStoreManager.class);
+        keyStoreManager = Mockito.mock(KeyStoreManager.class);
         ConcurrentHashMap<String, KeyStoreManager> mtKeyStoreManagers = new ConcurrentHashMap();
         mtKeyStoreManagers.put(String.valueOf(SUPER_TENANT_ID), keyStoreManager);
         WhiteboxImpl.setInternalState(KeyStoreManager.class, "mtKeyStoreManagers", mtKeyStoreManagers);
@@ -288,6 +300,93 @@ public class JWTValidatorTest {
 
     }
 
+    @Test
+    public void testValidatorIsStateless() {
+
+        // The validator is shared by the request threads, hence it should not hold any mutable per request state.
+        for (Field field : JWTValidator.class.getDeclaredFields()) {
+            if (field.isSynthetic()) {
+                continue;
+            }
+            assertTrue(Modifier.isFinal(field.getModifiers()), "Field " + field.getName() + " should be final.");
+        }
+    }
+
+    @Test
+    public void testExpiredTokenIsRejectedBeforeClientLookup() throws Exception {
+
+        JWTValidationStageMetrics metrics = JWTServiceDataHolder.getInstance().getValidationStageMetrics();
+        long timeRejections = metrics.getRejectionCount(JWTValidationStage.TIME);
+        long clientRejections = metrics.getRejectionCount(JWTValidationStage.CLIENT);
+        Key key = clientKeyStore.getKey("wso2carbon", "wso2carbon".toCharArray());
+        // The client of the assertion does not exist, which is only detected if the client is looked up.
+        String expiredJWT = buildExpiredJWT("non-existing-client", "non-existing-client", "3030", ID_TOKEN_ISSUER_ID,
+                "RSA265", key, 0, 0, -1);
+        try {
+            getJWTValidator(new Properties()).isValidAssertion(SignedJWT.parse(expiredJWT));
+            fail("An expired assertion should be rejected.");
+        } catch (OAuthClientAuthnException e) {
+            assertTrue(e.getMessage().startsWith("JWT Token is expired"), e.getMessage());
+        }
+        assertEquals(metrics.getRejectionCount(JWTValidationStage.TIME), timeRejections + 1);
+        assertEquals(metrics.getRejectionCount(JWTValidationStage.CLIENT), clientRejections);
+    }
+
+    @Test(dependsOnMethods = "testValidateToken")
+    public void testRecordedReusableAssertionIsNotWrittenAgain() {
+
+        // The reusable assertion of the FAPI client is presented twice by the data provider.
+        assertTrue(JWTServiceDataHolder.getInstance().getValidationStageMetrics().getSuppressedJTIWriteCount() > 0);
+    }
+
+    @Test(dependsOnMethods = "testValidateToken")
+    public void testKeyStoreCertificateChangeWhileProfileIsCached() throws Exception {
+
+        // The client has neither a certificate nor a JWKS URI, hence its assertions are verified with the key store
+        // certificate of the alias of the client.
+        ServiceProvider serviceProvider = Mockito.mock(ServiceProvider.class);
+        Mockito.when(serviceProvider.getSpProperties()).thenReturn(new ServiceProviderProperty[0]);
+        ApplicationManagementService applicationManagementService = Mockito.mock(ApplicationManagementService.class);
+        Mockito.when(applicationManagementService.getServiceProviderByClientId(anyString(), anyString(),
+                anyString())).thenReturn(serviceProvider);
+        OAuth2ServiceComponentHolder.setApplicationMgtService(applicationManagementService);
+        KeyStore aliasKeyStore = KeyStore.getInstance("JKS");
+        aliasKeyStore.load(null, null);
+        aliasKeyStore.setCertificateEntry(TEST_CLIENT_ID_1, clientKeyStore.getCertificate("wso2carbon"));
+        Mockito.when(keyStoreManager.getPrimaryKeyStore()).thenReturn(aliasKeyStore);
+        JWTClientAuthProfileCacheKey profileCacheKey = new JWTClientAuthProfileCacheKey(TEST_CLIENT_ID_1,
+                SUPER_TENANT_DOMAIN_NAME);
+        JWTClientAuthProfileCache.getInstance().clearCacheEntry(profileCacheKey, SUPER_TENANT_DOMAIN_NAME);
+        JWTSignatureKeyCache.getInstance().clearCacheEntry(new JWTSignatureKeyCacheKey(TEST_CLIENT_ID_1,
+                SUPER_TENANT_DOMAIN_NAME), SUPER_TENANT_DOMAIN_NAME);
+        try {
+            JWTValidator jwtValidator = getJWTValidator(new Properties());
+            Key clientKey = clientKeyStore.getKey("wso2carbon", "wso2carbon".toCharArray());
+            Key serverKey = serverKeyStore.getKey("wso2carbon", "wso2carbon".toCharArray());
+            assertTrue(jwtValidator.isValidAssertion(SignedJWT.parse(buildJWT(TEST_CLIENT_ID_1, TEST_CLIENT_ID_1,
+                    "3040", ID_TOKEN_ISSUER_ID, "RSA265", clientKey, 0))));
+            assertNotNull(JWTClientAuthProfileCache.getInstance().getValueFromCache(profileCacheKey,
+                    SUPER_TENANT_DOMAIN_NAME));
+
+            // Replace the certificate of the alias while the profile of the client is cached.
+            aliasKeyStore.setCertificateEntry(TEST_CLIENT_ID_1, serverKeyStore.getCertificate("wso2carbon"));
+            assertNotNull(JWTClientAuthProfileCache.getInstance().getValueFromCache(profileCacheKey,
+                    SUPER_TENANT_DOMAIN_NAME));
+            assertTrue(jwtValidator.isValidAssertion(SignedJWT.parse(buildJWT(TEST_CLIENT_ID_1, TEST_CLIENT_ID_1,
+                    "3041", ID_TOKEN_ISSUER_ID, "RSA265", serverKey, 0))),
+                    "Assertion signed with the key of the new certificate should pass.");
+            try {
+                assertFalse(jwtValidator.isValidAssertion(SignedJWT.parse(buildJWT(TEST_CLIENT_ID_1,
+                        TEST_CLIENT_ID_1, "3042", ID_TOKEN_ISSUER_ID, "RSA265", clientKey, 0))),
+                        "Assertion signed with the key of the replaced certificate should fail.");
+            } catch (OAuthClientAuthnException e) {
+                // Rejected as expected.
+            }
+        } finally {
+            Mockito.when(keyStoreManager.getPrimaryKeyStore()).thenReturn(serverKeyStore);
+        }
+    }
+
     @Test(dependsOnMethods = "testValidateToken")
     public void testValidateTokenSignedByHmac() throws Exception {
 
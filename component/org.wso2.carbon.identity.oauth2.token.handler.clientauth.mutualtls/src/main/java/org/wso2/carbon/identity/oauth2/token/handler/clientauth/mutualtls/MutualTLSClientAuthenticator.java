@@ -19,11 +19,6 @@
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls;
 
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.nimbusds.jose.util.DefaultResourceRetriever;
-import com.nimbusds.jose.util.Resource;
 import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -40,31 +35,25 @@ import org.wso2.carbon.identity.oauth2.bean.OAuthClientAuthnContext;
 import org.wso2.carbon.identity.oauth2.client.authentication.AbstractOAuthClientAuthenticator;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnException;
 import org.wso2.carbon.identity.oauth2.model.ClientAuthenticationMethodModel;
-import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheEntry;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCacheEntry;
-import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSIndex;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSLoader;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSCertificateParser;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.xml.bind.DatatypeConverter;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
-import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -125,18 +114,8 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
                 log.debug("Authenticating client : " + oAuthClientAuthnContext.getClientId() + " with public " +
                         "certificate.");
             }
-            X509Certificate requestCert;
-            Object certObject = request.getAttribute(JAVAX_SERVLET_REQUEST_CERTIFICATE);
-            Optional<X509Certificate> x509certObject = getCertificateFromHeader(request);
-
-            if (certObject instanceof X509Certificate[]) {
-                X509Certificate[] cert = (X509Certificate[]) certObject;
-                requestCert = cert[0];
-            } else if (certObject instanceof X509Certificate) {
-                requestCert = (X509Certificate) certObject;
-            } else if (x509certObject.isPresent()) {
-                requestCert = x509certObject.get();
-            } else {
+            MutualTLSCertificateCacheEntry clientCertificate = getClientCertificate(request, oAuthClientAuthnContext);
+            if (clientCertificate == null) {
                 if (log.isDebugEnabled()) {
                     log.debug("Could not find client certificate in required format for client: " +
                             oAuthClientAuthnContext.getClientId());
@@ -155,7 +134,7 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
                             + "Fetching the jwks endpoint for validating request certificate");
                 }
                 jwksUri = getJWKSEndpointOfSP(serviceProvider, oAuthClientAuthnContext.getClientId());
-                return authenticate(jwksUri, requestCert, oAuthAppdo);
+                return authenticate(jwksUri, clientCertificate, oAuthAppdo);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug("Public certificate configured for Service Provider with client_id: "
@@ -164,7 +143,7 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
                 }
                 registeredCert = (X509Certificate) OAuth2Util
                         .getX509CertOfOAuthApp(oAuthClientAuthnContext.getClientId(), tenantDomain);
-                return authenticate(registeredCert, requestCert, oAuthAppdo);
+                return authenticate(registeredCert, clientCertificate, oAuthAppdo);
             }
         } catch (IdentityOAuth2Exception e) {
             throw new OAuthClientAuthnException(OAuth2ErrorCodes.SERVER_ERROR, "Error occurred while retrieving " +
@@ -206,7 +185,7 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
                 }
                 return true;
             } else {
-                if (StringUtils.isNotBlank(headerName) && getCertificateFromHeader(request).isPresent()) {
+                if (StringUtils.isNotBlank(headerName) && getClientCertificate(request, context) != null) {
                     if (log.isDebugEnabled()) {
                         log.debug("A valid certificate was found from the request header hence returning true.");
                     }
@@ -246,7 +225,40 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
         return oAuthClientAuthnContext.getClientId();
     }
 
-    private Optional<X509Certificate> getCertificateFromHeader(HttpServletRequest request) {
+    /**
+     * Get the client certificate of the request. The certificate is resolved once per request and kept in the client
+     * authentication context together with its thumbprints, so that the token binding grant handlers reuse it.
+     *
+     * @param request HttpServletRequest which is the incoming request.
+     * @param context OAuth client authentication context.
+     * @return Client certificate, or null if the request does not carry a valid certificate.
+     */
+    private MutualTLSCertificateCacheEntry getClientCertificate(HttpServletRequest request,
+                                                                OAuthClientAuthnContext context) {
+
+        Object resolvedCertificate = context.getParameter(CommonConstants.CLIENT_CERTIFICATE_PARAM);
+        if (resolvedCertificate instanceof MutualTLSCertificateCacheEntry) {
+            return (MutualTLSCertificateCacheEntry) resolvedCertificate;
+        }
+        MutualTLSCertificateCacheEntry clientCertificate = null;
+        Object certObject = request.getAttribute(JAVAX_SERVLET_REQUEST_CERTIFICATE);
+        if (certObject instanceof X509Certificate[]) {
+            clientCertificate = new MutualTLSCertificateCacheEntry(((X509Certificate[]) certObject)[0]);
+        } else if (certObject instanceof X509Certificate) {
+            clientCertificate = new MutualTLSCertificateCacheEntry((X509Certificate) certObject);
+        } else {
+            Optional<MutualTLSCertificateCacheEntry> headerCertificate = getCertificateFromHeader(request);
+            if (headerCertificate.isPresent()) {
+                clientCertificate = headerCertificate.get();
+            }
+        }
+        if (clientCertificate != null) {
+            context.addParameter(CommonConstants.CLIENT_CERTIFICATE_PARAM, clientCertificate);
+        }
+        return clientCertificate;
+    }
+
+    private Optional<MutualTLSCertificateCacheEntry> getCertificateFromHeader(HttpServletRequest request) {
 
         String headerName = IdentityUtil.getProperty(CommonConstants.MTLS_AUTH_HEADER);
         String headerString = request.getHeader(headerName);
@@ -257,7 +269,7 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
             }
 
             try {
-                return Optional.of(parseCertificate(headerString));
+                return Optional.of(MutualTLSCertificateParser.parse(headerString));
             } catch (CertificateException | UnsupportedEncodingException e) {
                 log.error("Unable to parse the certificate sent in header", e);
             }
@@ -266,49 +278,6 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
         return Optional.empty();
     }
 
-    /**
-     * Return Certificate for give Certificate Content.
-     *
-     * @param content   Certificate Content
-     * @return X509Certificate X.509 certificate after decoding the certificate content.
-     * @throws CertificateException Certificate Exception.
-     */
-    private X509Certificate parseCertificate(String content) throws CertificateException, UnsupportedEncodingException {
-
-        if (log.isDebugEnabled()) {
-            log.debug("Trying to parse the client certificate: " + content);
-        }
-        byte[] decoded;
-        String sanitizedCertificate = sanitizeCertificate(content);
-        // First we try to Base64 decode, if it is not decodable, we try to url decode first and then Base64 decode.
-        try {
-            decoded = Base64.getDecoder().decode(sanitizedCertificate);
-        } catch (IllegalArgumentException e) {
-            log.debug("Error while base64 decoding the certificate. Trying URL decoding first.");
-            String urlDecodedContent = URLDecoder.decode(content, StandardCharsets.UTF_8.name());
-            sanitizedCertificate = sanitizeCertificate(urlDecodedContent);
-            decoded = Base64.getDecoder().decode(sanitizedCertificate);
-        }
-
-        return (java.security.cert.X509Certificate) CertificateFactory.getInstance(CommonConstants.X509)
-                .generateCertificate(new ByteArrayInputStream(decoded));
-    }
-
-    /**
-     * Sanitize the certificate before decoding.
-     * @param content certificate as a string.
-     * @return sanitized certificate.
-     */
-    private String sanitizeCertificate(String content) {
-
-        String certContent = StringUtils.trim(content);
-        // Remove Certificate Headers.
-        String certBody = certContent.replaceAll(CommonConstants.BEGIN_CERT, StringUtils.EMPTY)
-                .replaceAll(CommonConstants.END_CERT, StringUtils.EMPTY);
-        // Removing all whitespaces and new lines.
-        return certBody.replaceAll("\\s", StringUtils.EMPTY).replace("\\n", StringUtils.EMPTY);
-    }
-
     private boolean clientIdExistsAsParam(Map<String, List> contentParam) {
 
         Map<String, String> stringContent = getBodyParameters(contentParam);
@@ -328,7 +297,7 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
     }
 
     /**
-     * @deprecated use @{@link # authenticate(X509Certificate registeredCert, X509Certificate requestCert, OAuthAppDO oAuthAppDO)}} instead
+     * @deprecated use @{@link #authenticate(X509Certificate, MutualTLSCertificateCacheEntry, OAuthAppDO)} instead
      * Authenticate the client by comparing the public key of the registered public certificate against the public
      * key of the certificate presented at TLS hand shake for authentication.
      *
@@ -362,6 +331,7 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
     }
 
     /**
+     * @deprecated use @{@link #authenticate(X509Certificate, MutualTLSCertificateCacheEntry, OAuthAppDO)} instead
      * Authenticate the client by comparing the public key of the registered public certificate against the public
      * key of the certificate presented at TLS hand shake for authentication.
      *
@@ -372,10 +342,27 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
     protected boolean authenticate(X509Certificate registeredCert, X509Certificate requestCert, OAuthAppDO oAuthAppDO)
             throws OAuthClientAuthnException {
 
+        return authenticate(registeredCert, new MutualTLSCertificateCacheEntry(requestCert), oAuthAppDO);
+    }
+
+    /**
+     * Authenticate the client by comparing the public key of the registered public certificate against the public
+     * key of the certificate presented at TLS hand shake for authentication. The thumbprint of the presented
+     * certificate is taken from the certificate entry, hence it is computed at most once per request.
+     *
+     * @param registeredCert    X.509 certificate registered at service provider configuration.
+     * @param clientCertificate Certificate presented to server during TLS hand shake.
+     * @param oAuthAppDO        OAuth application of the client.
+     * @return Whether the client was successfully authenticated or not.
+     */
+    protected boolean authenticate(X509Certificate registeredCert, MutualTLSCertificateCacheEntry clientCertificate,
+                                   OAuthAppDO oAuthAppDO) throws OAuthClientAuthnException {
+
         boolean trustedCert = false;
+        X509Certificate requestCert = clientCertificate.getCertificate();
         try {
             String publicKeyOfRegisteredCert = MutualTLSUtil.getThumbPrint(registeredCert, null);
-            String publicKeyOfRequestCert = MutualTLSUtil.getThumbPrint(requestCert, null);
+            String publicKeyOfRequestCert = clientCertificate.getThumbprint();
             if (StringUtils.equals(publicKeyOfRegisteredCert, publicKeyOfRequestCert)) {
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("Client certificate thumbprint %s matched with the registered " +
@@ -410,15 +397,18 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
      * Authenticate the client by comparing the attributes retrieved from the JWKS endpoint of the registered public
      * certificate against the public key of the certificate presented at TLS hand shake for authentication.
      *
-     * @param jwksUri     JWKS URI registered at service provider configuration.
-     * @param requestCert X.509 certificate presented to server during TLS hand shake.
+     * @param jwksUri           JWKS URI registered at service provider configuration.
+     * @param clientCertificate Certificate presented to server during TLS hand shake.
      * @return Whether the client was successfully authenticated or not.
      */
-    private boolean authenticate(URL jwksUri, X509Certificate requestCert, OAuthAppDO oAuthAppDO)
+    private boolean authenticate(URL jwksUri, MutualTLSCertificateCacheEntry clientCertificate, OAuthAppDO oAuthAppDO)
             throws OAuthClientAuthnException {
 
         try {
-            return isAuthenticated(getResourceContent(jwksUri), requestCert, oAuthAppDO);
+            MutualTLSJWKSIndex index = getJWKSIndex(jwksUri, getResourceContent(jwksUri));
+            String registeredSubjectDN = StringUtils.isNotEmpty(oAuthAppDO.getTlsClientAuthSubjectDN()) ?
+                    oAuthAppDO.getTlsClientAuthSubjectDN() : null;
+            return index.matches(clientCertificate.getThumbprint(), registeredSubjectDN);
         } catch (IOException e) {
             throw new OAuthClientAuthnException(OAuth2ErrorCodes.SERVER_ERROR,
                     "Error occurred while opening HTTP connection for the JWKS URL : " + jwksUri, e);
@@ -429,39 +419,17 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
     }
 
     /**
-     * Authenticate the client by iterating through the JSON Array and matching each attribute.
+     * Get the index of the certificates accepted by the JWKS. The index of a loaded JWKS is built once and reused.
      *
-     * @param resourceArray Json Array retrieved from JWKS endpoint
-     * @param requestCert   X.509 certificate presented to server during TLS hand shake.
-     * @return Whether the client was successfully authenticated or not.
+     * @param jwksUri JWKS URI registered at service provider configuration.
+     * @param keys    Keys retrieved from the JWKS endpoint.
+     * @return Index of the JWKS.
      */
-    private boolean isAuthenticated(JsonArray resourceArray, X509Certificate requestCert, OAuthAppDO oAuthAppDO)
-            throws CertificateException, OAuthClientAuthnException {
+    private MutualTLSJWKSIndex getJWKSIndex(URL jwksUri, JsonArray keys) {
 
-        for (JsonElement jsonElement : resourceArray) {
-            JsonElement attributeValue = jsonElement.getAsJsonObject().get(CommonConstants.X5T);
-            if (attributeValue != null && attributeValue.getAsString().equals(MutualTLSUtil.getThumbPrint(requestCert,
-                    null))) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Client authentication successful using the attribute: " + CommonConstants.X5T);
-                }
-                return true;
-            }
-            attributeValue = jsonElement.getAsJsonObject().get(CommonConstants.X5C);
-
-            if (attributeValue != null) {
-                CertificateFactory factory = CertificateFactory.getInstance(CommonConstants.X509);
-                X509Certificate cert = (X509Certificate) factory.generateCertificate(
-                        new ByteArrayInputStream(DatatypeConverter.parseBase64Binary(attributeValue.getAsString())));
-                if (authenticate(cert, requestCert, oAuthAppDO)) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Client authentication successful using the attribute: " + CommonConstants.X5C);
-                    }
-                    return true;
-                }
-            }
-        }
-        return false;
+        MutualTLSJWKSCacheEntry mutualTLSJWKSCacheEntry = MutualTLSJWKSLoader.getInstance().getLastGoodEntry(jwksUri);
+        MutualTLSJWKSIndex index = mutualTLSJWKSCacheEntry != null ? mutualTLSJWKSCacheEntry.getIndex(keys) : null;
+        return index != null ? index : MutualTLSJWKSIndex.build(keys);
     }
 
     /**
@@ -472,50 +440,8 @@ public class MutualTLSClientAuthenticator extends AbstractOAuthClientAuthenticat
     public JsonArray getResourceContent(URL jwksUri) throws IOException {
 
         if (jwksUri != null) {
-
-            Resource resource = null;
-            MutualTLSJWKSCacheKey mutualTLSJWKSCacheKey = new MutualTLSJWKSCacheKey(jwksUri.toString());
-            MutualTLSJWKSCacheEntry mutualTLSJWKSCacheEntry = MutualTLSJWKSCache.getInstance()
-                    .getValueFromCache(mutualTLSJWKSCacheKey);
-            if (mutualTLSJWKSCacheEntry != null) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Retrieving JWKS for " + jwksUri.toString() + " from cache.");
-                }
-                resource = mutualTLSJWKSCacheEntry.getValue();
-                if (log.isDebugEnabled() && resource != null) {
-                    log.debug("Cache hit for " + jwksUri.toString());
-                }
-            }
-            if (resource == null) {
-
-                DefaultResourceRetriever defaultResourceRetriever;
-                defaultResourceRetriever = new DefaultResourceRetriever(
-                        MutualTLSUtil.readHTTPConnectionConfigValue(CommonConstants.HTTP_CONNECTION_TIMEOUT_XPATH),
-                        MutualTLSUtil.readHTTPConnectionConfigValue(CommonConstants.HTTP_READ_TIMEOUT_XPATH));
-                if (log.isDebugEnabled()) {
-                    log.debug("Fetching JWKS from remote endpoint. JWKS URI: " + jwksUri);
-                }
-                resource = defaultResourceRetriever.retrieveResource(jwksUri);
-                MutualTLSJWKSCache.getInstance()
-                        .addToCache(mutualTLSJWKSCacheKey, new MutualTLSJWKSCacheEntry(resource));
-            }
-            if (resource != null) {
-                JsonParser jp = new JsonParser();
-                try (InputStream inputStream = new ByteArrayInputStream(
-                        resource.getContent().getBytes(StandardCharsets.UTF_8));
-                        InputStreamReader inputStreamReader = new InputStreamReader(inputStream)) {
-                    JsonElement root = jp.parse(inputStreamReader);
-                    JsonObject rootObj = root.getAsJsonObject();
-                    JsonElement keys = rootObj.get(CommonConstants.KEYS);
-                    if (keys != null) {
-                        return keys.getAsJsonArray();
-                    } else {
-                        return null;
-                    }
-                }
-            }
+            return MutualTLSJWKSLoader.getInstance().load(jwksUri).getKeys();
         }
-
         return null;
     }
 
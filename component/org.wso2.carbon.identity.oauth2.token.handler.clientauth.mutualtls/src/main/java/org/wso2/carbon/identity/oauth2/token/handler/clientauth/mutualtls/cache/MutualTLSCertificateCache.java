@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import org.wso2.carbon.identity.application.authentication.framework.cache.AuthenticationBaseCache;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Cache of the client certificates parsed from the client certificate header.
+ * When TLS is terminated at a load balancer, every token request carries the client certificate in a header, and the
+ * same client certificates are presented over and over. Parsed certificates are cached against the raw header value,
+ * so that the repeated presentations skip the decoding and parsing of the certificate.
+ */
+public class MutualTLSCertificateCache extends
+        AuthenticationBaseCache<MutualTLSCertificateCacheKey, MutualTLSCertificateCacheEntry> {
+
+    private static final String CERTIFICATE_CACHE_NAME = "MutualTLSCertificateCache";
+
+    private static volatile MutualTLSCertificateCache instance = new MutualTLSCertificateCache();
+
+    private MutualTLSCertificateCache() {
+
+        super(CERTIFICATE_CACHE_NAME);
+    }
+
+    /**
+     * Returns MutualTLSCertificateCache instance.
+     *
+     * @return Instance of MutualTLSCertificateCache.
+     */
+    public static MutualTLSCertificateCache getInstance() {
+
+        CarbonUtils.checkSecurity();
+        return instance;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.X509CertUtils;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSUtil;
+
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+
+/**
+ * A parsed client certificate together with its thumbprints. Each thumbprint is computed on first use and kept with the
+ * certificate, hence a certificate is digested at most once per algorithm while the entry is cached or held by the
+ * client authentication context of a request.
+ */
+public class MutualTLSCertificateCacheEntry extends org.wso2.carbon.identity.core.cache.CacheEntry {
+
+    private static final long serialVersionUID = 6714803582036529137L;
+    private final X509Certificate certificate;
+    private transient volatile Base64URL sha256Thumbprint;
+    private transient volatile String thumbprint;
+
+    public MutualTLSCertificateCacheEntry(X509Certificate certificate) {
+
+        this.certificate = certificate;
+    }
+
+    public X509Certificate getCertificate() {
+
+        return certificate;
+    }
+
+    /**
+     * Get the SHA-256 thumbprint of the certificate used to bind the tokens to the certificate.
+     *
+     * @return Base64 URL encoded SHA-256 thumbprint.
+     */
+    public Base64URL getSHA256Thumbprint() {
+
+        Base64URL value = sha256Thumbprint;
+        if (value == null) {
+            value = X509CertUtils.computeSHA256Thumbprint(certificate);
+            sha256Thumbprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * Get the thumbprint of the certificate used to match the certificate registered for the client. The thumbprint
+     * depends on the configuration of the OAuth2 module, hence it is computed on first use.
+     *
+     * @return Thumbprint of the certificate.
+     * @throws CertificateEncodingException If the thumbprint could not be computed.
+     */
+    public String getThumbprint() throws CertificateEncodingException {
+
+        String value = thumbprint;
+        if (value == null) {
+            value = MutualTLSUtil.getThumbPrint(certificate, null);
+            thumbprint = value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import java.io.Serializable;
+
+/**
+ * Key attribute of MutualTLSCertificateCache is the raw value of the client certificate header.
+ */
+public class MutualTLSCertificateCacheKey implements Serializable {
+
+    private static final long serialVersionUID = -3518470195530172604L;
+    private final String certificateHeader;
+
+    public MutualTLSCertificateCacheKey(String certificateHeader) {
+
+        this.certificateHeader = certificateHeader;
+    }
+
+    public String getCertificateHeader() {
+
+        return certificateHeader;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof MutualTLSCertificateCacheKey)) {
+            return false;
+        }
+        return this.certificateHeader.equals(((MutualTLSCertificateCacheKey) o).getCertificateHeader());
+    }
+
+    @Override
+    public int hashCode() {
+
+        return certificateHeader.hashCode();
+    }
+}
@@ -32,6 +32,7 @@ public class MutualTLSJWKSCache extends AuthenticationBaseCache<MutualTLSJWKSCac
 
     private MutualTLSJWKSCache() {
         super(JWKS_CACHE_NAME);
+        addListener(new MutualTLSJWKSCacheRemoveListener());
     }
 
     /**
@@ -18,20 +18,71 @@
 
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
 
+import com.google.gson.JsonArray;
 import com.nimbusds.jose.util.Resource;
 
 /**
  * MutualTLSJWKSCacheEntry wraps Resource cache value to make them serializable. This will be used with MutualTLSJWKSCache.
+ * The parsed keys of the resource and their index are kept with the resource, so that they are computed once per
+ * fetched JWKS.
  */
 public class MutualTLSJWKSCacheEntry extends org.wso2.carbon.identity.core.cache.CacheEntry {
 
     private transient Resource resource;
+    private transient volatile JsonArray keys;
+    private transient volatile MutualTLSJWKSIndex index;
+    private final long fetchTime;
 
     public MutualTLSJWKSCacheEntry(Resource resource) {
         this.resource = resource;
+        this.fetchTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Get the time the resource was retrieved from the JWKS endpoint.
+     *
+     * @return Retrieval time in milliseconds.
+     */
+    public long getFetchTime() {
+
+        return fetchTime;
     }
 
     public Resource getValue() {
         return resource;
     }
+
+    /**
+     * Get the parsed keys of the resource.
+     *
+     * @return Keys of the JWKS, or null if the resource is not parsed yet.
+     */
+    public JsonArray getKeys() {
+
+        return keys;
+    }
+
+    public void setKeys(JsonArray keys) {
+
+        this.keys = keys;
+    }
+
+    /**
+     * Get the index of the certificates accepted by the JWKS. The index is built on first use.
+     *
+     * @param keys Parsed keys of the resource.
+     * @return Index of the JWKS, or null if the given keys are not the keys of this entry.
+     */
+    public MutualTLSJWKSIndex getIndex(JsonArray keys) {
+
+        if (keys == null || keys != this.keys) {
+            return null;
+        }
+        MutualTLSJWKSIndex value = index;
+        if (value == null) {
+            value = MutualTLSJWKSIndex.build(keys);
+            index = value;
+        }
+        return value;
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.cache.AbstractCacheListener;
+
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListenerException;
+import javax.cache.event.CacheEntryRemovedListener;
+
+/**
+ * Listener of the removals from the MutualTLSJWKSCache. The removals of explicit and cluster wide invalidations reach
+ * this listener, and the last good copy of the invalidated JWKS held by the loader is dropped.
+ */
+public class MutualTLSJWKSCacheRemoveListener extends
+        AbstractCacheListener<MutualTLSJWKSCacheKey, MutualTLSJWKSCacheEntry>
+        implements CacheEntryRemovedListener<MutualTLSJWKSCacheKey, MutualTLSJWKSCacheEntry> {
+
+    private static final Log log = LogFactory.getLog(MutualTLSJWKSCacheRemoveListener.class);
+
+    @Override
+    public void entryRemoved(CacheEntryEvent<? extends MutualTLSJWKSCacheKey, ? extends MutualTLSJWKSCacheEntry>
+                                     cacheEntryEvent) throws CacheEntryListenerException {
+
+        if (cacheEntryEvent == null || cacheEntryEvent.getKey() == null) {
+            return;
+        }
+        String jwksUri = cacheEntryEvent.getKey().getJWKSCacheKey();
+        if (log.isDebugEnabled()) {
+            log.debug("JWKS cache entry of " + jwksUri + " is invalidated. Dropping the last good copy.");
+        }
+        MutualTLSJWKSLoader.getInstance().invalidate(jwksUri);
+    }
+}
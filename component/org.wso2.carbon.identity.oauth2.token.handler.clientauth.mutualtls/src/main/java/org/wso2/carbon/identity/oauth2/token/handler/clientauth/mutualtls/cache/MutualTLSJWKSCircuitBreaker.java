@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per URI circuit breaker of the JWKS retrievals.
+ * A failed retrieval is cached for a short time, during which the retrievals of the same JWKS URI fail fast. Once the
+ * consecutive failures of a JWKS URI reach the failure threshold the circuit is opened, and no retrieval is attempted
+ * until the open duration has elapsed. A single probe retrieval is then allowed, which closes the circuit if it
+ * succeeds, or opens it again if it fails. Only the JWKS URIs with failures are tracked.
+ */
+public class MutualTLSJWKSCircuitBreaker {
+
+    private static final Log log = LogFactory.getLog(MutualTLSJWKSCircuitBreaker.class);
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final long DEFAULT_OPEN_DURATION_IN_SECONDS = 30;
+    public static final long DEFAULT_NEGATIVE_CACHE_TIMEOUT_IN_SECONDS = 5;
+
+    /**
+     * State of the circuit of a JWKS URI.
+     */
+    public enum State {
+
+        /**
+         * Retrievals are attempted, unless a retrieval failed within the negative cache timeout.
+         */
+        CLOSED,
+
+        /**
+         * Retrievals fail fast until the open duration has elapsed.
+         */
+        OPEN,
+
+        /**
+         * A probe retrieval is in progress. Other retrievals fail fast.
+         */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationInMillis;
+    private final long negativeCacheTimeoutInMillis;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong openedCount = new AtomicLong();
+
+    public MutualTLSJWKSCircuitBreaker() {
+
+        this(DEFAULT_FAILURE_THRESHOLD, TimeUnit.SECONDS.toMillis(DEFAULT_OPEN_DURATION_IN_SECONDS),
+                TimeUnit.SECONDS.toMillis(DEFAULT_NEGATIVE_CACHE_TIMEOUT_IN_SECONDS));
+    }
+
+    /**
+     * Create a circuit breaker.
+     *
+     * @param failureThreshold             Number of consecutive failures which opens the circuit.
+     * @param openDurationInMillis         Time the circuit stays open before a probe retrieval is allowed.
+     * @param negativeCacheTimeoutInMillis Time a failed retrieval is cached while the circuit is closed.
+     */
+    public MutualTLSJWKSCircuitBreaker(int failureThreshold, long openDurationInMillis,
+                                       long negativeCacheTimeoutInMillis) {
+
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationInMillis = Math.max(0, openDurationInMillis);
+        this.negativeCacheTimeoutInMillis = Math.max(0, negativeCacheTimeoutInMillis);
+    }
+
+    /**
+     * Check whether a retrieval of the given JWKS URI should be attempted, and mark the attempt as the probe if the
+     * circuit is due for one. A rejected attempt is counted.
+     *
+     * @param jwksUri             JWKS URI.
+     * @param currentTimeInMillis Current time.
+     * @return True if the retrieval should be attempted.
+     */
+    public boolean allowRequest(String jwksUri, long currentTimeInMillis) {
+
+        Circuit circuit = circuits.get(jwksUri);
+        if (circuit == null) {
+            return true;
+        }
+        synchronized (circuit) {
+            if (isAttemptAllowed(circuit, currentTimeInMillis)) {
+                if (circuit.state != State.CLOSED) {
+                    circuit.state = State.HALF_OPEN;
+                    circuit.probeStartTime = currentTimeInMillis;
+                    if (log.isDebugEnabled()) {
+                        log.debug("Allowing a probe retrieval of the JWKS of: " + jwksUri);
+                    }
+                }
+                return true;
+            }
+        }
+        rejectedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Check whether a retrieval of the given JWKS URI would be allowed, without changing the state of the circuit.
+     *
+     * @param jwksUri             JWKS URI.
+     * @param currentTimeInMillis Current time.
+     * @return True if a retrieval would be allowed.
+     */
+    public boolean isAvailable(String jwksUri, long currentTimeInMillis) {
+
+        Circuit circuit = circuits.get(jwksUri);
+        if (circuit == null) {
+            return true;
+        }
+        synchronized (circuit) {
+            return isAttemptAllowed(circuit, currentTimeInMillis);
+        }
+    }
+
+    /**
+     * Record a successful retrieval, which closes the circuit of the JWKS URI.
+     *
+     * @param jwksUri JWKS URI.
+     */
+    public void recordSuccess(String jwksUri) {
+
+        Circuit circuit = circuits.remove(jwksUri);
+        if (circuit != null && log.isDebugEnabled()) {
+            log.debug("Circuit of the JWKS URI: " + jwksUri + " is closed.");
+        }
+    }
+
+    /**
+     * Record a failed retrieval.
+     *
+     * @param jwksUri             JWKS URI.
+     * @param currentTimeInMillis Current time.
+     */
+    public void recordFailure(String jwksUri, long currentTimeInMillis) {
+
+        failureCount.incrementAndGet();
+        Circuit circuit = circuits.computeIfAbsent(jwksUri, uri -> new Circuit());
+        synchronized (circuit) {
+            circuit.consecutiveFailures++;
+            circuit.lastFailureTime = currentTimeInMillis;
+            if (circuit.state == State.HALF_OPEN || circuit.consecutiveFailures >= failureThreshold) {
+                if (circuit.state == State.CLOSED) {
+                    openedCount.incrementAndGet();
+                    log.warn("Opening the circuit of the JWKS URI: " + jwksUri + " after " +
+                            circuit.consecutiveFailures + " consecutive failures. Retrievals are skipped for " +
+                            openDurationInMillis + "ms.");
+                }
+                circuit.state = State.OPEN;
+                circuit.openTime = currentTimeInMillis;
+            }
+        }
+    }
+
+    /**
+     * Get the state of the circuit of the given JWKS URI.
+     *
+     * @param jwksUri JWKS URI.
+     * @return State of the circuit.
+     */
+    public State getState(String jwksUri) {
+
+        Circuit circuit = circuits.get(jwksUri);
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * Get the states of the circuits of the JWKS URIs with failures.
+     *
+     * @return Snapshot of the circuit states, keyed by the JWKS URI.
+     */
+    public Map<String, State> getStates() {
+
+        Map<String, State> states = new HashMap<>();
+        for (Map.Entry<String, Circuit> circuit : circuits.entrySet()) {
+            synchronized (circuit.getValue()) {
+                states.put(circuit.getKey(), circuit.getValue().state);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Get the number of circuits which are not closed.
+     *
+     * @return Number of open and half open circuits.
+     */
+    public int getOpenCircuitCount() {
+
+        int count = 0;
+        for (State state : getStates().values()) {
+            if (state != State.CLOSED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of failed retrievals.
+     *
+     * @return Number of failures.
+     */
+    public long getFailureCount() {
+
+        return failureCount.get();
+    }
+
+    /**
+     * Get the number of retrievals which failed fast without contacting the JWKS endpoint.
+     *
+     * @return Number of rejected retrievals.
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the number of times a circuit was opened.
+     *
+     * @return Number of opened circuits.
+     */
+    public long getOpenedCount() {
+
+        return openedCount.get();
+    }
+
+    private boolean isAttemptAllowed(Circuit circuit, long currentTimeInMillis) {
+
+        switch (circuit.state) {
+            case OPEN:
+                return currentTimeInMillis - circuit.openTime >= openDurationInMillis;
+            case HALF_OPEN:
+                // Allow a new probe if the previous probe never reported back.
+                return currentTimeInMillis - circuit.probeStartTime >= openDurationInMillis;
+            default:
+                return currentTimeInMillis - circuit.lastFailureTime >= negativeCacheTimeoutInMillis;
+        }
+    }
+
+    /**
+     * Circuit of a single JWKS URI.
+     */
+    private static class Circuit {
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long lastFailureTime;
+        private long openTime;
+        private long probeStartTime;
+    }
+}
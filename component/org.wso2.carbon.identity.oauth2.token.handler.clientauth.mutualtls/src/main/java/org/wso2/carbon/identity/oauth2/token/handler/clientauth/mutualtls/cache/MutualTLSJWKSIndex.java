@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSUtil;
+
+import java.io.ByteArrayInputStream;
+import java.security.Principal;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * Immutable index of the certificates accepted by a JWKS of a client.
+ * The thumbprints of the certificates are computed once when the JWKS is indexed, so that a client certificate is
+ * authenticated against the JWKS with a hash lookup instead of parsing every certificate of the JWKS.
+ */
+public class MutualTLSJWKSIndex {
+
+    private static final Log log = LogFactory.getLog(MutualTLSJWKSIndex.class);
+
+    private static final MutualTLSJWKSIndex EMPTY = new MutualTLSJWKSIndex(Collections.emptySet(),
+            Collections.emptyMap());
+
+    private final Set<String> x5tThumbprints;
+    private final Map<String, String> x5cSubjectDNs;
+
+    private MutualTLSJWKSIndex(Set<String> x5tThumbprints, Map<String, String> x5cSubjectDNs) {
+
+        this.x5tThumbprints = x5tThumbprints;
+        this.x5cSubjectDNs = x5cSubjectDNs;
+    }
+
+    /**
+     * Index the keys of a JWKS. Keys whose certificate could not be parsed are skipped.
+     *
+     * @param keys Keys of the JWKS.
+     * @return Index of the JWKS.
+     */
+    public static MutualTLSJWKSIndex build(JsonArray keys) {
+
+        if (keys == null || keys.size() == 0) {
+            return EMPTY;
+        }
+        Set<String> x5tThumbprints = new HashSet<>();
+        Map<String, String> x5cSubjectDNs = new HashMap<>();
+        for (JsonElement key : keys) {
+            if (!key.isJsonObject()) {
+                continue;
+            }
+            JsonObject keyObject = key.getAsJsonObject();
+            JsonElement x5t = keyObject.get(CommonConstants.X5T);
+            if (x5t != null && x5t.isJsonPrimitive()) {
+                x5tThumbprints.add(x5t.getAsString());
+            }
+            JsonElement x5c = keyObject.get(CommonConstants.X5C);
+            if (x5c == null) {
+                continue;
+            }
+            try {
+                X509Certificate certificate = parseCertificate(x5c);
+                if (certificate == null) {
+                    continue;
+                }
+                Principal subjectDN = certificate.getSubjectDN();
+                // The first certificate of a subject wins, as any of them authenticates the client.
+                x5cSubjectDNs.putIfAbsent(MutualTLSUtil.getThumbPrint(certificate, null),
+                        subjectDN != null ? subjectDN.toString() : null);
+            } catch (CertificateException | IllegalArgumentException | IllegalStateException e) {
+                log.warn("Skipping a key with an invalid certificate in the JWKS. Error: " + e.getMessage());
+            }
+        }
+        return new MutualTLSJWKSIndex(Collections.unmodifiableSet(x5tThumbprints),
+                Collections.unmodifiableMap(x5cSubjectDNs));
+    }
+
+    /**
+     * Check whether the JWKS accepts the given certificate.
+     *
+     * @param thumbprint              Thumbprint of the client certificate.
+     * @param registeredSubjectDN     Subject DN registered for the client, or null if the subject DN is not
+     *                                validated.
+     * @return True if the thumbprint of the certificate is listed in the JWKS, or a certificate of the JWKS has the
+     * same thumbprint and an acceptable subject DN.
+     */
+    public boolean matches(String thumbprint, String registeredSubjectDN) {
+
+        if (x5tThumbprints.contains(thumbprint)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Client authentication successful using the attribute: " + CommonConstants.X5T);
+            }
+            return true;
+        }
+        if (!x5cSubjectDNs.containsKey(thumbprint)) {
+            return false;
+        }
+        String subjectDN = x5cSubjectDNs.get(thumbprint);
+        if (registeredSubjectDN != null && subjectDN != null && !registeredSubjectDN.equals(subjectDN)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Client certificate subjectDN %s does not match with the registered " +
+                        "certificate subjectDN %s.", subjectDN, registeredSubjectDN));
+            }
+            return false;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Client authentication successful using the attribute: " + CommonConstants.X5C);
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of certificates and thumbprints held by the index.
+     *
+     * @return Number of indexed entries.
+     */
+    public int size() {
+
+        return x5tThumbprints.size() + x5cSubjectDNs.size();
+    }
+
+    private static X509Certificate parseCertificate(JsonElement x5c) throws CertificateException {
+
+        // The first certificate of the chain is the certificate of the key.
+        JsonElement leaf = x5c;
+        if (x5c.isJsonArray()) {
+            JsonArray chain = x5c.getAsJsonArray();
+            if (chain.size() == 0) {
+                return null;
+            }
+            leaf = chain.get(0);
+        }
+        return (X509Certificate) CertificateFactory.getInstance(CommonConstants.X509).generateCertificate(
+                new ByteArrayInputStream(DatatypeConverter.parseBase64Binary(leaf.getAsString())));
+    }
+}
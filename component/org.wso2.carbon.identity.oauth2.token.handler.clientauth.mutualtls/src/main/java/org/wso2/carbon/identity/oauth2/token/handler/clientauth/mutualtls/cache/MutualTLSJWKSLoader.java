@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSUtil;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loader of the JWKS of the clients authenticated with a jwks_uri.
+ * The loader is placed in front of the MutualTLSJWKSCache. Concurrent misses of the same JWKS URI are collapsed into a
+ * single in-flight fetch, and a cached JWKS is refreshed in the background once it is older than the refresh interval,
+ * so that the request threads do not wait for the JWKS endpoint when the cache entry expires. The last good copy of
+ * each JWKS is kept on this node and served while a refresh is running, or when the refresh fails, until it is older
+ * than the max staleness. The last good copy is dropped when the cache entry is invalidated. Retrievals go
+ * through a per URI circuit breaker, so that an unreachable JWKS endpoint does not hold the request threads for the
+ * HTTP timeouts on every request.
+ */
+public class MutualTLSJWKSLoader {
+
+    private static final Log log = LogFactory.getLog(MutualTLSJWKSLoader.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL_IN_SECONDS = 300;
+    public static final long DEFAULT_MAX_STALENESS_IN_SECONDS = 3600;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final int REFRESH_THREAD_COUNT = 2;
+
+    private static volatile MutualTLSJWKSLoader instance;
+
+    private final ResourceRetriever resourceRetriever;
+    private final long refreshIntervalInMillis;
+    private final long maxStalenessInMillis;
+    private final Map<String, MutualTLSJWKSCacheEntry> lastGoodEntries;
+    private final Map<String, FutureTask<MutualTLSJWKSCacheEntry>> inFlightFetches = new ConcurrentHashMap<>();
+    private final MutualTLSJWKSCircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+
+    public MutualTLSJWKSLoader(ResourceRetriever resourceRetriever, long refreshIntervalInMillis, int maxEntries) {
+
+        this(resourceRetriever, refreshIntervalInMillis, TimeUnit.SECONDS.toMillis(DEFAULT_MAX_STALENESS_IN_SECONDS),
+                maxEntries, new MutualTLSJWKSCircuitBreaker());
+    }
+
+    /**
+     * Create a JWKS loader.
+     *
+     * @param resourceRetriever       Retriever used to fetch the JWKS.
+     * @param refreshIntervalInMillis Age after which a cached JWKS is refreshed in the background.
+     * @param maxStalenessInMillis    Age after which the last good copy of a JWKS is no longer served.
+     * @param maxEntries              Maximum number of last good copies held by the loader.
+     * @param circuitBreaker          Circuit breaker of the retrievals.
+     */
+    public MutualTLSJWKSLoader(ResourceRetriever resourceRetriever, long refreshIntervalInMillis,
+                               long maxStalenessInMillis, int maxEntries,
+                               MutualTLSJWKSCircuitBreaker circuitBreaker) {
+
+        this.resourceRetriever = resourceRetriever;
+        this.circuitBreaker = circuitBreaker;
+        this.refreshIntervalInMillis = Math.max(0, refreshIntervalInMillis);
+        this.maxStalenessInMillis = Math.max(0, maxStalenessInMillis);
+        this.lastGoodEntries = new LastGoodEntries(Math.max(1, maxEntries));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(REFRESH_THREAD_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "MutualTLSJWKSLoader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns MutualTLSJWKSLoader instance. A loader with the default settings is created on first use if the loader
+     * is not initialized.
+     *
+     * @return Instance of MutualTLSJWKSLoader.
+     */
+    public static MutualTLSJWKSLoader getInstance() {
+
+        if (instance == null) {
+            synchronized (MutualTLSJWKSLoader.class) {
+                if (instance == null) {
+                    instance = new MutualTLSJWKSLoader(createResourceRetriever(),
+                            TimeUnit.SECONDS.toMillis(DEFAULT_REFRESH_INTERVAL_IN_SECONDS), DEFAULT_MAX_ENTRIES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Replace the loader instance with a loader of the given settings. The HTTP connection settings are read once
+     * here instead of on every fetch.
+     *
+     * @param refreshIntervalInMillis Age after which a cached JWKS is refreshed in the background.
+     * @param maxStalenessInMillis    Age after which the last good copy of a JWKS is no longer served.
+     * @param maxEntries              Maximum number of last good copies held by the loader.
+     * @param circuitBreaker          Circuit breaker of the retrievals.
+     */
+    public static synchronized void init(long refreshIntervalInMillis, long maxStalenessInMillis, int maxEntries,
+                                         MutualTLSJWKSCircuitBreaker circuitBreaker) {
+
+        MutualTLSJWKSLoader previous = instance;
+        instance = new MutualTLSJWKSLoader(createResourceRetriever(), refreshIntervalInMillis, maxStalenessInMillis,
+                maxEntries, circuitBreaker);
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Get the JWKS of the given URI. A cached JWKS is returned without waiting for the JWKS endpoint.
+     *
+     * @param jwksUri JWKS URI registered at service provider configuration.
+     * @return Cache entry of the JWKS.
+     * @throws IOException If the JWKS is not cached and could not be retrieved, or the circuit of the JWKS URI is
+     *                     open.
+     */
+    public MutualTLSJWKSCacheEntry load(URL jwksUri) throws IOException {
+
+        String uri = jwksUri.toString();
+        MutualTLSJWKSCacheEntry entry = MutualTLSJWKSCache.getInstance()
+                .getValueFromCache(new MutualTLSJWKSCacheKey(uri));
+        if (entry != null && entry.getValue() != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieving JWKS for " + uri + " from cache.");
+            }
+            if (System.currentTimeMillis() - entry.getFetchTime() >= refreshIntervalInMillis) {
+                refresh(jwksUri);
+            }
+            return entry;
+        }
+        entry = getLastGoodEntry(jwksUri);
+        if (entry != null) {
+            // The cache entry is expired or cleared. Serve the last good copy while the JWKS is refreshed.
+            if (log.isDebugEnabled()) {
+                log.debug("Serving the last good copy of the JWKS for " + uri + " while it is refreshed.");
+            }
+            refresh(jwksUri);
+            return entry;
+        }
+        return fetch(jwksUri);
+    }
+
+    /**
+     * Get the last good copy of the JWKS of the given URI held by this node, without retrieving it.
+     *
+     * @param jwksUri JWKS URI registered at service provider configuration.
+     * @return Cache entry of the JWKS, or null if the JWKS has not been retrieved by this node, or the last good copy
+     * is older than the max staleness.
+     */
+    public MutualTLSJWKSCacheEntry getLastGoodEntry(URL jwksUri) {
+
+        String uri = jwksUri.toString();
+        synchronized (lastGoodEntries) {
+            MutualTLSJWKSCacheEntry entry = lastGoodEntries.get(uri);
+            if (entry != null && System.currentTimeMillis() - entry.getFetchTime() > maxStalenessInMillis) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Dropping the last good copy of the JWKS for " + uri + " as it exceeded the max " +
+                            "staleness.");
+                }
+                lastGoodEntries.remove(uri);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Drop the last good copy of the JWKS of the given URI. This is called when the cache entry of the JWKS is
+     * invalidated, so that an invalidated JWKS is not served from this node.
+     *
+     * @param jwksUri JWKS URI of the invalidated cache entry.
+     */
+    public void invalidate(String jwksUri) {
+
+        synchronized (lastGoodEntries) {
+            lastGoodEntries.remove(jwksUri);
+        }
+    }
+
+    /**
+     * Get the circuit breaker of the retrievals, which also exposes the state of the circuits.
+     *
+     * @return Circuit breaker of the loader.
+     */
+    public MutualTLSJWKSCircuitBreaker getCircuitBreaker() {
+
+        return circuitBreaker;
+    }
+
+    /**
+     * Stop the background refreshes.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    private MutualTLSJWKSCacheEntry fetch(URL jwksUri) throws IOException {
+
+        String uri = jwksUri.toString();
+        FutureTask<MutualTLSJWKSCacheEntry> task = new FutureTask<>(() -> retrieve(jwksUri));
+        FutureTask<MutualTLSJWKSCacheEntry> inFlightFetch = inFlightFetches.putIfAbsent(uri, task);
+        if (inFlightFetch == null) {
+            inFlightFetch = task;
+            run(uri, task);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Waiting for the in-flight fetch of the JWKS for " + uri);
+        }
+        try {
+            return inFlightFetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the JWKS of: " + uri, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Error while retrieving the JWKS of: " + uri, cause);
+        }
+    }
+
+    private void refresh(URL jwksUri) {
+
+        String uri = jwksUri.toString();
+        if (!circuitBreaker.isAvailable(uri, System.currentTimeMillis())) {
+            if (log.isDebugEnabled()) {
+                log.debug("Skipping the refresh of the JWKS for " + uri + " as the JWKS endpoint is unavailable.");
+            }
+            return;
+        }
+        FutureTask<MutualTLSJWKSCacheEntry> task = new FutureTask<>(() -> retrieve(jwksUri));
+        if (inFlightFetches.putIfAbsent(uri, task) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                run(uri, task);
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    log.warn("Error while refreshing the JWKS of: " + uri + ". The last good copy is served until " +
+                            "the JWKS can be retrieved.", e.getCause());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightFetches.remove(uri, task);
+        }
+    }
+
+    private void run(String uri, FutureTask<MutualTLSJWKSCacheEntry> task) {
+
+        try {
+            task.run();
+        } finally {
+            inFlightFetches.remove(uri, task);
+        }
+    }
+
+    private MutualTLSJWKSCacheEntry retrieve(URL jwksUri) throws IOException {
+
+        String uri = jwksUri.toString();
+        if (!circuitBreaker.allowRequest(uri, System.currentTimeMillis())) {
+            throw new IOException("JWKS endpoint is unavailable. Skipping the retrieval of the JWKS of: " + uri);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching JWKS from remote endpoint. JWKS URI: " + uri);
+        }
+        MutualTLSJWKSCacheEntry entry;
+        try {
+            Resource resource = resourceRetriever.retrieveResource(jwksUri);
+            entry = new MutualTLSJWKSCacheEntry(resource);
+            entry.setKeys(parseKeys(uri, resource));
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.recordFailure(uri, System.currentTimeMillis());
+            throw e;
+        }
+        circuitBreaker.recordSuccess(uri);
+        MutualTLSJWKSCache.getInstance().addToCache(new MutualTLSJWKSCacheKey(uri), entry);
+        synchronized (lastGoodEntries) {
+            lastGoodEntries.put(uri, entry);
+        }
+        return entry;
+    }
+
+    private JsonArray parseKeys(String uri, Resource resource) throws IOException {
+
+        if (resource == null || resource.getContent() == null) {
+            throw new IOException("Empty JWKS retrieved from: " + uri);
+        }
+        try {
+            JsonElement keys = new JsonParser().parse(resource.getContent()).getAsJsonObject()
+                    .get(CommonConstants.KEYS);
+            return keys != null ? keys.getAsJsonArray() : null;
+        } catch (JsonParseException | IllegalStateException e) {
+            // A malformed response must not replace the last good copy.
+            throw new IOException("Invalid JWKS retrieved from: " + uri, e);
+        }
+    }
+
+    private static ResourceRetriever createResourceRetriever() {
+
+        return new DefaultResourceRetriever(
+                MutualTLSUtil.readHTTPConnectionConfigValue(CommonConstants.HTTP_CONNECTION_TIMEOUT_XPATH),
+                MutualTLSUtil.readHTTPConnectionConfigValue(CommonConstants.HTTP_READ_TIMEOUT_XPATH));
+    }
+
+    /**
+     * Last good copies of the JWKS, in least recently used order.
+     */
+    private static final class LastGoodEntries extends LinkedHashMap<String, MutualTLSJWKSCacheEntry> {
+
+        private static final long serialVersionUID = 6329850127438710523L;
+
+        private final int maxEntries;
+
+        LastGoodEntries(int maxEntries) {
+
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MutualTLSJWKSCacheEntry> eldest) {
+
+            return size() > maxEntries;
+        }
+    }
+}
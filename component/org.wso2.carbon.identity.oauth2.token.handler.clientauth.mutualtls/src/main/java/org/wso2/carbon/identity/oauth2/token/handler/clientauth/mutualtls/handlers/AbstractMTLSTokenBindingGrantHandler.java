@@ -19,22 +19,20 @@
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.handlers;
 
 import com.nimbusds.jose.util.Base64URL;
-import com.nimbusds.jose.util.X509CertUtils;
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.bean.OAuthClientAuthnContext;
 import org.wso2.carbon.identity.oauth2.model.HttpRequestHeader;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheEntry;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSCertificateParser;
 
-import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
 import java.security.cert.CertificateException;
-import java.security.cert.CertificateFactory;
-import java.security.cert.X509Certificate;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -65,19 +63,26 @@ public class AbstractMTLSTokenBindingGrantHandler {
                 Arrays.stream(requestHeaders).filter(httpRequestHeader ->
                         headerName.equals(httpRequestHeader.getName())).findFirst();
 
-        String authenticatorType = (String) tokReqMsgCtx.getOauth2AccessTokenReqDTO().getoAuthClientAuthnContext()
-                .getParameter(CommonConstants.AUTHENTICATOR_TYPE_PARAM);
+        OAuthClientAuthnContext oAuthClientAuthnContext =
+                tokReqMsgCtx.getOauth2AccessTokenReqDTO().getoAuthClientAuthnContext();
+        String authenticatorType = (String) oAuthClientAuthnContext.getParameter(
+                CommonConstants.AUTHENTICATOR_TYPE_PARAM);
         if (certHeader.isPresent() && CommonConstants.AUTHENTICATOR_TYPE_MTLS.equals(authenticatorType)) {
             Base64URL certThumbprint = null;
             if (log.isDebugEnabled()) {
                 log.debug("Client MTLS certificate found: " + certHeader);
             }
             try {
-                if (certHeader.get().getValue() != null) {
-                    X509Certificate certificate = parseCertificate(certHeader.get().getValue()[0]);
-                    certThumbprint = X509CertUtils.computeSHA256Thumbprint(certificate);
+                // Reuse the certificate resolved by the authenticator, if any.
+                Object clientCertificate = oAuthClientAuthnContext.getParameter(
+                        CommonConstants.CLIENT_CERTIFICATE_PARAM);
+                if (clientCertificate instanceof MutualTLSCertificateCacheEntry) {
+                    certThumbprint = ((MutualTLSCertificateCacheEntry) clientCertificate).getSHA256Thumbprint();
+                } else if (certHeader.get().getValue() != null) {
+                    certThumbprint = MutualTLSCertificateParser.parse(certHeader.get().getValue()[0])
+                            .getSHA256Thumbprint();
                 }
-            } catch (CertificateException e) {
+            } catch (CertificateException | UnsupportedEncodingException e) {
                 if (log.isDebugEnabled()) {
                     log.debug("Error occurred while calculating the thumbprint of the MTLS certificate " +
                             "of the client: " + tokReqMsgCtx.getOauth2AccessTokenReqDTO().getClientId(), e);
@@ -100,25 +105,4 @@ public class AbstractMTLSTokenBindingGrantHandler {
         }
         return validateScope;
     }
-
-    /**
-     * Return X509 Certificate for the given Certificate Content.
-     *
-     * @param content Certificate Content.
-     * @return X509Certificate.
-     * @throws CertificateException Certificate Exception.
-     */
-    private static X509Certificate parseCertificate(String content) throws CertificateException {
-
-        // Trim extra spaces.
-        String decodedContent = StringUtils.trim(content);
-
-        // Remove certificate headers.
-        byte[] decoded = Base64.getDecoder().decode(StringUtils.trim(decodedContent
-                .replaceAll(CommonConstants.BEGIN_CERT, StringUtils.EMPTY)
-                .replaceAll(CommonConstants.END_CERT, StringUtils.EMPTY)));
-
-        return (X509Certificate) CertificateFactory.getInstance(CommonConstants.X509)
-                .generateCertificate(new ByteArrayInputStream(decoded));
-    }
 }
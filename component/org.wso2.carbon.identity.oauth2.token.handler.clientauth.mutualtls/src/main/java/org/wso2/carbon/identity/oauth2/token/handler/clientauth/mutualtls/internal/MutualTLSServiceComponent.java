@@ -18,18 +18,32 @@
 
 package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.internal;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.event.OAuthEventInterceptor;
 import org.wso2.carbon.identity.oauth2.IntrospectionDataProvider;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthenticator;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.MutualTLSClientAuthenticator;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCircuitBreaker;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSLoader;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.introspection.ISIntrospectionDataProvider;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.introspection.IntrospectionResponseInterceptor;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.metrics.MutualTLSJWKSMetrics;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 /**
  * TLS Mutual Auth osgi Component.
@@ -47,6 +61,7 @@ public class MutualTLSServiceComponent {
 
         try {
             BundleContext bundleContext = context.getBundleContext();
+            initJWKSLoader();
             MutualTLSClientAuthenticator mutualTLSClientAuthenticator = new MutualTLSClientAuthenticator();
             IntrospectionResponseInterceptor introspectionResponseInterceptor = new IntrospectionResponseInterceptor();
             ISIntrospectionDataProvider isIntrospectionDataProvider = new ISIntrospectionDataProvider();
@@ -56,6 +71,7 @@ public class MutualTLSServiceComponent {
                     null);
             bundleContext.registerService(IntrospectionDataProvider.class.getName(), isIntrospectionDataProvider,
                     null);
+            registerMetricsMBean();
             if (log.isDebugEnabled()) {
                 log.debug("Mutual TLS bundle is activated");
             }
@@ -64,4 +80,73 @@ public class MutualTLSServiceComponent {
             log.error("Error occurred while registering MTLS component.", e);
         }
     }
+
+    @Deactivate
+    protected void deactivate(ComponentContext context) {
+
+        unregisterMetricsMBean();
+        MutualTLSJWKSLoader.getInstance().shutdown();
+        if (log.isDebugEnabled()) {
+            log.debug("Mutual TLS bundle is deactivated");
+        }
+    }
+
+    private void registerMetricsMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MutualTLSJWKSMetrics.OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(new MutualTLSJWKSMetrics(), objectName);
+        } catch (JMException e) {
+            log.error("Error while registering the mutual TLS JWKS metrics MBean.", e);
+        }
+    }
+
+    private void unregisterMetricsMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MutualTLSJWKSMetrics.OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the mutual TLS JWKS metrics MBean.", e);
+        }
+    }
+
+    private void initJWKSLoader() {
+
+        long refreshInterval = readLongProperty(CommonConstants.MTLS_JWKS_REFRESH_INTERVAL,
+                MutualTLSJWKSLoader.DEFAULT_REFRESH_INTERVAL_IN_SECONDS);
+        int failureThreshold = (int) readLongProperty(CommonConstants.MTLS_JWKS_FAILURE_THRESHOLD,
+                MutualTLSJWKSCircuitBreaker.DEFAULT_FAILURE_THRESHOLD);
+        long openDuration = readLongProperty(CommonConstants.MTLS_JWKS_OPEN_DURATION,
+                MutualTLSJWKSCircuitBreaker.DEFAULT_OPEN_DURATION_IN_SECONDS);
+        long negativeCacheTimeout = readLongProperty(CommonConstants.MTLS_JWKS_NEGATIVE_CACHE_TIMEOUT,
+                MutualTLSJWKSCircuitBreaker.DEFAULT_NEGATIVE_CACHE_TIMEOUT_IN_SECONDS);
+        long maxStaleness = readLongProperty(CommonConstants.MTLS_JWKS_MAX_STALENESS,
+                MutualTLSJWKSLoader.DEFAULT_MAX_STALENESS_IN_SECONDS);
+        MutualTLSJWKSLoader.init(TimeUnit.SECONDS.toMillis(refreshInterval), TimeUnit.SECONDS.toMillis(maxStaleness),
+                MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES, new MutualTLSJWKSCircuitBreaker(failureThreshold,
+                        TimeUnit.SECONDS.toMillis(openDuration), TimeUnit.SECONDS.toMillis(negativeCacheTimeout)));
+    }
+
+    private long readLongProperty(String property, long defaultValue) {
+
+        String value = IdentityUtil.getProperty(property);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value found for " + property + " in the configuration. Using default value: " +
+                    defaultValue);
+            return defaultValue;
+        }
+    }
 }
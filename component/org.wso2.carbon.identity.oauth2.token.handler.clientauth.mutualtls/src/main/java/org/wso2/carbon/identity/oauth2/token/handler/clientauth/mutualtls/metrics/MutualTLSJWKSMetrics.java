@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.metrics;
+
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCircuitBreaker;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JMX view of the JWKS circuit breaker of the mutual TLS client authentication. The values are read from the JWKS
+ * loader on each call, hence the view follows the loader replaced on reactivation.
+ */
+public class MutualTLSJWKSMetrics implements MutualTLSJWKSMetricsMXBean {
+
+    public static final String OBJECT_NAME =
+            "org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls:type=MutualTLSJWKSMetrics";
+
+    @Override
+    public Map<String, String> getStates() {
+
+        Map<String, String> states = new HashMap<>();
+        for (Map.Entry<String, MutualTLSJWKSCircuitBreaker.State> state : getCircuitBreaker().getStates().entrySet()) {
+            states.put(state.getKey(), state.getValue().name());
+        }
+        return states;
+    }
+
+    @Override
+    public int getOpenCircuitCount() {
+
+        return getCircuitBreaker().getOpenCircuitCount();
+    }
+
+    @Override
+    public long getFailureCount() {
+
+        return getCircuitBreaker().getFailureCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return getCircuitBreaker().getRejectedCount();
+    }
+
+    @Override
+    public long getOpenedCount() {
+
+        return getCircuitBreaker().getOpenedCount();
+    }
+
+    private MutualTLSJWKSCircuitBreaker getCircuitBreaker() {
+
+        return MutualTLSJWKSLoader.getInstance().getCircuitBreaker();
+    }
+}
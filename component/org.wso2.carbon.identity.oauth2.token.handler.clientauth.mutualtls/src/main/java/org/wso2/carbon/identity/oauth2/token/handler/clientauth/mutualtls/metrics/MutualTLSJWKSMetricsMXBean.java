@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the state of the JWKS circuit breaker of the mutual TLS client authentication of this
+ * node over JMX.
+ */
+public interface MutualTLSJWKSMetricsMXBean {
+
+    /**
+     * Get the states of the circuits of the JWKS URIs with failures.
+     *
+     * @return Circuit states keyed by the JWKS URI.
+     */
+    Map<String, String> getStates();
+
+    /**
+     * Get the number of circuits which are not closed.
+     *
+     * @return Number of open and half open circuits.
+     */
+    int getOpenCircuitCount();
+
+    /**
+     * Get the number of failed JWKS retrievals.
+     *
+     * @return Number of failures.
+     */
+    long getFailureCount();
+
+    /**
+     * Get the number of JWKS retrievals which failed fast without contacting the JWKS endpoint.
+     *
+     * @return Number of rejected retrievals.
+     */
+    long getRejectedCount();
+
+    /**
+     * Get the number of times a circuit was opened.
+     *
+     * @return Number of opened circuits.
+     */
+    long getOpenedCount();
+}
@@ -32,9 +32,16 @@ public class CommonConstants {
     public static final String SHA256_DIGEST_ALGORITHM = "SHA256";
     public static final String AUTHENTICATOR_TYPE_PARAM = "authenticatorType";
     public static final String AUTHENTICATOR_TYPE_MTLS = "mtls";
+    public static final String CLIENT_CERTIFICATE_PARAM = "mtlsClientCertificate";
     public static final String BEGIN_CERT = "-----BEGIN CERTIFICATE-----";
     public static final String END_CERT = "-----END CERTIFICATE-----";
     public static final String MTLS_AUTH_HEADER = "MutualTLS.ClientCertificateHeader";
+    public static final String MTLS_JWKS_REFRESH_INTERVAL = "MutualTLS.JWKSRefreshIntervalInSeconds";
+    public static final String MTLS_JWKS_MAX_STALENESS = "MutualTLS.JWKSMaxStalenessInSeconds";
+    public static final String MTLS_JWKS_FAILURE_THRESHOLD = "MutualTLS.JWKSCircuitBreaker.FailureThreshold";
+    public static final String MTLS_JWKS_OPEN_DURATION = "MutualTLS.JWKSCircuitBreaker.OpenDurationInSeconds";
+    public static final String MTLS_JWKS_NEGATIVE_CACHE_TIMEOUT =
+            "MutualTLS.JWKSCircuitBreaker.NegativeCacheTimeoutInSeconds";
     public static final String X5T = "x5t";
     public static final String X5C = "x5c";
     public static final String X509 = "X.509";
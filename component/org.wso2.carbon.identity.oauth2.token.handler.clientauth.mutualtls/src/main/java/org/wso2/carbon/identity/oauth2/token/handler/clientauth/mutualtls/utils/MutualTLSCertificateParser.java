@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Parser of the client certificate sent in the client certificate header. Parsed certificates are cached against
+ * the raw header value.
+ */
+public class MutualTLSCertificateParser {
+
+    private static final Log log = LogFactory.getLog(MutualTLSCertificateParser.class);
+
+    // Certificate headers, whitespaces and escaped new lines are removed in a single pass.
+    private static final Pattern SANITIZE_PATTERN = Pattern.compile(Pattern.quote(CommonConstants.BEGIN_CERT) + "|" +
+            Pattern.quote(CommonConstants.END_CERT) + "|\\s|\\\\n");
+
+    private MutualTLSCertificateParser() {
+
+    }
+
+    /**
+     * Parse the client certificate sent in the client certificate header.
+     *
+     * @param content Raw value of the client certificate header.
+     * @return Parsed certificate together with its thumbprints.
+     * @throws CertificateException         If the content is not a valid X.509 certificate.
+     * @throws UnsupportedEncodingException If the content could not be URL decoded.
+     */
+    public static MutualTLSCertificateCacheEntry parse(String content)
+            throws CertificateException, UnsupportedEncodingException {
+
+        MutualTLSCertificateCache cache = MutualTLSCertificateCache.getInstance();
+        MutualTLSCertificateCacheKey key = new MutualTLSCertificateCacheKey(content);
+        MutualTLSCertificateCacheEntry entry = cache.getValueFromCache(key);
+        if (entry != null) {
+            return entry;
+        }
+        entry = new MutualTLSCertificateCacheEntry(parseCertificate(content));
+        cache.addToCache(key, entry);
+        return entry;
+    }
+
+    /**
+     * Return Certificate for give Certificate Content.
+     *
+     * @param content Certificate Content
+     * @return X509Certificate X.509 certificate after decoding the certificate content.
+     * @throws CertificateException Certificate Exception.
+     */
+    private static X509Certificate parseCertificate(String content)
+            throws CertificateException, UnsupportedEncodingException {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Trying to parse the client certificate: " + content);
+        }
+        byte[] decoded;
+        // First we try to Base64 decode, if it is not decodable, we try to url decode first and then Base64 decode.
+        try {
+            decoded = Base64.getDecoder().decode(sanitizeCertificate(content));
+        } catch (IllegalArgumentException e) {
+            log.debug("Error while base64 decoding the certificate. Trying URL decoding first.");
+            String urlDecodedContent = URLDecoder.decode(content, StandardCharsets.UTF_8.name());
+            try {
+                decoded = Base64.getDecoder().decode(sanitizeCertificate(urlDecodedContent));
+            } catch (IllegalArgumentException ex) {
+                throw new CertificateException("Error while base64 decoding the certificate.", ex);
+            }
+        }
+
+        return (X509Certificate) CertificateFactory.getInstance(CommonConstants.X509)
+                .generateCertificate(new ByteArrayInputStream(decoded));
+    }
+
+    /**
+     * Sanitize the certificate before decoding.
+     *
+     * @param content certificate as a string.
+     * @return sanitized certificate.
+     */
+    static String sanitizeCertificate(String content) {
+
+        return SANITIZE_PATTERN.matcher(StringUtils.trim(content)).replaceAll(StringUtils.EMPTY);
+    }
+}
@@ -38,6 +38,7 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.bean.OAuthClientAuthnContext;
 import org.wso2.carbon.identity.oauth2.model.ClientAuthenticationMethodModel;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheEntry;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
@@ -494,6 +495,20 @@ public class MutualTLSClientAuthenticatorTest extends PowerMockTestCase {
 
     }
 
+    @Test
+    public void testAuthenticateCertificateEntry() throws Exception {
+
+        CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        X509Certificate cert = (X509Certificate) factory.generateCertificate(
+                new ByteArrayInputStream(DatatypeConverter.parseBase64Binary(CERTIFICATE_CONTENT)));
+        X509Certificate anotherCert = (X509Certificate) factory.generateCertificate(
+                new ByteArrayInputStream(DatatypeConverter.parseBase64Binary(CERTIFICATE_CONTENT_2)));
+        MutualTLSCertificateCacheEntry clientCertificate = new MutualTLSCertificateCacheEntry(cert);
+        OAuthAppDO appDO = new OAuthAppDO();
+        assertTrue(mutualTLSClientAuthenticator.authenticate(cert, clientCertificate, appDO));
+        assertFalse(mutualTLSClientAuthenticator.authenticate(anotherCert, clientCertificate, appDO));
+    }
+
     @Test
     public void testCanAuthenticateWhenPKJWTAuthMethod () {
 
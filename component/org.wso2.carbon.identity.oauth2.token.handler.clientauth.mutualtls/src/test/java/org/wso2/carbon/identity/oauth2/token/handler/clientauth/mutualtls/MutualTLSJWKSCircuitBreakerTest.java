@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCircuitBreaker;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCircuitBreaker.State;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for MutualTLSJWKSCircuitBreaker class.
+ */
+public class MutualTLSJWKSCircuitBreakerTest {
+
+    private static final String JWKS_URI = "https://localhost/jwks";
+    private static final long NOW = 1000000L;
+
+    @Test
+    public void testNegativeCache() {
+
+        MutualTLSJWKSCircuitBreaker circuitBreaker = new MutualTLSJWKSCircuitBreaker(3, 30000, 5000);
+        assertTrue(circuitBreaker.allowRequest(JWKS_URI, NOW));
+        circuitBreaker.recordFailure(JWKS_URI, NOW);
+        assertEquals(circuitBreaker.getState(JWKS_URI), State.CLOSED);
+        assertFalse(circuitBreaker.allowRequest(JWKS_URI, NOW + 4999));
+        assertFalse(circuitBreaker.isAvailable(JWKS_URI, NOW + 4999));
+        assertTrue(circuitBreaker.allowRequest(JWKS_URI, NOW + 5000));
+        assertTrue(circuitBreaker.allowRequest("https://localhost/other", NOW));
+        assertEquals(circuitBreaker.getRejectedCount(), 1);
+    }
+
+    @Test
+    public void testOpenAndHalfOpen() {
+
+        MutualTLSJWKSCircuitBreaker circuitBreaker = new MutualTLSJWKSCircuitBreaker(2, 30000, 0);
+        circuitBreaker.recordFailure(JWKS_URI, NOW);
+        circuitBreaker.recordFailure(JWKS_URI, NOW + 10);
+        assertEquals(circuitBreaker.getState(JWKS_URI), State.OPEN);
+        assertEquals(circuitBreaker.getOpenCircuitCount(), 1);
+        assertFalse(circuitBreaker.allowRequest(JWKS_URI, NOW + 30009));
+
+        // A single probe is allowed once the open duration has elapsed.
+        assertTrue(circuitBreaker.isAvailable(JWKS_URI, NOW + 30010));
+        assertTrue(circuitBreaker.allowRequest(JWKS_URI, NOW + 30010));
+        assertEquals(circuitBreaker.getState(JWKS_URI), State.HALF_OPEN);
+        assertFalse(circuitBreaker.allowRequest(JWKS_URI, NOW + 30011));
+
+        // A failed probe opens the circuit again.
+        circuitBreaker.recordFailure(JWKS_URI, NOW + 30020);
+        assertEquals(circuitBreaker.getState(JWKS_URI), State.OPEN);
+        assertFalse(circuitBreaker.allowRequest(JWKS_URI, NOW + 30030));
+
+        // A successful probe closes the circuit.
+        assertTrue(circuitBreaker.allowRequest(JWKS_URI, NOW + 60020));
+        circuitBreaker.recordSuccess(JWKS_URI);
+        assertEquals(circuitBreaker.getState(JWKS_URI), State.CLOSED);
+        assertTrue(circuitBreaker.allowRequest(JWKS_URI, NOW + 60021));
+        assertEquals(circuitBreaker.getOpenCircuitCount(), 0);
+
+        assertEquals(circuitBreaker.getFailureCount(), 3);
+        assertEquals(circuitBreaker.getOpenedCount(), 1);
+        assertEquals(circuitBreaker.getRejectedCount(), 3);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSIndex;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSUtil;
+
+import java.io.ByteArrayInputStream;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import javax.xml.bind.DatatypeConverter;
+
+import static org.mockito.Matchers.any;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for MutualTLSJWKSIndex class.
+ */
+@PrepareForTest({MutualTLSUtil.class})
+public class MutualTLSJWKSIndexTest extends PowerMockTestCase {
+
+    private static final String CERTIFICATE_CONTENT = "MIID3TCCAsWgAwIBAgIUJQW8iwYsAbyjc/oHti" +
+            "8DPLJH5ZcwDQYJKoZIhvcNAQELBQAwfjELMAkGA1UEBhMCU0wxEDAOBgNVBAgMB1dlc3Rlcm4xEDAOBgNVBAcMB0NvbG9tYm8xDTA" +
+            "LBgNVBAoMBFdTTzIxDDAKBgNVBAsMA0lBTTENMAsGA1UEAwwER2FnYTEfMB0GCSqGSIb3DQEJARYQZ2FuZ2FuaUB3c28yLmNvbTAe" +
+            "Fw0yMDAzMjQxMjQyMDFaFw0zMDAzMjIxMjQyMDFaMH4xCzAJBgNVBAYTAlNMMRAwDgYDVQQIDAdXZXN0ZXJuMRAwDgYDVQQHDAdDb" +
+            "2xvbWJvMQ0wCwYDVQQKDARXU08yMQwwCgYDVQQLDANJQU0xDTALBgNVBAMMBEdhZ2ExHzAdBgkqhkiG9w0BCQEWEGdhbmdhbmlAd3" +
+            "NvMi5jb20wggEiMA0GCSqGSIb3DQEBAQUAA4IBDwAwggEKAoIBAQC+reCEYOn2lnWgFsp0TF0R1wQiD9C/N+dnv4xCa0rFiu4njDz" +
+            "WR/8tYFl0koaxXoP0+oGnT07KlkA66q0ztwikLZXphLdCBbJ1hSmNvor48FuSb6DgqWixrUa2LHlpaaV7RvlmG+IhZEgKDXdS+/tK" +
+            "0hlcgRzENyOEdETDO5fFlKGGuwaGv6/w69h2LTKGu5nyDLF51rjQ18xp026btHC7se/XSlcp3X63xeOIcFv6m84AN2lnV+g8MOfu2" +
+            "wgWtsKaxn4BL64E7nHZNNLxMRf7GtUm2bl9ydFX4aD1r1Oj4iqFWMNcfQ676Qshk8s7ui3LKWFXwNN/SRD0c/ORtv23AgMBAAGjUz" +
+            "BRMB0GA1UdDgQWBBRDu/vqRafReh4fFHS3Nz4T6u9mUDAfBgNVHSMEGDAWgBRDu/vqRafReh4fFHS3Nz4T6u9mUDAPBgNVHRMBAf8" +
+            "EBTADAQH/MA0GCSqGSIb3DQEBCwUAA4IBAQB7NH51Yj4moEhMonnLUh3eTtf6DUnrpscx6td28rryoDZPfCkJs4VHU9F50etw54Fo" +
+            "HqoIaHp5UIB6l1OsVXytUmwrdxbqW7nfOItYwN1yV093aI2aOeMQYmS+vrPkSkxySP6+wGCWe4gfMgpr6iu9xiWLpnILw5q71gmXW" +
+            "tS900S5aLbllGYe74jkyldLIdhS4TyEBIDgcpZrD8x/Z42al6T/6EANMpvu4Jopisg+uwwkEGSM1I/kjiW+YkWC4oTZ1jMZUWC11W" +
+            "bcouLwjfaf6gt4zWitYCP0r0fLGk4bSJfUFsnJNu6vDhx60TbRhIh9P2jxkmgNYPuAxFtF8v+h";
+
+    @Test
+    public void testMatches() throws Exception {
+
+        PowerMockito.mockStatic(MutualTLSUtil.class);
+        PowerMockito.when(MutualTLSUtil.getThumbPrint(any(), any())).thenReturn("certificate-thumbprint");
+        String jwks = "{\"keys\":[{\"kty\":\"RSA\",\"x5t\":\"listed-thumbprint\"}," +
+                "{\"kty\":\"RSA\",\"x5c\":[\"" + CERTIFICATE_CONTENT + "\"]}," +
+                "{\"kty\":\"RSA\",\"x5c\":[\"invalid\"]}]}";
+        JsonArray keys = new JsonParser().parse(jwks).getAsJsonObject().getAsJsonArray("keys");
+        X509Certificate certificate = (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(
+                new ByteArrayInputStream(DatatypeConverter.parseBase64Binary(CERTIFICATE_CONTENT)));
+        String subjectDN = certificate.getSubjectDN().toString();
+
+        MutualTLSJWKSIndex index = MutualTLSJWKSIndex.build(keys);
+        assertEquals(index.size(), 2);
+        // Listed thumbprints are accepted without a subject DN validation.
+        assertTrue(index.matches("listed-thumbprint", "CN=other"));
+        assertTrue(index.matches("certificate-thumbprint", null));
+        assertTrue(index.matches("certificate-thumbprint", subjectDN));
+        assertFalse(index.matches("certificate-thumbprint", "CN=other"));
+        assertFalse(index.matches("unknown-thumbprint", null));
+    }
+
+    @Test
+    public void testEmptyJWKS() {
+
+        assertFalse(MutualTLSJWKSIndex.build(null).matches("listed-thumbprint", null));
+        assertFalse(MutualTLSJWKSIndex.build(new JsonArray()).matches("listed-thumbprint", null));
+    }
+}
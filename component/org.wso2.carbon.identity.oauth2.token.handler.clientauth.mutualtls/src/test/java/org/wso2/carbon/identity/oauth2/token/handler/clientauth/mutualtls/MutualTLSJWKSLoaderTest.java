@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls;
+
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.common.testng.WithRealmService;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCacheKey;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCircuitBreaker;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Test class for MutualTLSJWKSLoader class, against a local stub JWKS endpoint.
+ */
+@WithCarbonHome
+@WithRealmService
+public class MutualTLSJWKSLoaderTest {
+
+    private static final long TIMEOUT_IN_MILLIS = 5000;
+
+    private final Map<String, AtomicInteger> fetchCounts = new ConcurrentHashMap<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            int version = fetchCounts.computeIfAbsent(exchange.getRequestURI().getPath(),
+                    path -> new AtomicInteger()).incrementAndGet();
+            try {
+                // Keep the fetch in flight long enough for the concurrent requests to collapse into it.
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"keys\":[{\"kty\":\"RSA\",\"x5t\":\"thumbprint-" + version + "\"}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (failing.get()) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        server.stop(0);
+    }
+
+    @Test
+    public void testConcurrentMissesAreCollapsed() throws Exception {
+
+        reset();
+        MutualTLSJWKSLoader loader = createLoader(60000);
+        URL jwksUri = new URL(baseUrl + "/single-flight/jwks");
+        int threadCount = 8;
+        ExecutorService requestThreads = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MutualTLSJWKSCacheEntry>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                results.add(requestThreads.submit((Callable<MutualTLSJWKSCacheEntry>) () -> {
+                    start.await();
+                    return loader.load(jwksUri);
+                }));
+            }
+            start.countDown();
+            MutualTLSJWKSCacheEntry first = results.get(0).get();
+            for (Future<MutualTLSJWKSCacheEntry> result : results) {
+                assertSame(result.get(), first);
+            }
+            assertEquals(getFetchCount(jwksUri), 1);
+            assertEquals(first.getKeys().get(0).getAsJsonObject().get("x5t").getAsString(), "thumbprint-1");
+        } finally {
+            requestThreads.shutdownNow();
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+
+        reset();
+        MutualTLSJWKSLoader loader = createLoader(100);
+        URL jwksUri = new URL(baseUrl + "/refresh-ahead/jwks");
+        try {
+            MutualTLSJWKSCacheEntry first = loader.load(jwksUri);
+            Thread.sleep(150);
+            // The cached copy is served without waiting while the refresh runs in the background.
+            long startTime = System.currentTimeMillis();
+            assertSame(loader.load(jwksUri), first);
+            assertTrue(System.currentTimeMillis() - startTime < 150);
+            waitFor(() -> loader.getLastGoodEntry(jwksUri) != first);
+            assertEquals(getFetchCount(jwksUri), 2);
+            assertEquals(loader.load(jwksUri).getKeys().get(0).getAsJsonObject().get("x5t").getAsString(),
+                    "thumbprint-2");
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testLastGoodCopyServedOnFailure() throws Exception {
+
+        reset();
+        MutualTLSJWKSLoader loader = createLoader(100);
+        URL jwksUri = new URL(baseUrl + "/failure/jwks");
+        try {
+            MutualTLSJWKSCacheEntry first = loader.load(jwksUri);
+            failing.set(true);
+            Thread.sleep(150);
+            assertSame(loader.load(jwksUri), first);
+            waitFor(() -> getFetchCount(jwksUri) == 2);
+            Thread.sleep(300);
+            // The refresh failed, hence the last good copy is still served.
+            assertSame(loader.load(jwksUri), first);
+            assertSame(loader.getLastGoodEntry(jwksUri), first);
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testLastGoodCopyDroppedWhenStale() throws Exception {
+
+        reset();
+        MutualTLSJWKSLoader loader = new MutualTLSJWKSLoader(new DefaultResourceRetriever(1000, 1000), 60000, 100,
+                MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES, new MutualTLSJWKSCircuitBreaker());
+        URL jwksUri = new URL(baseUrl + "/stale/jwks");
+        try {
+            MutualTLSJWKSCacheEntry first = loader.load(jwksUri);
+            assertSame(loader.getLastGoodEntry(jwksUri), first);
+            Thread.sleep(150);
+            assertNull(loader.getLastGoodEntry(jwksUri));
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testLastGoodCopyDroppedOnInvalidation() throws Exception {
+
+        reset();
+        MutualTLSJWKSLoader.init(60000, TimeUnit.SECONDS.toMillis(MutualTLSJWKSLoader.DEFAULT_MAX_STALENESS_IN_SECONDS),
+                MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES, new MutualTLSJWKSCircuitBreaker());
+        MutualTLSJWKSLoader loader = MutualTLSJWKSLoader.getInstance();
+        URL jwksUri = new URL(baseUrl + "/invalidation/jwks");
+        try {
+            MutualTLSJWKSCacheEntry first = loader.load(jwksUri);
+            assertSame(loader.getLastGoodEntry(jwksUri), first);
+            MutualTLSJWKSCache.getInstance().clearCacheEntry(new MutualTLSJWKSCacheKey(jwksUri.toString()));
+            assertNull(loader.getLastGoodEntry(jwksUri));
+            // The invalidated JWKS is retrieved again instead of being served from the last good copy.
+            assertEquals(loader.load(jwksUri).getKeys().get(0).getAsJsonObject().get("x5t").getAsString(),
+                    "thumbprint-2");
+        } finally {
+            MutualTLSJWKSLoader.init(TimeUnit.SECONDS.toMillis(MutualTLSJWKSLoader.DEFAULT_REFRESH_INTERVAL_IN_SECONDS),
+                    TimeUnit.SECONDS.toMillis(MutualTLSJWKSLoader.DEFAULT_MAX_STALENESS_IN_SECONDS),
+                    MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES, new MutualTLSJWKSCircuitBreaker());
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testFailureWithoutLastGoodCopy() throws Exception {
+
+        reset();
+        failing.set(true);
+        MutualTLSJWKSLoader loader = createLoader(60000);
+        try {
+            loader.load(new URL(baseUrl + "/unavailable/jwks"));
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureIsNegativelyCached() throws Exception {
+
+        reset();
+        failing.set(true);
+        MutualTLSJWKSLoader loader = createLoader(60000);
+        URL jwksUri = new URL(baseUrl + "/negative-cache/jwks");
+        try {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    loader.load(jwksUri);
+                    fail("JWKS should not be loaded from a failing endpoint.");
+                } catch (IOException e) {
+                    // Expected. Only the first attempt reaches the JWKS endpoint.
+                }
+            }
+            assertEquals(getFetchCount(jwksUri), 1);
+            assertEquals(loader.getCircuitBreaker().getFailureCount(), 1);
+            assertEquals(loader.getCircuitBreaker().getRejectedCount(), 2);
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    private void reset() {
+
+        failing.set(false);
+    }
+
+    private int getFetchCount(URL jwksUri) {
+
+        AtomicInteger fetchCount = fetchCounts.get(jwksUri.getPath());
+        return fetchCount != null ? fetchCount.get() : 0;
+    }
+
+    private MutualTLSJWKSLoader createLoader(long refreshIntervalInMillis) {
+
+        return new MutualTLSJWKSLoader(new DefaultResourceRetriever(1000, 1000), refreshIntervalInMillis,
+                MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES);
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_IN_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within the timeout.");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -31,16 +31,20 @@ import org.wso2.carbon.identity.oauth2.bean.OAuthClientAuthnContext;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenReqDTO;
 import org.wso2.carbon.identity.oauth2.model.HttpRequestHeader;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheEntry;
 import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.CommonConstants;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils.MutualTLSCertificateParser;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.identity.oauth2.util.Oauth2ScopeUtils;
 import org.wso2.carbon.utils.CarbonUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Test class for AbstractMTLSTokenBindingGrantHandlerTest class.
@@ -116,4 +120,26 @@ public class AbstractMTLSTokenBindingGrantHandlerTest extends PowerMockTestCase
                 mtlsTokenBindingAuthorizationCodeGrantHandler.validateScope(oAuthTokenReqMessageContext);
         assertFalse(validateScope);
     }
+
+    @Test
+    public void testValidateScopeReusesResolvedCertificate() throws Exception {
+
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.getProperty((CommonConstants.MTLS_AUTH_HEADER))).thenReturn("x-wso2-mutual-auth-cert");
+        MutualTLSCertificateCacheEntry clientCertificate = MutualTLSCertificateParser.parse(CERTIFICATE_CONTENT);
+        OAuth2AccessTokenReqDTO oauth2AccessTokenReqDTO = oauth2AccessTokenReqDTOObject();
+        // The header is not parsed again once the authenticator has resolved the certificate.
+        oauth2AccessTokenReqDTO.setHttpRequestHeaders(getHttpRequestHeaders(new String[]{"x-wso2-mutual-auth-cert"},
+                new String[]{"invalid"}));
+        oauth2AccessTokenReqDTO.getoAuthClientAuthnContext().addParameter(CommonConstants.CLIENT_CERTIFICATE_PARAM,
+                clientCertificate);
+        OAuthTokenReqMessageContext oAuthTokenReqMessageContext =
+                new OAuthTokenReqMessageContext(oauth2AccessTokenReqDTO);
+        oAuthTokenReqMessageContext.setScope(new String[]{"openid"});
+
+        assertTrue(new AbstractMTLSTokenBindingGrantHandler().validateScope(oAuthTokenReqMessageContext, true));
+        assertTrue(Arrays.asList(oAuthTokenReqMessageContext.getScope()).contains(CommonConstants.CERT_THUMBPRINT +
+                CommonConstants.SEPARATOR + CommonConstants.SHA256_DIGEST_ALGORITHM +
+                CommonConstants.CERT_THUMBPRINT_SEPARATOR + clientCertificate.getSHA256Thumbprint()));
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.metrics;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSCircuitBreaker;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSJWKSLoader;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for MutualTLSJWKSMetrics class.
+ */
+@WithCarbonHome
+public class MutualTLSJWKSMetricsTest {
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(MutualTLSJWKSMetrics.OBJECT_NAME);
+        if (mBeanServer.isRegistered(objectName)) {
+            mBeanServer.unregisterMBean(objectName);
+        }
+        MutualTLSJWKSLoader.init(TimeUnit.SECONDS.toMillis(MutualTLSJWKSLoader.DEFAULT_REFRESH_INTERVAL_IN_SECONDS),
+                TimeUnit.SECONDS.toMillis(MutualTLSJWKSLoader.DEFAULT_MAX_STALENESS_IN_SECONDS),
+                MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES, new MutualTLSJWKSCircuitBreaker());
+    }
+
+    @Test
+    public void testMetricsAreReadOverJMX() throws Exception {
+
+        MutualTLSJWKSCircuitBreaker circuitBreaker = new MutualTLSJWKSCircuitBreaker(1, 60000, 0);
+        MutualTLSJWKSLoader.init(60000, 60000, MutualTLSJWKSLoader.DEFAULT_MAX_ENTRIES, circuitBreaker);
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(MutualTLSJWKSMetrics.OBJECT_NAME);
+        mBeanServer.registerMBean(new MutualTLSJWKSMetrics(), objectName);
+        MutualTLSJWKSMetricsMXBean proxy = JMX.newMXBeanProxy(mBeanServer, objectName,
+                MutualTLSJWKSMetricsMXBean.class);
+
+        String jwksUri = "https://localhost/jwks";
+        long now = System.currentTimeMillis();
+        circuitBreaker.allowRequest(jwksUri, now);
+        circuitBreaker.recordFailure(jwksUri, now);
+        circuitBreaker.allowRequest(jwksUri, now);
+
+        assertEquals(proxy.getFailureCount(), 1);
+        assertEquals(proxy.getOpenedCount(), 1);
+        assertEquals(proxy.getRejectedCount(), 1);
+        assertEquals(proxy.getOpenCircuitCount(), 1);
+        assertEquals(proxy.getStates().get(jwksUri), MutualTLSJWKSCircuitBreaker.State.OPEN.name());
+    }
+}
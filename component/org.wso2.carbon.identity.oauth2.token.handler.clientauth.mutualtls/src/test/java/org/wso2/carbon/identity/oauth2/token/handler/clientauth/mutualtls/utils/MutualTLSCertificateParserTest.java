@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.utils;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCache;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheEntry;
+import org.wso2.carbon.identity.oauth2.token.handler.clientauth.mutualtls.cache.MutualTLSCertificateCacheKey;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CertificateException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test class for MutualTLSCertificateParser class.
+ */
+@WithCarbonHome
+public class MutualTLSCertificateParserTest {
+
+    private static final String CERTIFICATE_BODY = "MIID3TCCAsWgAwIBAgIUJQW8iwYsAbyjc/oHti" +
+            "8DPLJH5ZcwDQYJKoZIhvcNAQELBQAwfjELMAkGA1UEBhMCU0wxEDAOBgNVBAgMB1dlc3Rlcm4xEDAOBgNVBAcMB0NvbG9tYm8xDTA" +
+            "LBgNVBAoMBFdTTzIxDDAKBgNVBAsMA0lBTTENMAsGA1UEAwwER2FnYTEfMB0GCSqGSIb3DQEJARYQZ2FuZ2FuaUB3c28yLmNvbTAe" +
+            "Fw0yMDAzMjQxMjQyMDFaFw0zMDAzMjIxMjQyMDFaMH4xCzAJBgNVBAYTAlNMMRAwDgYDVQQIDAdXZXN0ZXJuMRAwDgYDVQQHDAdDb" +
+            "2xvbWJvMQ0wCwYDVQQKDARXU08yMQwwCgYDVQQLDANJQU0xDTALBgNVBAMMBEdhZ2ExHzAdBgkqhkiG9w0BCQEWEGdhbmdhbmlAd3" +
+            "NvMi5jb20wggEiMA0GCSqGSIb3DQEBAQUAA4IBDwAwggEKAoIBAQC+reCEYOn2lnWgFsp0TF0R1wQiD9C/N+dnv4xCa0rFiu4njDz" +
+            "WR/8tYFl0koaxXoP0+oGnT07KlkA66q0ztwikLZXphLdCBbJ1hSmNvor48FuSb6DgqWixrUa2LHlpaaV7RvlmG+IhZEgKDXdS+/tK" +
+            "0hlcgRzENyOEdETDO5fFlKGGuwaGv6/w69h2LTKGu5nyDLF51rjQ18xp026btHC7se/XSlcp3X63xeOIcFv6m84AN2lnV+g8MOfu2" +
+            "wgWtsKaxn4BL64E7nHZNNLxMRf7GtUm2bl9ydFX4aD1r1Oj4iqFWMNcfQ676Qshk8s7ui3LKWFXwNN/SRD0c/ORtv23AgMBAAGjUz" +
+            "BRMB0GA1UdDgQWBBRDu/vqRafReh4fFHS3Nz4T6u9mUDAfBgNVHSMEGDAWgBRDu/vqRafReh4fFHS3Nz4T6u9mUDAPBgNVHRMBAf8" +
+            "EBTADAQH/MA0GCSqGSIb3DQEBCwUAA4IBAQB7NH51Yj4moEhMonnLUh3eTtf6DUnrpscx6td28rryoDZPfCkJs4VHU9F50etw54Fo" +
+            "HqoIaHp5UIB6l1OsVXytUmwrdxbqW7nfOItYwN1yV093aI2aOeMQYmS+vrPkSkxySP6+wGCWe4gfMgpr6iu9xiWLpnILw5q71gmXW" +
+            "tS900S5aLbllGYe74jkyldLIdhS4TyEBIDgcpZrD8x/Z42al6T/6EANMpvu4Jopisg+uwwkEGSM1I/kjiW+YkWC4oTZ1jMZUWC11W" +
+            "bcouLwjfaf6gt4zWitYCP0r0fLGk4bSJfUFsnJNu6vDhx60TbRhIh9P2jxkmgNYPuAxFtF8v+h";
+    private static final String CERTIFICATE_CONTENT = CommonConstants.BEGIN_CERT + CERTIFICATE_BODY +
+            CommonConstants.END_CERT;
+
+    @Test
+    public void testParseIsCached() throws Exception {
+
+        MutualTLSCertificateCacheEntry entry = MutualTLSCertificateParser.parse(CERTIFICATE_CONTENT);
+        assertEquals(entry.getSHA256Thumbprint(), X509CertUtils.computeSHA256Thumbprint(entry.getCertificate()));
+        assertSame(MutualTLSCertificateParser.parse(CERTIFICATE_CONTENT), entry);
+        assertSame(MutualTLSCertificateCache.getInstance()
+                .getValueFromCache(new MutualTLSCertificateCacheKey(CERTIFICATE_CONTENT)), entry);
+    }
+
+    @Test
+    public void testParseFormattedCertificate() throws Exception {
+
+        String formatted = CommonConstants.BEGIN_CERT + "\n" + CERTIFICATE_BODY.substring(0, 64) + "\\n" +
+                CERTIFICATE_BODY.substring(64) + "\n" + CommonConstants.END_CERT + " ";
+        String urlEncoded = URLEncoder.encode(CERTIFICATE_CONTENT, StandardCharsets.UTF_8.name());
+        MutualTLSCertificateCacheEntry entry = MutualTLSCertificateParser.parse(CERTIFICATE_CONTENT);
+        assertEquals(MutualTLSCertificateParser.parse(formatted).getCertificate(), entry.getCertificate());
+        assertEquals(MutualTLSCertificateParser.parse(urlEncoded).getCertificate(), entry.getCertificate());
+    }
+
+    @Test(expectedExceptions = CertificateException.class)
+    public void testParseInvalidCertificate() throws Exception {
+
+        MutualTLSCertificateParser.parse("not-a-certificate");
+    }
+}